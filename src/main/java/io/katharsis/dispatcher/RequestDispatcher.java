@@ -1,13 +1,30 @@
 package io.katharsis.dispatcher;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.katharsis.dispatcher.controller.BaseController;
+import io.katharsis.dispatcher.controller.HttpMethod;
 import io.katharsis.dispatcher.registry.ControllerRegistry;
 import io.katharsis.errorhandling.mapper.ExceptionMapperRegistry;
 import io.katharsis.errorhandling.mapper.JsonApiExceptionMapper;
+import io.katharsis.jackson.FragmentCache;
+import io.katharsis.jackson.JsonApiFormat;
+import io.katharsis.jackson.JsonApiModuleBuilder;
+import io.katharsis.jackson.serializer.NdjsonCollectionWriter;
 import io.katharsis.queryParams.RequestParams;
 import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.JsonPath;
+import io.katharsis.request.path.PathIds;
+import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.BaseResponse;
+import io.katharsis.response.CollectionResponse;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -18,10 +35,80 @@ public class RequestDispatcher {
 
     private final ControllerRegistry controllerRegistry;
     private final ExceptionMapperRegistry exceptionMapperRegistry;
+    private final ObjectWriter objectWriter;
+    private final Map<JsonApiFormat, ObjectWriter> formatWriters;
+    private final NdjsonCollectionWriter ndjsonCollectionWriter;
+    private final FragmentCache fragmentCache;
 
     public RequestDispatcher(ControllerRegistry controllerRegistry, ExceptionMapperRegistry exceptionMapperRegistry) {
+        this(controllerRegistry, exceptionMapperRegistry, null);
+    }
+
+    /**
+     * @param controllerRegistry      registry of the controllers
+     * @param exceptionMapperRegistry registry of the exception mappers
+     * @param objectMapper            object mapper with the Katharsis module used to write responses by
+     *                                {@link #writeResponse(BaseResponse, OutputStream)}, can be <i>null</i> if
+     *                                the responses are written by the integration
+     */
+    public RequestDispatcher(ControllerRegistry controllerRegistry, ExceptionMapperRegistry exceptionMapperRegistry,
+                             ObjectMapper objectMapper) {
+        this(controllerRegistry, exceptionMapperRegistry, objectMapper, null);
+    }
+
+    /**
+     * @param controllerRegistry      registry of the controllers
+     * @param exceptionMapperRegistry registry of the exception mappers
+     * @param objectMapper            object mapper with the Katharsis module used to write responses by
+     *                                {@link #writeResponse(BaseResponse, OutputStream)}, can be <i>null</i> if
+     *                                the responses are written by the integration
+     * @param fragmentCache           cache of serialized resources used by the object mapper, resources changed by
+     *                                requests are invalidated in the cache, can be <i>null</i>
+     */
+    public RequestDispatcher(ControllerRegistry controllerRegistry, ExceptionMapperRegistry exceptionMapperRegistry,
+                             ObjectMapper objectMapper, FragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
         this.controllerRegistry = controllerRegistry;
         this.exceptionMapperRegistry = exceptionMapperRegistry;
+        this.objectWriter = objectMapper != null ? createWriter(objectMapper) : null;
+        this.formatWriters = Collections.emptyMap();
+        this.ndjsonCollectionWriter = null;
+    }
+
+    /**
+     * Creates a dispatcher writing responses in all of the available formats, see
+     * {@link #writeResponse(BaseResponse, JsonApiFormat, OutputStream)}. A writer of each format is built once here.
+     *
+     * @param controllerRegistry      registry of the controllers
+     * @param exceptionMapperRegistry registry of the exception mappers
+     * @param resourceRegistry        registry of the resources
+     * @param jsonApiModuleBuilder    builder of the Katharsis module used by the writers
+     * @param fragmentCache           cache of serialized resources used by the module builder, resources changed by
+     *                                requests are invalidated in the cache, can be <i>null</i>
+     */
+    public RequestDispatcher(ControllerRegistry controllerRegistry, ExceptionMapperRegistry exceptionMapperRegistry,
+                             ResourceRegistry resourceRegistry, JsonApiModuleBuilder jsonApiModuleBuilder,
+                             FragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
+        this.controllerRegistry = controllerRegistry;
+        this.exceptionMapperRegistry = exceptionMapperRegistry;
+        Map<JsonApiFormat, ObjectWriter> writers = new EnumMap<>(JsonApiFormat.class);
+        ObjectMapper jsonObjectMapper = jsonApiModuleBuilder.buildObjectMapper(resourceRegistry, JsonApiFormat.JSON);
+        for (JsonApiFormat format : JsonApiFormat.values()) {
+            if (format == JsonApiFormat.JSON || format.isLineDelimited()) {
+                writers.put(format, createWriter(jsonObjectMapper));
+            } else if (format.isAvailable()) {
+                writers.put(format, createWriter(jsonApiModuleBuilder.buildObjectMapper(resourceRegistry, format)));
+            }
+        }
+        this.formatWriters = writers;
+        this.objectWriter = writers.get(JsonApiFormat.JSON);
+        this.ndjsonCollectionWriter = jsonApiModuleBuilder.buildNdjsonCollectionWriter(resourceRegistry,
+            jsonObjectMapper);
+    }
+
+    private static ObjectWriter createWriter(ObjectMapper objectMapper) {
+        return objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     /**
@@ -35,11 +122,37 @@ public class RequestDispatcher {
      */
     public BaseResponse<?> dispatchRequest(JsonPath jsonPath, String requestType, RequestParams requestParams,
                                            @SuppressWarnings("SameParameterValue") RequestBody requestBody) throws Exception {
+        return dispatchRequest(jsonPath, requestType, requestParams, requestBody, null);
+    }
 
+    /**
+     * Dispatch the request from a client. A request which isn't accepted by any controller, e.g. a request to an
+     * unknown path, results in the passed response, so no exception is created for it.
+     * @param jsonPath built {@link JsonPath} instance which represents the URI sent in the request
+     * @param requestType type of the request e.g. POST, GET, PATCH
+     * @param requestParams built object containing query parameters of the request
+     * @param requestBody deserialized body of the client request
+     * @param notAcceptedResponse response returned if no controller accepts the request, e.g. an error response
+     *                            with 404 status, <i>null</i> to throw a
+     *                            {@link io.katharsis.errorhandling.exception.KatharsisMatchingException}
+     * @return the response form the Katharsis
+     * @throws Exception exception thrown while processing the request
+     */
+    public BaseResponse<?> dispatchRequest(JsonPath jsonPath, String requestType, RequestParams requestParams,
+                                           RequestBody requestBody, BaseResponse<?> notAcceptedResponse)
+        throws Exception {
         try {
-        return controllerRegistry
-                .getController(jsonPath, requestType)
-                .handle(jsonPath, requestParams, requestBody);
+            Optional<BaseController> controller = controllerRegistry.findController(jsonPath, requestType);
+            if (!controller.isPresent()) {
+                if (notAcceptedResponse != null) {
+                    return notAcceptedResponse;
+                }
+                // throws the exception of a request no controller accepts
+                controllerRegistry.getController(jsonPath, requestType);
+            }
+            BaseResponse<?> response = controller.get().handle(jsonPath, requestParams, requestBody);
+            invalidateFragments(jsonPath, requestType);
+            return response;
         } catch (Exception e) {
             Optional<JsonApiExceptionMapper> exceptionMapper = exceptionMapperRegistry.findMapperFor(e.getClass());
             if (exceptionMapper.isPresent()) {
@@ -50,4 +163,105 @@ public class RequestDispatcher {
             }
         }
     }
+
+    /**
+     * Write controllers change only the resources addressed by the path: the resource itself, or its relationship
+     * or field. New resources have no fragments yet.
+     */
+    private void invalidateFragments(JsonPath jsonPath, String requestType) {
+        if (fragmentCache == null || HttpMethod.GET.name().equals(requestType)) {
+            return;
+        }
+        PathIds ids = jsonPath.getIds();
+        if (ids != null) {
+            for (String id : ids.getIds()) {
+                fragmentCache.invalidate(jsonPath.getResourceName(), id);
+            }
+        }
+    }
+
+    /**
+     * Dispatches the request from a client and writes the response directly to a stream, so the serialized
+     * response is never held in memory. Integrations which have to send the status and headers of the response
+     * before its body should call {@link #dispatchRequest(JsonPath, String, RequestParams, RequestBody)} and
+     * {@link #writeResponse(BaseResponse, OutputStream)} instead.
+     *
+     * @param jsonPath built {@link JsonPath} instance which represents the URI sent in the request
+     * @param requestType type of the request e.g. POST, GET, PATCH
+     * @param requestParams built object containing query parameters of the request
+     * @param requestBody deserialized body of the client request
+     * @param outputStream stream the response is written to, the stream is not closed
+     * @return the written response, <i>null</i> if there's no response body
+     * @throws Exception exception thrown while processing the request
+     */
+    public BaseResponse<?> dispatchAndWrite(JsonPath jsonPath, String requestType, RequestParams requestParams,
+                                            RequestBody requestBody, OutputStream outputStream) throws Exception {
+        BaseResponse<?> response = dispatchRequest(jsonPath, requestType, requestParams, requestBody);
+        writeResponse(response, outputStream);
+        return response;
+    }
+
+    /**
+     * Dispatches the request from a client and writes the response directly to a stream in a format, see
+     * {@link #dispatchAndWrite(JsonPath, String, RequestParams, RequestBody, OutputStream)}.
+     *
+     * @param jsonPath built {@link JsonPath} instance which represents the URI sent in the request
+     * @param requestType type of the request e.g. POST, GET, PATCH
+     * @param requestParams built object containing query parameters of the request
+     * @param requestBody deserialized body of the client request
+     * @param format format of the response, see {@link JsonApiFormat#negotiate(String)}
+     * @param outputStream stream the response is written to, the stream is not closed
+     * @return the written response, <i>null</i> if there's no response body
+     * @throws Exception exception thrown while processing the request
+     */
+    public BaseResponse<?> dispatchAndWrite(JsonPath jsonPath, String requestType, RequestParams requestParams,
+                                            RequestBody requestBody, JsonApiFormat format,
+                                            OutputStream outputStream) throws Exception {
+        BaseResponse<?> response = dispatchRequest(jsonPath, requestType, requestParams, requestBody);
+        writeResponse(response, format, outputStream);
+        return response;
+    }
+
+    /**
+     * Writes a response to a stream. The writer is created once for the dispatcher, buffers used for encoding are
+     * recycled per thread by Jackson, so no intermediate String or byte array of the whole response is created.
+     *
+     * @param response response returned by the dispatcher, nothing is written for <i>null</i>
+     * @param outputStream stream the response is written to, the stream is not closed
+     * @throws IOException if the response cannot be written
+     */
+    public void writeResponse(BaseResponse<?> response, OutputStream outputStream) throws IOException {
+        if (objectWriter == null) {
+            throw new IllegalStateException("RequestDispatcher has been created without an ObjectMapper");
+        }
+        if (response != null) {
+            objectWriter.writeValue(outputStream, response);
+        }
+    }
+
+    /**
+     * Writes a response to a stream in a format. Collection responses of a line delimited format are written
+     * record by record, other responses are written as documents of the format.
+     *
+     * @param response response returned by the dispatcher, nothing is written for <i>null</i>
+     * @param format format of the response, see {@link JsonApiFormat#negotiate(String)}
+     * @param outputStream stream the response is written to, the stream is not closed
+     * @throws IOException if the response cannot be written
+     * @throws IllegalStateException if the dispatcher has no writer of the format
+     */
+    public void writeResponse(BaseResponse<?> response, JsonApiFormat format, OutputStream outputStream)
+        throws IOException {
+        ObjectWriter formatWriter = formatWriters.get(format);
+        if (formatWriter == null) {
+            throw new IllegalStateException("RequestDispatcher has no writer of " + format + " format");
+        }
+        if (response == null) {
+            return;
+        }
+        if (format.isLineDelimited() && response instanceof CollectionResponse) {
+            ndjsonCollectionWriter.write((CollectionResponse) response, outputStream);
+        } else {
+            formatWriter.writeValue(outputStream, response);
+        }
+    }
 }
@@ -5,8 +5,12 @@ import io.katharsis.repository.MetaRepository;
 import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.JsonPath;
 import io.katharsis.response.BaseResponse;
+import io.katharsis.response.LazyMetaInformation;
 import io.katharsis.response.MetaInformation;
 
+import java.util.HashSet;
+import java.util.Set;
+
 /**
  * Represents a controller contract. There can be many kinds of requests that can be send to the framework. The
  * initial process of checking if a request is acceptable is managed by
@@ -41,4 +45,31 @@ public interface BaseController {
         }
         return null;
     }
+
+    /**
+     * Returns meta information computed by the repository only when the response's meta information is written.
+     * Resources passed to the repository have to be readable until the response is serialized.
+     *
+     * @param repository    repository which returned the resources
+     * @param resources     returned resources
+     * @param requestParams params of the request, can be <i>null</i>
+     * @return lazy meta information or <i>null</i> if there's no meta information or it has been omitted
+     */
+    default MetaInformation getMetaInformation(Object repository, Iterable<?> resources,
+                                               RequestParams requestParams) {
+        if (!(repository instanceof MetaRepository) || requestParams != null && requestParams.isMetaOmitted()) {
+            return null;
+        }
+        MetaRepository<?> metaRepository = (MetaRepository<?>) repository;
+        return new LazyMetaInformation(() -> {
+            Set<String> expensiveKeys = new HashSet<>(metaRepository.getExpensiveMetaKeys());
+            if (requestParams != null) {
+                expensiveKeys.retainAll(requestParams.getIncludedMetaKeys());
+            } else {
+                expensiveKeys.clear();
+            }
+            //noinspection unchecked
+            return ((MetaRepository) metaRepository).getMetaInformation(resources, expensiveKeys);
+        });
+    }
 }
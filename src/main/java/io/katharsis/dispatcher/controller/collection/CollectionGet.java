@@ -47,6 +47,7 @@ public class CollectionGet implements BaseController {
         if (registryEntry == null) {
             throw new ResourceNotFoundException(resourceName);
         }
+        requestParams.resolveProjection(resourceName, registryEntry.getResourceInformation());
         Iterable<?> resources;
         ResourceRepository resourceRepository = registryEntry.getResourceRepository();
         if (jsonPath.getIds() == null || jsonPath.getIds().getIds().isEmpty()) {
@@ -64,7 +65,7 @@ public class CollectionGet implements BaseController {
                 containers.add(element);
             }
         }
-        MetaInformation metaInformation = getMetaInformation(resourceRepository, resources);
+        MetaInformation metaInformation = getMetaInformation(resourceRepository, resources, requestParams);
 
         return new CollectionResponse(containers, jsonPath, requestParams, metaInformation);
     }
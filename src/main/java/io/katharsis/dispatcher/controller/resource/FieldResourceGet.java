@@ -8,15 +8,14 @@ import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.FieldPath;
 import io.katharsis.request.path.JsonPath;
 import io.katharsis.request.path.PathIds;
-import io.katharsis.resource.field.ResourceField;
 import io.katharsis.resource.exception.ResourceFieldNotFoundException;
 import io.katharsis.resource.registry.RegistryEntry;
+import io.katharsis.resource.registry.RelationshipDescriptor;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.BaseResponse;
 import io.katharsis.response.CollectionResponse;
 import io.katharsis.response.MetaInformation;
 import io.katharsis.response.ResourceResponse;
-import io.katharsis.utils.Generics;
 import io.katharsis.utils.parser.TypeParser;
 
 import java.io.Serializable;
@@ -26,11 +25,9 @@ import java.util.Collections;
 public class FieldResourceGet implements BaseController {
 
     private final ResourceRegistry resourceRegistry;
-    private final TypeParser typeParser;
 
     public FieldResourceGet(ResourceRegistry resourceRegistry, TypeParser typeParser) {
         this.resourceRegistry = resourceRegistry;
-        this.typeParser = typeParser;
     }
 
     @Override
@@ -47,42 +44,35 @@ public class FieldResourceGet implements BaseController {
         PathIds resourceIds = jsonPath.getIds();
 
         RegistryEntry<?> registryEntry = resourceRegistry.getEntry(resourceName);
-        Serializable castedResourceId = getResourceId(resourceIds, registryEntry);
         String elementName = jsonPath.getElementName();
-        ResourceField relationshipField = registryEntry.getResourceInformation().findRelationshipFieldByName(elementName);
-        if (relationshipField == null) {
+        RelationshipDescriptor relationship = resourceRegistry
+            .findRelationship(registryEntry.getResourceInformation().getResourceClass(), elementName);
+        if (relationship == null) {
             throw new ResourceFieldNotFoundException(elementName);
         }
+        Serializable castedResourceId = relationship.parseSourceId(resourceIds.getIds().get(0));
 
-        Class<?> baseRelationshipFieldClass = relationshipField.getType();
-        Class<?> relationshipFieldClass = Generics.getResourceClass(relationshipField.getGenericType(), baseRelationshipFieldClass);
-
-        RelationshipRepository relationshipRepositoryForClass = registryEntry.getRelationshipRepositoryForClass(relationshipFieldClass);
+        RelationshipRepository relationshipRepositoryForClass = relationship.getRelationshipRepository();
+        RegistryEntry<?> relationshipFieldEntry = relationship.getTargetEntry();
+        requestParams.resolveProjection(resourceRegistry.getResourceType(relationship.getTargetClass()),
+            relationshipFieldEntry.getResourceInformation());
         BaseResponse target;
-        if (Iterable.class.isAssignableFrom(baseRelationshipFieldClass)) {
+        if (relationship.isCollection()) {
             @SuppressWarnings("unchecked")
             Iterable<?> targetObjects = relationshipRepositoryForClass
                 .findManyTargets(castedResourceId, elementName, requestParams);
-            MetaInformation metaInformation = getMetaInformation(relationshipRepositoryForClass, targetObjects);
+            MetaInformation metaInformation =
+                getMetaInformation(relationshipRepositoryForClass, targetObjects, requestParams);
             target = new CollectionResponse(targetObjects, jsonPath, requestParams, metaInformation);
         } else {
             @SuppressWarnings("unchecked")
             Object targetObject = relationshipRepositoryForClass.findOneTarget(castedResourceId, elementName, requestParams);
             MetaInformation metaInformation =
-                getMetaInformation(relationshipRepositoryForClass, Collections.singletonList(targetObject));
+                getMetaInformation(relationshipRepositoryForClass, Collections.singletonList(targetObject),
+                    requestParams);
             target = new ResourceResponse(targetObject, jsonPath, requestParams, metaInformation);
         }
 
         return target;
     }
-
-    private Serializable getResourceId(PathIds resourceIds, RegistryEntry<?> registryEntry) {
-        String resourceId = resourceIds.getIds().get(0);
-        @SuppressWarnings("unchecked")
-        Class<? extends Serializable> idClass = (Class<? extends Serializable>) registryEntry
-                .getResourceInformation()
-                .getIdField()
-                .getType();
-        return typeParser.parse(resourceId, idClass);
-    }
 }
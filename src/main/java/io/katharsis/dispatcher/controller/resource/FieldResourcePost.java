@@ -10,16 +10,15 @@ import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.FieldPath;
 import io.katharsis.request.path.JsonPath;
 import io.katharsis.request.path.PathIds;
-import io.katharsis.resource.field.ResourceField;
 import io.katharsis.resource.exception.RequestBodyException;
 import io.katharsis.resource.exception.RequestBodyNotFoundException;
 import io.katharsis.resource.exception.ResourceFieldNotFoundException;
 import io.katharsis.resource.exception.ResourceNotFoundException;
 import io.katharsis.resource.registry.RegistryEntry;
+import io.katharsis.resource.registry.RelationshipDescriptor;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.MetaInformation;
 import io.katharsis.response.ResourceResponse;
-import io.katharsis.utils.Generics;
 import io.katharsis.utils.PropertyUtils;
 import io.katharsis.utils.parser.TypeParser;
 
@@ -62,19 +61,15 @@ public class FieldResourcePost extends ResourceUpsert {
             throw new RequestBodyException(HttpMethod.POST, resourceName, "Multiple data in body");
         }
 
-        Serializable castedResourceId = getResourceId(resourceIds, registryEntry);
-        ResourceField relationshipField = registryEntry.getResourceInformation()
-            .findRelationshipFieldByName(jsonPath.getElementName());
-        if (relationshipField == null) {
+        RelationshipDescriptor relationship = resourceRegistry
+            .findRelationship(registryEntry.getResourceInformation().getResourceClass(), jsonPath.getElementName());
+        if (relationship == null) {
             throw new ResourceFieldNotFoundException(jsonPath.getElementName());
         }
+        Serializable castedResourceId = relationship.parseSourceId(resourceIds.getIds().get(0));
 
-        Class<?> baseRelationshipFieldClass = relationshipField.getType();
-        Class<?> relationshipFieldClass = Generics
-            .getResourceClass(relationshipField.getGenericType(), baseRelationshipFieldClass);
-
-        RegistryEntry relationshipRegistryEntry = resourceRegistry.getEntry(relationshipFieldClass);
-        String relationshipResourceType = resourceRegistry.getResourceType(baseRelationshipFieldClass);
+        RegistryEntry relationshipRegistryEntry = relationship.getTargetEntry();
+        String relationshipResourceType = relationship.getTargetType();
 
         DataBody dataBody = requestBody.getSingleData();
         Object resource = buildNewResource(relationshipRegistryEntry, dataBody, relationshipResourceType);
@@ -89,10 +84,10 @@ public class FieldResourcePost extends ResourceUpsert {
         @SuppressWarnings("unchecked")
         Object savedResourceWithRelations = resourceRepository.findOne(resourceId, requestParams);
 
-        RelationshipRepository relationshipRepositoryForClass = registryEntry.getRelationshipRepositoryForClass(relationshipFieldClass);
+        RelationshipRepository relationshipRepositoryForClass = relationship.getRelationshipRepository();
         @SuppressWarnings("unchecked")
         Object parent = registryEntry.getResourceRepository().findOne(castedResourceId, requestParams);
-        if (Iterable.class.isAssignableFrom(baseRelationshipFieldClass)) {
+        if (relationship.isCollection()) {
             //noinspection unchecked
             relationshipRepositoryForClass.addRelations(parent, Collections.singletonList(resourceId), jsonPath.getElementName());
         } else {
@@ -100,18 +95,8 @@ public class FieldResourcePost extends ResourceUpsert {
             relationshipRepositoryForClass.setRelation(parent, resourceId, jsonPath.getElementName());
         }
         MetaInformation metaInformation = getMetaInformation(resourceRepository,
-            Collections.singletonList(savedResourceWithRelations));
+            Collections.singletonList(savedResourceWithRelations), requestParams);
 
         return new ResourceResponse(savedResourceWithRelations, jsonPath, requestParams, metaInformation);
     }
-
-    private Serializable getResourceId(PathIds resourceIds, RegistryEntry<?> registryEntry) {
-        String resourceId = resourceIds.getIds().get(0);
-        @SuppressWarnings("unchecked")
-        Class<? extends Serializable> idClass = (Class<? extends Serializable>) registryEntry
-                .getResourceInformation()
-                .getIdField()
-                .getType();
-        return typeParser.parse(resourceId, idClass);
-    }
 }
@@ -1,8 +1,8 @@
 package io.katharsis.dispatcher.controller.resource;
 
 import io.katharsis.dispatcher.controller.HttpMethod;
-import io.katharsis.repository.RelationshipRepository;
 import io.katharsis.request.dto.DataBody;
+import io.katharsis.resource.registry.RelationshipDescriptor;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.utils.parser.TypeParser;
 
@@ -22,22 +22,17 @@ public class RelationshipsResourceDelete extends RelationshipsResourceUpsert {
     }
 
     @Override
-    public void processToManyRelationship(Object resource, Class<? extends Serializable> relationshipIdType, String elementName,
-                                          Iterable<DataBody> dataBodies, RelationshipRepository relationshipRepositoryForClass) {
+    public void processToManyRelationship(Object resource, RelationshipDescriptor relationship,
+                                          Iterable<DataBody> dataBodies) {
         List<Serializable> parsedIds = new LinkedList<>();
-        dataBodies.forEach(dataBody -> {
-            Serializable parsedId = typeParser.parse(dataBody.getId(), relationshipIdType);
-            parsedIds.add(parsedId);
-        });
+        dataBodies.forEach(dataBody -> parsedIds.add(relationship.parseTargetId(dataBody.getId())));
         //noinspection unchecked
-        relationshipRepositoryForClass.removeRelations(resource, parsedIds, elementName);
+        relationship.getRelationshipRepository().removeRelations(resource, parsedIds, relationship.getName());
     }
 
     @Override
-    protected void processToOneRelationship(Object resource, Class<? extends Serializable> relationshipIdType,
-                                            String elementName, DataBody dataBody, RelationshipRepository relationshipRepositoryForClass) {
+    protected void processToOneRelationship(Object resource, RelationshipDescriptor relationship, DataBody dataBody) {
         //noinspection unchecked
-        relationshipRepositoryForClass.setRelation(resource, null, elementName);
+        relationship.getRelationshipRepository().setRelation(resource, null, relationship.getName());
     }
-
 }
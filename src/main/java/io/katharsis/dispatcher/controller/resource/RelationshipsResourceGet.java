@@ -3,21 +3,22 @@ package io.katharsis.dispatcher.controller.resource;
 import io.katharsis.dispatcher.controller.BaseController;
 import io.katharsis.dispatcher.controller.HttpMethod;
 import io.katharsis.queryParams.RequestParams;
+import io.katharsis.repository.RelationshipIdRepository;
 import io.katharsis.repository.RelationshipRepository;
 import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.JsonPath;
 import io.katharsis.request.path.PathIds;
 import io.katharsis.request.path.RelationshipsPath;
-import io.katharsis.resource.field.ResourceField;
 import io.katharsis.resource.exception.ResourceFieldNotFoundException;
 import io.katharsis.resource.registry.RegistryEntry;
+import io.katharsis.resource.registry.RelationshipDescriptor;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.*;
-import io.katharsis.utils.Generics;
 import io.katharsis.utils.parser.TypeParser;
 
 import java.io.Serializable;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -25,11 +26,9 @@ import java.util.List;
 public class RelationshipsResourceGet implements BaseController {
 
     private final ResourceRegistry resourceRegistry;
-    private final TypeParser typeParser;
 
     public RelationshipsResourceGet(ResourceRegistry resourceRegistry, TypeParser typeParser) {
         this.resourceRegistry = resourceRegistry;
-        this.typeParser = typeParser;
     }
 
     @Override
@@ -46,29 +45,29 @@ public class RelationshipsResourceGet implements BaseController {
         PathIds resourceIds = jsonPath.getIds();
         RegistryEntry<?> registryEntry = resourceRegistry.getEntry(resourceName);
 
-        Serializable castedResourceId = getResourceId(resourceIds, registryEntry);
         String elementName = jsonPath.getElementName();
-        ResourceField relationshipField = registryEntry.getResourceInformation()
-            .findRelationshipFieldByName(elementName);
-        if (relationshipField == null) {
+        RelationshipDescriptor relationship = resourceRegistry
+            .findRelationship(registryEntry.getResourceInformation().getResourceClass(), elementName);
+        if (relationship == null) {
             throw new ResourceFieldNotFoundException(elementName);
         }
+        Serializable castedResourceId = relationship.parseSourceId(resourceIds.getIds().get(0));
 
-        Class<?> baseRelationshipFieldClass = relationshipField.getType();
-        Class<?> relationshipFieldClass = Generics
-            .getResourceClass(relationshipField.getGenericType(), baseRelationshipFieldClass);
-
-        RelationshipRepository relationshipRepositoryForClass = registryEntry.getRelationshipRepositoryForClass(
-            relationshipFieldClass);
-        RegistryEntry relationshipFieldEntry = resourceRegistry.getEntry(relationshipFieldClass);
+        Class<?> relationshipFieldClass = relationship.getTargetClass();
+        RelationshipRepository relationshipRepositoryForClass = relationship.getRelationshipRepository();
+        RegistryEntry relationshipFieldEntry = relationship.getTargetEntry();
+        if (relationship.getRelationshipIdRepository() != null) {
+            return getTargetIds(relationship, castedResourceId, jsonPath, requestParams);
+        }
         BaseResponse target;
-        if (Iterable.class.isAssignableFrom(baseRelationshipFieldClass)) {
+        if (relationship.isCollection()) {
             List<LinkageContainer> dataList = new LinkedList<>();
 
             @SuppressWarnings("unchecked")
             Iterable<?> targetObjects = relationshipRepositoryForClass
                 .findManyTargets(castedResourceId, elementName, requestParams);
-            MetaInformation metaInformation = getMetaInformation(relationshipRepositoryForClass, targetObjects);
+            MetaInformation metaInformation =
+                getMetaInformation(relationshipRepositoryForClass, targetObjects, requestParams);
             if (targetObjects != null) {
                 for (Object targetObject : targetObjects) {
                     dataList.add(new LinkageContainer(targetObject, relationshipFieldClass, relationshipFieldEntry));
@@ -79,7 +78,8 @@ public class RelationshipsResourceGet implements BaseController {
             @SuppressWarnings("unchecked")
             Object targetObject = relationshipRepositoryForClass.findOneTarget(castedResourceId, elementName, requestParams);
             MetaInformation metaInformation =
-                getMetaInformation(relationshipRepositoryForClass, Collections.singletonList(targetObject));
+                getMetaInformation(relationshipRepositoryForClass, Collections.singletonList(targetObject),
+                    requestParams);
             if (targetObject != null) {
                 LinkageContainer linkageContainer = new LinkageContainer(targetObject, relationshipFieldClass, relationshipFieldEntry);
 
@@ -92,12 +92,47 @@ public class RelationshipsResourceGet implements BaseController {
         return target;
     }
 
-    private Serializable getResourceId(PathIds resourceIds, RegistryEntry<?> registryEntry) {
-        String resourceId = resourceIds.getIds().get(0);
-        @SuppressWarnings("unchecked") Class<? extends Serializable> idClass = (Class<? extends Serializable>) registryEntry
-                .getResourceInformation()
-                .getIdField()
-                .getType();
-        return typeParser.parse(resourceId, idClass);
+    /**
+     * Builds a response out of the identifiers of the targets, so the targets don't have to be fetched. The targets
+     * passed to {@link io.katharsis.repository.MetaRepository} are fetched only if the meta information is written
+     * and the repository reads them.
+     */
+    @SuppressWarnings("unchecked")
+    private BaseResponse getTargetIds(RelationshipDescriptor relationship, Serializable castedResourceId,
+                                      JsonPath jsonPath, RequestParams requestParams) {
+        RelationshipIdRepository relationshipIdRepository = relationship.getRelationshipIdRepository();
+        RelationshipRepository relationshipRepository = relationship.getRelationshipRepository();
+        String elementName = relationship.getName();
+        Class<?> relationshipFieldClass = relationship.getTargetClass();
+        RegistryEntry relationshipFieldEntry = relationship.getTargetEntry();
+        if (relationship.isCollection()) {
+            List<LinkageContainer> dataList = new ArrayList<>();
+            Iterable<?> targetIds = relationshipIdRepository
+                .findManyTargetIds(castedResourceId, elementName, requestParams);
+            if (targetIds != null) {
+                for (Object targetId : targetIds) {
+                    dataList.add(LinkageContainer.forId(targetId, relationshipFieldClass, relationshipFieldEntry));
+                }
+            }
+            Iterable<Object> targetObjects = () -> {
+                Iterable<Object> targets = relationshipRepository
+                    .findManyTargets(castedResourceId, elementName, requestParams);
+                return targets != null ? targets.iterator() : Collections.emptyIterator();
+            };
+            MetaInformation metaInformation = getMetaInformation(relationshipRepository, targetObjects, requestParams);
+            return new CollectionResponse(dataList, jsonPath, requestParams, metaInformation);
+        } else {
+            Object targetId = relationshipIdRepository.findOneTargetId(castedResourceId, elementName, requestParams);
+            Iterable<?> targetObjects = () -> Collections.singletonList(
+                relationshipRepository.findOneTarget(castedResourceId, elementName, requestParams)).iterator();
+            MetaInformation metaInformation = getMetaInformation(relationshipRepository, targetObjects, requestParams);
+            if (targetId != null) {
+                LinkageContainer linkageContainer =
+                    LinkageContainer.forId(targetId, relationshipFieldClass, relationshipFieldEntry);
+                return new ResourceResponse(linkageContainer, jsonPath, requestParams, metaInformation);
+            } else {
+                return new ResourceResponse(null, jsonPath, requestParams, metaInformation);
+            }
+        }
     }
 }
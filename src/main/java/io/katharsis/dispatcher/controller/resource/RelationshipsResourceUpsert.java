@@ -3,24 +3,22 @@ package io.katharsis.dispatcher.controller.resource;
 import io.katharsis.dispatcher.controller.BaseController;
 import io.katharsis.dispatcher.controller.HttpMethod;
 import io.katharsis.queryParams.RequestParams;
-import io.katharsis.repository.RelationshipRepository;
 import io.katharsis.repository.ResourceRepository;
 import io.katharsis.request.dto.DataBody;
 import io.katharsis.request.dto.RequestBody;
 import io.katharsis.request.path.JsonPath;
 import io.katharsis.request.path.PathIds;
 import io.katharsis.request.path.RelationshipsPath;
-import io.katharsis.resource.field.ResourceField;
 import io.katharsis.resource.exception.RequestBodyException;
 import io.katharsis.resource.exception.RequestBodyNotFoundException;
 import io.katharsis.resource.exception.ResourceFieldNotFoundException;
 import io.katharsis.resource.exception.ResourceNotFoundException;
 import io.katharsis.resource.registry.RegistryEntry;
+import io.katharsis.resource.registry.RelationshipDescriptor;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.BaseResponse;
 import io.katharsis.response.MetaInformation;
 import io.katharsis.response.ResourceResponse;
-import io.katharsis.utils.Generics;
 import io.katharsis.utils.parser.TypeParser;
 
 import java.io.Serializable;
@@ -29,11 +27,9 @@ import java.util.Collections;
 public abstract class RelationshipsResourceUpsert implements BaseController {
 
     private final ResourceRegistry resourceRegistry;
-    final TypeParser typeParser;
 
     RelationshipsResourceUpsert(ResourceRegistry resourceRegistry, TypeParser typeParser) {
         this.resourceRegistry = resourceRegistry;
-        this.typeParser = typeParser;
     }
 
     /**
@@ -46,26 +42,22 @@ public abstract class RelationshipsResourceUpsert implements BaseController {
     /**
      * Processes To-Many field
      *
-     * @param resource                       source resource
-     * @param relationshipIdType             {@link Class} class of the relationship's id field
-     * @param elementName                    field's name
-     * @param dataBodies                     Data bodies with relationships
-     * @param relationshipRepositoryForClass Relationship repository
+     * @param resource     source resource
+     * @param relationship relationship of the field, it parses ids of the targets and provides the repository
+     * @param dataBodies   Data bodies with relationships
      */
-    protected abstract void processToManyRelationship(Object resource, Class<? extends Serializable> relationshipIdType, String elementName,
-                                                      Iterable<DataBody> dataBodies, RelationshipRepository relationshipRepositoryForClass);
+    protected abstract void processToManyRelationship(Object resource, RelationshipDescriptor relationship,
+                                                      Iterable<DataBody> dataBodies);
 
     /**
      * Processes To-One field
      *
-     * @param resource                       source resource
-     * @param relationshipIdType             {@link Class} class of the relationship's id field
-     * @param elementName                    field's name
-     * @param dataBody                       Data body with a relationship
-     * @param relationshipRepositoryForClass Relationship repository
+     * @param resource     source resource
+     * @param relationship relationship of the field, it parses ids of the targets and provides the repository
+     * @param dataBody     Data body with a relationship
      */
-    protected abstract void processToOneRelationship(Object resource, Class<? extends Serializable> relationshipIdType,
-                                                     String elementName, DataBody dataBody, RelationshipRepository relationshipRepositoryForClass);
+    protected abstract void processToOneRelationship(Object resource, RelationshipDescriptor relationship,
+                                                     DataBody dataBody);
 
     @Override
     public final boolean isAcceptable(JsonPath jsonPath, String requestType) {
@@ -87,48 +79,33 @@ public abstract class RelationshipsResourceUpsert implements BaseController {
             throw new RequestBodyNotFoundException(HttpMethod.POST, resourceName);
         }
 
-        Serializable castedResourceId = getResourceId(resourceIds, registryEntry);
-        ResourceField relationshipField = registryEntry.getResourceInformation().findRelationshipFieldByName(jsonPath
-            .getElementName());
-        if (relationshipField == null) {
+        RelationshipDescriptor relationship = resourceRegistry
+            .findRelationship(registryEntry.getResourceInformation().getResourceClass(), jsonPath.getElementName());
+        if (relationship == null) {
             throw new ResourceFieldNotFoundException(jsonPath.getElementName());
         }
+        Serializable castedResourceId = relationship.parseSourceId(resourceIds.getIds().get(0));
         ResourceRepository resourceRepository = registryEntry.getResourceRepository();
         @SuppressWarnings("unchecked")
         Object resource = resourceRepository.findOne(castedResourceId, requestParams);
 
-        Class<?> baseRelationshipFieldClass = relationshipField.getType();
-        Class<?> relationshipFieldClass = Generics
-            .getResourceClass(relationshipField.getGenericType(), baseRelationshipFieldClass);
-        @SuppressWarnings("unchecked") Class<? extends Serializable> relationshipIdType = (Class<? extends Serializable>) resourceRegistry
-                .getEntry(relationshipFieldClass).getResourceInformation().getIdField().getType();
-
-        RelationshipRepository relationshipRepositoryForClass = registryEntry.getRelationshipRepositoryForClass(relationshipFieldClass);
-        if (Iterable.class.isAssignableFrom(baseRelationshipFieldClass)) {
+        if (relationship.isCollection()) {
             if (!requestBody.isMultiple()) {
                 throw new RequestBodyException(HttpMethod.POST, resourceName, "Non-multiple data in body");
             }
             Iterable<DataBody> dataBodies = requestBody.getMultipleData();
-            processToManyRelationship(resource, relationshipIdType, jsonPath.getElementName(), dataBodies, relationshipRepositoryForClass);
+            processToManyRelationship(resource, relationship, dataBodies);
         } else {
             if (requestBody.isMultiple()) {
                 throw new RequestBodyException(HttpMethod.POST, resourceName, "Multiple data in body");
             }
             DataBody dataBody = requestBody.getSingleData();
-            processToOneRelationship(resource, relationshipIdType, jsonPath.getElementName(), dataBody, relationshipRepositoryForClass);
+            processToOneRelationship(resource, relationship, dataBody);
         }
 
-        MetaInformation metaInformation = getMetaInformation(resourceRepository, Collections.singletonList(resource));
+        MetaInformation metaInformation =
+            getMetaInformation(resourceRepository, Collections.singletonList(resource), requestParams);
 
         return new ResourceResponse(metaInformation);
     }
-
-    private Serializable getResourceId(PathIds resourceIds, RegistryEntry<?> registryEntry) {
-        String resourceId = resourceIds.getIds().get(0);
-        @SuppressWarnings("unchecked") Class<? extends Serializable> idClass = (Class<? extends Serializable>) registryEntry
-                .getResourceInformation()
-                .getIdField()
-                .getType();
-        return typeParser.parse(resourceId, idClass);
-    }
 }
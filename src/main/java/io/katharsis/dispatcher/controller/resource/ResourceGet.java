@@ -63,10 +63,12 @@ public class ResourceGet implements BaseController {
                 .getIdField()
                 .getType();
         Serializable castedId = typeParser.parse(id, idClass);
+        requestParams.resolveProjection(resourceName, registryEntry.getResourceInformation());
         ResourceRepository resourceRepository = registryEntry.getResourceRepository();
         @SuppressWarnings("unchecked")
         Object entity = resourceRepository.findOne(castedId, requestParams);
-        MetaInformation metaInformation = getMetaInformation(resourceRepository, Collections.singletonList(entity));
+        MetaInformation metaInformation =
+            getMetaInformation(resourceRepository, Collections.singletonList(entity), requestParams);
 
         return new ResourceResponse(entity, jsonPath, requestParams, metaInformation);
     }
@@ -71,7 +71,8 @@ public class ResourcePost extends ResourceUpsert {
         @SuppressWarnings("unchecked")
         Object savedResourceWithRelations = resourceRepository.findOne(resourceId, requestParams);
         MetaInformation metaInformation =
-            getMetaInformation(resourceRepository, Collections.singletonList(savedResourceWithRelations));
+            getMetaInformation(resourceRepository, Collections.singletonList(savedResourceWithRelations),
+                requestParams);
 
         return new ResourceResponse(savedResourceWithRelations, jsonPath, requestParams, metaInformation);
     }
@@ -3,14 +3,15 @@ package io.katharsis.dispatcher.controller.resource;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import io.katharsis.dispatcher.controller.BaseController;
-import io.katharsis.repository.RelationshipRepository;
 import io.katharsis.request.dto.DataBody;
 import io.katharsis.request.dto.LinkageData;
 import io.katharsis.resource.exception.ResourceException;
+import io.katharsis.resource.exception.ResourceFieldNotFoundException;
 import io.katharsis.resource.exception.ResourceNotFoundException;
 import io.katharsis.resource.field.ResourceField;
 import io.katharsis.resource.information.ResourceInformation;
 import io.katharsis.resource.registry.RegistryEntry;
+import io.katharsis.resource.registry.RelationshipDescriptor;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.utils.PropertyUtils;
 import io.katharsis.utils.parser.TypeParser;
@@ -65,31 +66,21 @@ public abstract class ResourceUpsert implements BaseController {
     }
 
     private void saveRelationsField(Object savedResource, RegistryEntry registryEntry, Map.Entry<String,
-            Iterable<LinkageData>> property, ResourceInformation resourceInformation)
-            throws InvocationTargetException, NoSuchMethodException, InstantiationException, IllegalAccessException {
+            Iterable<LinkageData>> property, ResourceInformation resourceInformation) {
         if (!allTypesTheSame(property.getValue())) {
             throw new ResourceException("Not all types are the same for linkage: " + property.getKey());
         }
 
-        String type = getLinkageType(property.getValue());
-        RegistryEntry relationRegistryEntry = getRelationRegistryEntry(type);
-        @SuppressWarnings("unchecked")
-        Class<? extends Serializable> relationshipIdClass = (Class<? extends Serializable>) relationRegistryEntry
-                .getResourceInformation()
-                .getIdField()
-                .getType();
+        RelationshipDescriptor relationship = getRelationship(resourceInformation, property.getKey(),
+            getLinkageType(property.getValue()));
         List<Serializable> castedRelationIds = new LinkedList<>();
 
         for (LinkageData linkageData : property.getValue()) {
-            Serializable castedRelationshipId = typeParser.parse(linkageData.getId(), relationshipIdClass);
-            castedRelationIds.add(castedRelationshipId);
+            castedRelationIds.add(relationship.parseTargetId(linkageData.getId()));
         }
 
-        Class<?> relationshipClass = relationRegistryEntry.getResourceInformation().getResourceClass();
-        RelationshipRepository relationshipRepository = registryEntry.getRelationshipRepositoryForClass(relationshipClass);
-        ResourceField relationshipField = resourceInformation.findRelationshipFieldByName(property.getKey());
         //noinspection unchecked
-        relationshipRepository.setRelations(savedResource, castedRelationIds, relationshipField.getName());
+        relationship.getRelationshipRepository().setRelations(savedResource, castedRelationIds, relationship.getName());
     }
 
     private boolean allTypesTheSame(Iterable<LinkageData> linkages) {
@@ -107,31 +98,32 @@ public abstract class ResourceUpsert implements BaseController {
     }
 
     private void saveRelationField(Object savedResource, RegistryEntry registryEntry, Map.Entry<String, LinkageData>
-        property,
-                                   ResourceInformation resourceInformation)
-            throws NoSuchMethodException, IllegalAccessException, InstantiationException, InvocationTargetException {
-        RegistryEntry relationRegistryEntry = getRelationRegistryEntry(property.getValue().getType());
-
-        @SuppressWarnings("unchecked")
-        Class<? extends Serializable> relationshipIdClass = (Class<? extends Serializable>) relationRegistryEntry
-                .getResourceInformation()
-                .getIdField()
-                .getType();
-        Serializable castedRelationshipId = typeParser.parse(property.getValue().getId(), relationshipIdClass);
-
-        Class<?> relationshipClass = relationRegistryEntry.getResourceInformation().getResourceClass();
-        RelationshipRepository relationshipRepository = registryEntry.getRelationshipRepositoryForClass(relationshipClass);
-        ResourceField relationshipField = resourceInformation.findRelationshipFieldByName(property.getKey());
+        property, ResourceInformation resourceInformation) {
+        RelationshipDescriptor relationship = getRelationship(resourceInformation, property.getKey(),
+            property.getValue().getType());
+        Serializable castedRelationshipId = relationship.parseTargetId(property.getValue().getId());
+
         //noinspection unchecked
-        relationshipRepository.setRelation(savedResource, castedRelationshipId, relationshipField.getName());
+        relationship.getRelationshipRepository().setRelation(savedResource, castedRelationshipId, relationship.getName());
     }
 
-    private RegistryEntry getRelationRegistryEntry(String type) {
-        RegistryEntry relationRegistryEntry = resourceRegistry.getEntry(type);
-        if (relationRegistryEntry == null) {
-            throw new ResourceNotFoundException(type);
+    /**
+     * Finds the relationship the linkage data is sent for, the id parser and the repository of the relationship are
+     * resolved once by the registry.
+     */
+    private RelationshipDescriptor getRelationship(ResourceInformation resourceInformation, String name, String type) {
+        RelationshipDescriptor relationship = resourceRegistry.findRelationship(resourceInformation.getResourceClass(),
+            name);
+        if (relationship == null) {
+            throw new ResourceFieldNotFoundException(name);
+        }
+        if (type != null && !type.equals(relationship.getTargetType())) {
+            if (resourceRegistry.getEntry(type) == null) {
+                throw new ResourceNotFoundException(type);
+            }
+            throw new ResourceException("Linkage type " + type + " doesn't match relationship: " + name);
         }
-        return relationRegistryEntry;
+        return relationship;
     }
 
     Object buildNewResource(RegistryEntry registryEntry, DataBody dataBody, String resourceName)
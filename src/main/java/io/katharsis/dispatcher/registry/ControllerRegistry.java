@@ -4,22 +4,25 @@ import io.katharsis.dispatcher.controller.BaseController;
 import io.katharsis.request.path.JsonPath;
 import io.katharsis.request.path.PathBuilder;
 
-import java.util.LinkedList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * Stores a list of controllers which are used to process the incoming requests.
+ * Stores a list of controllers which are used to process the incoming requests. The list is immutable, adding a
+ * controller publishes a new list, so requests can be dispatched while controllers are being added.
  *
  * @see io.katharsis.dispatcher.RequestDispatcher
  */
 public class ControllerRegistry {
 
-    private final List<BaseController> controllers = new LinkedList<>();
+    private final AtomicReference<BaseController[]> controllers;
 
     public ControllerRegistry(List<BaseController> baseControllers) {
-        if (baseControllers != null) {
-            controllers.addAll(baseControllers);
-        }
+        controllers = new AtomicReference<>(baseControllers != null ?
+            baseControllers.toArray(new BaseController[baseControllers.size()]) : new BaseController[0]);
     }
 
     /**
@@ -28,7 +31,17 @@ public class ControllerRegistry {
      * @param controller a controller to be added
      */
     public void addController(BaseController controller) {
-        controllers.add(controller);
+        BaseController[] current;
+        BaseController[] updated;
+        do {
+            current = controllers.get();
+            updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = controller;
+        } while (!controllers.compareAndSet(current, updated));
+    }
+
+    List<BaseController> getControllers() {
+        return Collections.unmodifiableList(Arrays.asList(controllers.get()));
     }
 
     /**
@@ -38,11 +51,22 @@ public class ControllerRegistry {
      * @return suitable controller
      */
     public BaseController getController(JsonPath jsonPath, String requestType) {
-        for (BaseController controller : controllers) {
+        return findController(jsonPath, requestType)
+            .orElseThrow(() -> new MethodNotFoundException(PathBuilder.buildPath(jsonPath), requestType));
+    }
+
+    /**
+     * Iterate over all registered controllers to get the first suitable one without failing if there's none.
+     * @param jsonPath built JsonPath object mad from request path
+     * @param requestType type of a HTTP request
+     * @return suitable controller, empty if no controller accepts the request
+     */
+    public Optional<BaseController> findController(JsonPath jsonPath, String requestType) {
+        for (BaseController controller : controllers.get()) {
             if (controller.isAcceptable(jsonPath, requestType)) {
-                return controller;
+                return Optional.of(controller);
             }
         }
-        throw new MethodNotFoundException(PathBuilder.buildPath(jsonPath), requestType);
+        return Optional.empty();
     }
 }
@@ -2,17 +2,16 @@ package io.katharsis.dispatcher.registry;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.katharsis.dispatcher.controller.BaseController;
-import io.katharsis.dispatcher.controller.resource.ResourceUpsert;
+import io.katharsis.dispatcher.controller.collection.CollectionGet;
+import io.katharsis.dispatcher.controller.resource.*;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.utils.parser.TypeParser;
-import org.reflections.Reflections;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Modifier;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Set;
 
 /**
  * A builder class which holds all of the Katharsis controllers, which must be placed in
@@ -20,6 +19,23 @@ import java.util.Set;
  */
 public class ControllerRegistryBuilder {
 
+    /**
+     * Controllers are a fixed part of Katharsis, so they are listed instead of being found by scanning the package.
+     */
+    private static final List<Class<? extends BaseController>> CONTROLLER_CLASSES = Arrays.asList(
+        CollectionGet.class,
+        ResourceGet.class,
+        ResourcePost.class,
+        ResourcePatch.class,
+        ResourceDelete.class,
+        FieldResourceGet.class,
+        FieldResourcePost.class,
+        RelationshipsResourceGet.class,
+        RelationshipsResourcePost.class,
+        RelationshipsResourcePatch.class,
+        RelationshipsResourceDelete.class
+    );
+
     private final ResourceRegistry resourceRegistry;
     private final TypeParser typeParser;
     private final ObjectMapper objectMapper;
@@ -32,25 +48,16 @@ public class ControllerRegistryBuilder {
     }
 
     /**
-     * Scans an internal Katharsis package for controllers and then instantiates them.
+     * Instantiates the internal Katharsis controllers.
      *
      * @return an instance of {@link ControllerRegistry} with initialized controllers
      * @throws Exception initialization exception
      */
     public ControllerRegistry build() throws Exception {
-
-
-        Reflections reflections = new Reflections("io.katharsis.dispatcher.controller");
-
-        Set<Class<? extends BaseController>> controllerClasses =
-            reflections.getSubTypesOf(BaseController.class);
-
         List<BaseController> controllers = new LinkedList<>();
-        for (Class<? extends BaseController> controllerClass : controllerClasses) {
-            if (!Modifier.isAbstract(controllerClass.getModifiers())) {
-                BaseController controller = getController(controllerClass);
-                controllers.add(controller);
-            }
+        for (Class<? extends BaseController> controllerClass : CONTROLLER_CLASSES) {
+            BaseController controller = getController(controllerClass);
+            controllers.add(controller);
         }
 
         return new ControllerRegistry(controllers);
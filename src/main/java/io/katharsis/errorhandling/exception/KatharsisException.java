@@ -2,10 +2,42 @@ package io.katharsis.errorhandling.exception;
 
 /**
  * General type for exceptions, which can be thrown during Katharsis request processing.
+ * <p>
+ * Most of the exceptions are part of the regular request processing, e.g. they are thrown when a requested resource
+ * doesn't exist, and they are mapped to responses or used to pass a request to another handler. Subclasses thrown
+ * routinely can be created without a stack trace with {@link #KatharsisException(String, boolean)}, so the requests
+ * don't cost a stack walk. Katharsis' own routine exceptions pass {@link #isRoutineStackTraceCaptured()}.
+ * </p>
  */
 public abstract class KatharsisException extends RuntimeException {
 
+    private static volatile boolean routineStackTraceCaptured;
+
     public KatharsisException(String message) {
         super(message);
     }
-}
\ No newline at end of file
+
+    /**
+     * @param message            exception message
+     * @param writableStackTrace <i>false</i> to create the exception without a stack trace
+     */
+    protected KatharsisException(String message, boolean writableStackTrace) {
+        super(message, null, true, writableStackTrace);
+    }
+
+    /**
+     * Enables or disables capturing of stack traces of the exceptions thrown on routine misses and client errors, e.g.
+     * when a requested resource or field doesn't exist, an id cannot be parsed or a request body is invalid. The stack
+     * traces aren't captured by default, they can be enabled to find out where the misses come from. The setting
+     * applies to exceptions created afterwards.
+     *
+     * @param captured <i>true</i> to capture the stack traces, <i>false</i> by default
+     */
+    public static void setRoutineStackTraceCaptured(boolean captured) {
+        routineStackTraceCaptured = captured;
+    }
+
+    public static boolean isRoutineStackTraceCaptured() {
+        return routineStackTraceCaptured;
+    }
+}
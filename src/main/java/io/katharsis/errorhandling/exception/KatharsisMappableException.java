@@ -5,6 +5,11 @@ import io.katharsis.errorhandling.ErrorData;
 /**
  * Represents an exception which must be returned to the end user.
  * Consists of error data and related HTTP status, which should be returned in the response.
+ * <p>
+ * The exceptions are mapped to error responses, so their stack traces are rarely used. Capturing of the stack traces
+ * can be skipped with {@link #KatharsisMappableException(int, ErrorData, boolean)}. The built-in exceptions of
+ * client errors pass {@link #isRoutineStackTraceCaptured()}.
+ * </p>
  */
 public abstract class KatharsisMappableException extends KatharsisException {
     private final ErrorData errorData;
@@ -16,6 +21,12 @@ public abstract class KatharsisMappableException extends KatharsisException {
         this.errorData = errorData;
     }
 
+    protected KatharsisMappableException(int httpStatus, ErrorData errorData, boolean writableStackTrace) {
+        super(errorData.getDetail(), writableStackTrace);
+        this.httpStatus = httpStatus;
+        this.errorData = errorData;
+    }
+
     public ErrorData getErrorData() {
         return errorData;
     }
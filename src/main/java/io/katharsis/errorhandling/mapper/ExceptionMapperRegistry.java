@@ -1,5 +1,7 @@
 package io.katharsis.errorhandling.mapper;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
 
@@ -7,8 +9,21 @@ public final class ExceptionMapperRegistry {
 
     private final Set<ExceptionMapperType> exceptionMappers;
 
+    /**
+     * Mapper resolved for each exception class, including classes without a mapper. The mappers don't change after
+     * the registry is built, so a class is resolved only once. The values live with their classes and don't keep
+     * unloaded exception classes reachable.
+     */
+    private final ClassValue<Optional<JsonApiExceptionMapper>> resolvedMappers =
+        new ClassValue<Optional<JsonApiExceptionMapper>>() {
+            @Override
+            protected Optional<JsonApiExceptionMapper> computeValue(Class<?> exceptionClass) {
+                return resolveMapperFor(exceptionClass);
+            }
+        };
+
     ExceptionMapperRegistry(Set<ExceptionMapperType> exceptionMappers) {
-        this.exceptionMappers = exceptionMappers;
+        this.exceptionMappers = Collections.unmodifiableSet(new HashSet<>(exceptionMappers));
     }
 
     Set<ExceptionMapperType> getExceptionMappers() {
@@ -16,6 +31,10 @@ public final class ExceptionMapperRegistry {
     }
 
     public Optional<JsonApiExceptionMapper> findMapperFor(Class<? extends Throwable> exceptionClass) {
+        return resolvedMappers.get(exceptionClass);
+    }
+
+    private Optional<JsonApiExceptionMapper> resolveMapperFor(Class<?> exceptionClass) {
         int currentDistance = Integer.MAX_VALUE;
         JsonApiExceptionMapper closestExceptionMapper = null;
         for (ExceptionMapperType mapperType : exceptionMappers) {
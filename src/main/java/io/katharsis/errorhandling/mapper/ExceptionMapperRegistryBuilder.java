@@ -1,10 +1,12 @@
 package io.katharsis.errorhandling.mapper;
 
 import io.katharsis.resource.exception.init.InvalidResourceException;
+import io.katharsis.resource.index.ResourceIndex;
 import org.reflections.Reflections;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -13,7 +15,7 @@ public final class ExceptionMapperRegistryBuilder {
 
 
     public Set<ExceptionMapperType> getExceptionMappers() {
-        return exceptionMappers;
+        return Collections.unmodifiableSet(exceptionMappers);
     }
 
     public ExceptionMapperRegistry build(String resourceSearchPackage) throws IllegalAccessException, InstantiationException {
@@ -27,8 +29,14 @@ public final class ExceptionMapperRegistryBuilder {
     }
 
     private void scanForCustomMappers(String resourceSearchPackage) throws InstantiationException, IllegalAccessException {
-        Reflections reflections = new Reflections(resourceSearchPackage);
-        Set<Class<?>> exceptionMapperClasses = reflections.getTypesAnnotatedWith(ExceptionMapperProvider.class);
+        Set<Class<?>> exceptionMapperClasses;
+        ResourceIndex resourceIndex = ResourceIndex.load();
+        if (resourceIndex != null && resourceIndex.covers(resourceSearchPackage)) {
+            exceptionMapperClasses = resourceIndex.getExceptionMappers(resourceSearchPackage);
+        } else {
+            Reflections reflections = new Reflections(resourceSearchPackage);
+            exceptionMapperClasses = reflections.getTypesAnnotatedWith(ExceptionMapperProvider.class);
+        }
 
         for (Class<?> exceptionMapperClazz : exceptionMapperClasses) {
             if (!JsonApiExceptionMapper.class.isAssignableFrom(exceptionMapperClazz)) {
@@ -0,0 +1,227 @@
+package io.katharsis.jackson;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Cache of serialized resource objects, which are written as raw JSON into <i>data</i> and <i>included</i> members
+ * of responses instead of serializing the same resources again. A resource is cached only if it has an attribute
+ * annotated with {@link io.katharsis.resource.annotations.JsonApiVersion}.
+ * <p>
+ * Fragments are stored per resource, identified by its type and id. A resource can have several fragments, one for
+ * each variant of a request the resource has been written for, e.g. for different sparse fieldsets or included
+ * relationships. All fragments of a resource are dropped when a different version of the resource is cached. The
+ * cache is bounded by the estimated heap size of the fragments, the least recently used resources are evicted
+ * first.
+ * </p>
+ * <p>
+ * Fragments are read without locking. The recency of resources is approximate: a read marks a resource as used only
+ * if something has been cached since the resource was last used. Once the maximum size is exceeded, a single writer
+ * evicts the least recently used resources until the cache is below 90% of its maximum size, other writers don't
+ * wait for it, so the size can exceed the maximum for a while.
+ * </p>
+ * <p>
+ * Resources changed by requests handled by {@link io.katharsis.dispatcher.RequestDispatcher} are invalidated if the
+ * cache is passed to the dispatcher. Resources changed in any other way must have their version changed or be
+ * invalidated by {@link #invalidate(String, String)}.
+ * </p>
+ */
+public class FragmentCache {
+
+    /**
+     * Part of the maximum size an exceeded cache is shrunk to, so the resources aren't sorted by recency on each
+     * write of a full cache.
+     */
+    private static final double EVICTION_RATIO = 0.9;
+
+    private final long maxSize;
+    private final ConcurrentMap<String, Fragments> resources = new ConcurrentHashMap<>();
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicLong clock = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * @param maxSize maximum estimated heap size of the cached fragments in bytes
+     */
+    public FragmentCache(long maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return estimated heap size of the cached fragments in bytes
+     */
+    public long getSize() {
+        return size.get();
+    }
+
+    /**
+     * @param resourceType type of the resource
+     * @param id           id of the resource
+     * @param version      version of the resource
+     * @param variant      variant of the request the resource is written for
+     * @return cached fragment, <i>null</i> if there's no fragment of the variant and version
+     */
+    public String get(String resourceType, String id, Object version, String variant) {
+        Fragments fragments = resources.get(createResourceKey(resourceType, id));
+        if (fragments == null || !Objects.equals(fragments.version, version)) {
+            return null;
+        }
+        String fragment = fragments.variants.get(variant);
+        if (fragment != null && fragments.lastUsed != clock.get()) {
+            fragments.lastUsed = clock.incrementAndGet();
+        }
+        return fragment;
+    }
+
+    /**
+     * Caches a fragment. Fragments of other versions of the resource are dropped.
+     *
+     * @param resourceType type of the resource
+     * @param id           id of the resource
+     * @param version      version of the resource
+     * @param variant      variant of the request the resource is written for
+     * @param fragment     serialized resource object
+     */
+    public void put(String resourceType, String id, Object version, String variant, String fragment) {
+        long fragmentSize = estimateSize(variant, fragment);
+        if (fragmentSize > maxSize) {
+            return;
+        }
+        long[] sizeChange = new long[1];
+        resources.compute(createResourceKey(resourceType, id), (resourceKey, fragments) -> {
+            Fragments updated = fragments != null && Objects.equals(fragments.version, version)
+                ? fragments.with(variant, fragment, fragmentSize)
+                : new Fragments(version, Collections.emptyMap(), 0).with(variant, fragment, fragmentSize);
+            updated.lastUsed = clock.incrementAndGet();
+            sizeChange[0] = updated.size - (fragments != null ? fragments.size : 0);
+            return updated;
+        });
+        if (size.addAndGet(sizeChange[0]) > maxSize) {
+            evict();
+        }
+    }
+
+    /**
+     * Drops all fragments of a resource.
+     *
+     * @param resourceType type of the resource
+     * @param id           id of the resource
+     */
+    public void invalidate(String resourceType, String id) {
+        Fragments fragments = resources.remove(createResourceKey(resourceType, id));
+        if (fragments != null) {
+            size.addAndGet(-fragments.size);
+        }
+    }
+
+    /**
+     * Drops all fragments.
+     */
+    public void clear() {
+        for (String resourceKey : resources.keySet()) {
+            Fragments fragments = resources.remove(resourceKey);
+            if (fragments != null) {
+                size.addAndGet(-fragments.size);
+            }
+        }
+    }
+
+    private void evict() {
+        boolean evicted = true;
+        while (evicted && size.get() > maxSize && evictionLock.tryLock()) {
+            try {
+                evicted = evictLeastRecentlyUsed();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Recency of the resources changes while they're evicted, so it's copied before the resources are sorted.
+     *
+     * @return <i>true</i> if any resource has been evicted
+     */
+    private boolean evictLeastRecentlyUsed() {
+        List<Candidate> candidates = new ArrayList<>(resources.size());
+        for (Map.Entry<String, Fragments> entry : resources.entrySet()) {
+            candidates.add(new Candidate(entry.getKey(), entry.getValue()));
+        }
+        candidates.sort(Comparator.comparingLong(candidate -> candidate.lastUsed));
+        long targetSize = (long) (maxSize * EVICTION_RATIO);
+        boolean evicted = false;
+        for (Candidate candidate : candidates) {
+            if (size.get() <= targetSize) {
+                break;
+            }
+            if (resources.remove(candidate.resourceKey, candidate.fragments)) {
+                size.addAndGet(-candidate.fragments.size);
+                evicted = true;
+            }
+        }
+        return evicted;
+    }
+
+    private static String createResourceKey(String resourceType, String id) {
+        return resourceType + '/' + id;
+    }
+
+    /**
+     * Strings are estimated by their characters and a constant overhead of the objects.
+     */
+    private static long estimateSize(String variant, String fragment) {
+        return 2L * (variant.length() + fragment.length()) + 128;
+    }
+
+    /**
+     * Fragments of a single version of a resource. A cached instance isn't changed, except for its recency, a new
+     * fragment is added to a copy which replaces it.
+     */
+    private static final class Fragments {
+        private final Object version;
+        private final Map<String, String> variants;
+        private final long size;
+        private volatile long lastUsed;
+
+        private Fragments(Object version, Map<String, String> variants, long size) {
+            this.version = version;
+            this.variants = variants;
+            this.size = size;
+        }
+
+        private Fragments with(String variant, String fragment, long fragmentSize) {
+            Map<String, String> updatedVariants = new HashMap<>(variants);
+            String previous = updatedVariants.put(variant, fragment);
+            long updatedSize = size + fragmentSize - (previous != null ? estimateSize(variant, previous) : 0);
+            return new Fragments(version, updatedVariants, updatedSize);
+        }
+    }
+
+    private static final class Candidate {
+        private final String resourceKey;
+        private final Fragments fragments;
+        private final long lastUsed;
+
+        private Candidate(String resourceKey, Fragments fragments) {
+            this.resourceKey = resourceKey;
+            this.fragments = fragments;
+            this.lastUsed = fragments.lastUsed;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package io.katharsis.jackson;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Optional;
+
+/**
+ * Formats a JSON API document can be written in. All of them share the same document model and serializers, only the
+ * {@link JsonFactory} differs. Binary formats need their Jackson backend on the classpath, e.g.
+ * <i>jackson-dataformat-smile</i>, otherwise they're not available.
+ * <p>
+ * {@link #NDJSON} is a JSON format which streams collections one resource per line, see
+ * {@link #isLineDelimited()}.
+ * </p>
+ * <p>
+ * A format is chosen by content negotiation:
+ * <pre>
+ * {@code
+ * JsonApiFormat format = JsonApiFormat.negotiate(request.getHeader("Accept"));
+ * ObjectMapper objectMapper = format.createObjectMapper(jsonApiModuleBuilder.build(resourceRegistry));
+ * }
+ * </pre>
+ * Object mappers should be created once per format and reused.
+ */
+public enum JsonApiFormat {
+
+    JSON("application/vnd.api+json", "com.fasterxml.jackson.core.JsonFactory", false),
+    SMILE("application/x-jackson-smile", "com.fasterxml.jackson.dataformat.smile.SmileFactory", false),
+    CBOR("application/cbor", "com.fasterxml.jackson.dataformat.cbor.CBORFactory", false),
+    NDJSON("application/x-ndjson", "com.fasterxml.jackson.core.JsonFactory", true);
+
+    private final String mediaType;
+    private final String factoryClassName;
+    private final boolean lineDelimited;
+
+    /**
+     * The classpath doesn't change, so the factory class is looked up once, when it's first needed.
+     */
+    private volatile Optional<Class<?>> factoryClass;
+
+    JsonApiFormat(String mediaType, String factoryClassName, boolean lineDelimited) {
+        this.mediaType = mediaType;
+        this.factoryClassName = factoryClassName;
+        this.lineDelimited = lineDelimited;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Collection responses of a line delimited format should be written by
+     * {@link io.katharsis.jackson.serializer.NdjsonCollectionWriter}, one resource per line. Other responses are
+     * written as JSON documents.
+     *
+     * @return <i>true</i> if collections are written as a stream of records
+     */
+    public boolean isLineDelimited() {
+        return lineDelimited;
+    }
+
+    /**
+     * @return <i>true</i> if the Jackson backend of the format is on the classpath
+     */
+    public boolean isAvailable() {
+        return findFactoryClass().isPresent();
+    }
+
+    /**
+     * Creates a factory of generators and parsers of the format.
+     *
+     * @return factory of the format
+     * @throws IllegalStateException if the format is not available
+     */
+    public JsonFactory createFactory() {
+        Class<?> resolvedFactoryClass = findFactoryClass()
+            .orElseThrow(() -> new IllegalStateException(String.format("%s format requires %s on the classpath",
+                name(), factoryClassName)));
+        try {
+            return (JsonFactory) resolvedFactoryClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create " + factoryClassName, e);
+        }
+    }
+
+    /**
+     * Creates an object mapper reading and writing documents of the format.
+     *
+     * @param jsonApiModule module created by {@link JsonApiModuleBuilder}
+     * @return object mapper of the format
+     */
+    public ObjectMapper createObjectMapper(Module jsonApiModule) {
+        ObjectMapper objectMapper = new ObjectMapper(createFactory());
+        objectMapper.registerModule(jsonApiModule);
+        return objectMapper;
+    }
+
+    private Optional<Class<?>> findFactoryClass() {
+        Optional<Class<?>> resolvedFactoryClass = factoryClass;
+        if (resolvedFactoryClass == null) {
+            resolvedFactoryClass = loadFactoryClass();
+            factoryClass = resolvedFactoryClass;
+        }
+        return resolvedFactoryClass;
+    }
+
+    private Optional<Class<?>> loadFactoryClass() {
+        try {
+            return Optional.of(Class.forName(factoryClassName, true, JsonApiFormat.class.getClassLoader()));
+        } catch (ClassNotFoundException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Chooses a format of a response. Media ranges of the header are searched in order of their quality, formats
+     * which are not available are skipped.
+     *
+     * @param accept value of the <i>Accept</i> header, can be <i>null</i>
+     * @return accepted format, {@link #JSON} if no other available format is accepted
+     */
+    public static JsonApiFormat negotiate(String accept) {
+        if (accept == null) {
+            return JSON;
+        }
+        JsonApiFormat result = JSON;
+        double resultQuality = -1;
+        for (String mediaRange : accept.split(",")) {
+            String[] parameters = mediaRange.split(";");
+            JsonApiFormat format = findFormat(parameters[0]);
+            if (format == null || !format.isAvailable()) {
+                continue;
+            }
+            double quality = getQuality(parameters);
+            if (quality > resultQuality) {
+                result = format;
+                resultQuality = quality;
+            }
+        }
+        return resultQuality > 0 ? result : JSON;
+    }
+
+    /**
+     * Chooses a format of a request body.
+     *
+     * @param contentType value of the <i>Content-Type</i> header, can be <i>null</i>
+     * @return format of the body, {@link #JSON} if the media type is not a media type of any available format or
+     * the format is line delimited
+     */
+    public static JsonApiFormat forContentType(String contentType) {
+        if (contentType == null) {
+            return JSON;
+        }
+        JsonApiFormat format = findFormat(contentType.split(";")[0]);
+        return format != null && format.isAvailable() && !format.lineDelimited ? format : JSON;
+    }
+
+    private static JsonApiFormat findFormat(String mediaType) {
+        String trimmedMediaType = mediaType.trim();
+        for (JsonApiFormat format : values()) {
+            if (format.mediaType.equalsIgnoreCase(trimmedMediaType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    private static double getQuality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String[] parameter = parameters[i].split("=", 2);
+            if (parameter.length == 2 && "q".equals(parameter[0].trim())) {
+                try {
+                    return Double.parseDouble(parameter[1].trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
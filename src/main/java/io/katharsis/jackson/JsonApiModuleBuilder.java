@@ -1,8 +1,11 @@
 package io.katharsis.jackson;
 
 import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import io.katharsis.jackson.serializer.*;
+import io.katharsis.queryParams.include.IncludeLimits;
+import io.katharsis.resource.field.LoadStateProbe;
 import io.katharsis.resource.registry.ResourceRegistry;
 
 /**
@@ -12,6 +15,93 @@ public class JsonApiModuleBuilder {
 
     public static final String JSON_API_MODULE_NAME = "JsonApiModule";
 
+    private IncludeLimits includeLimits = new IncludeLimits();
+    private LoadStateProbe loadStateProbe = LoadStateProbe.ALWAYS_LOADED;
+    private boolean linksOmitted;
+    private boolean compact;
+    private ParallelSerialization parallelSerialization = new ParallelSerialization();
+    private FragmentCache fragmentCache;
+
+    /**
+     * Sets limits of resources included in a single response.
+     *
+     * @param includeLimits include limits
+     * @return this builder
+     */
+    public JsonApiModuleBuilder setIncludeLimits(IncludeLimits includeLimits) {
+        if (includeLimits == null) {
+            throw new IllegalArgumentException("includeLimits cannot be null");
+        }
+        this.includeLimits = includeLimits;
+        return this;
+    }
+
+    /**
+     * Sets a probe used to check if relationships with
+     * {@link io.katharsis.resource.annotations.LinkagePolicy#WHEN_LOADED} linkage policy are loaded.
+     *
+     * @param loadStateProbe load state probe
+     * @return this builder
+     */
+    public JsonApiModuleBuilder setLoadStateProbe(LoadStateProbe loadStateProbe) {
+        if (loadStateProbe == null) {
+            throw new IllegalArgumentException("loadStateProbe cannot be null");
+        }
+        this.loadStateProbe = loadStateProbe;
+        return this;
+    }
+
+    /**
+     * Sets if links of resources and relationships are omitted from all responses. Clients can ask to omit links
+     * from a single response by {@link io.katharsis.queryParams.RequestParamsBuilder#OMIT_LINKS_KEY} query param.
+     *
+     * @param linksOmitted <i>true</i> if links shouldn't be written
+     * @return this builder
+     */
+    public JsonApiModuleBuilder setLinksOmitted(boolean linksOmitted) {
+        this.linksOmitted = linksOmitted;
+        return this;
+    }
+
+    /**
+     * Sets if all responses are compact. Clients can ask for a single compact response by
+     * {@link io.katharsis.queryParams.RequestParamsBuilder#COMPACT_PROFILE} profile.
+     *
+     * @param compact <i>true</i> if responses should be compact
+     * @return this builder
+     * @see io.katharsis.queryParams.RequestParams#isCompact()
+     */
+    public JsonApiModuleBuilder setCompact(boolean compact) {
+        this.compact = compact;
+        return this;
+    }
+
+    /**
+     * Sets if and how large collection responses are serialized in parallel.
+     *
+     * @param parallelSerialization parallel serialization settings
+     * @return this builder
+     */
+    public JsonApiModuleBuilder setParallelSerialization(ParallelSerialization parallelSerialization) {
+        if (parallelSerialization == null) {
+            throw new IllegalArgumentException("parallelSerialization cannot be null");
+        }
+        this.parallelSerialization = parallelSerialization;
+        return this;
+    }
+
+    /**
+     * Sets a cache of serialized resources. The same cache should be passed to
+     * {@link io.katharsis.dispatcher.RequestDispatcher}, so resources changed by requests are invalidated.
+     *
+     * @param fragmentCache fragment cache, <i>null</i> if resources shouldn't be cached
+     * @return this builder
+     */
+    public JsonApiModuleBuilder setFragmentCache(FragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
+        return this;
+    }
+
     /**
      * Creates Katharsis Jackson module with all required serializers
      *
@@ -22,13 +112,38 @@ public class JsonApiModuleBuilder {
         SimpleModule simpleModule = new SimpleModule(JSON_API_MODULE_NAME,
                 new Version(1, 0, 0, null, null, null));
 
-        simpleModule.addSerializer(new ContainerSerializer(resourceRegistry))
+        LinkWriter linkWriter = new LinkWriter(resourceRegistry, linksOmitted || compact);
+        simpleModule.addSerializer(new ContainerSerializer(resourceRegistry, linkWriter, compact, fragmentCache))
                 .addSerializer(new DataLinksContainerSerializer(resourceRegistry))
-                .addSerializer(new RelationshipContainerSerializer(resourceRegistry))
+                .addSerializer(new RelationshipContainerSerializer(resourceRegistry, loadStateProbe, linkWriter))
                 .addSerializer(new LinkageContainerSerializer(resourceRegistry))
-                .addSerializer(new BaseResponseSerializer(resourceRegistry))
+                .addSerializer(new BaseResponseSerializer(resourceRegistry, includeLimits, compact,
+                    parallelSerialization))
                 .addSerializer(new ErrorResponseSerializer());
 
         return simpleModule;
     }
+
+    /**
+     * Creates an object mapper reading and writing JSON API documents in a format.
+     *
+     * @param resourceRegistry initialized registry with all of the required resources
+     * @param format           format of the documents, see {@link JsonApiFormat#negotiate(String)}
+     * @return object mapper with the Katharsis module
+     */
+    public ObjectMapper buildObjectMapper(ResourceRegistry resourceRegistry, JsonApiFormat format) {
+        return format.createObjectMapper(build(resourceRegistry));
+    }
+
+    /**
+     * Creates a writer of collection responses in {@link JsonApiFormat#NDJSON} format.
+     *
+     * @param resourceRegistry initialized registry with all of the required resources
+     * @param objectMapper     object mapper with a module created by this builder
+     * @return writer of newline delimited collections
+     */
+    public NdjsonCollectionWriter buildNdjsonCollectionWriter(ResourceRegistry resourceRegistry,
+                                                              ObjectMapper objectMapper) {
+        return new NdjsonCollectionWriter(resourceRegistry, includeLimits, objectMapper);
+    }
 }
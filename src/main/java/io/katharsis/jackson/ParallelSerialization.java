@@ -0,0 +1,110 @@
+package io.katharsis.jackson;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Settings of parallel serialization of large collection responses. Primary data of a collection response with at
+ * least {@link #getMinResources()} resources is split into chunks, the chunks are serialized on a fork-join pool and
+ * spliced in order into the response. Included resources are collected and written afterwards, as for any other
+ * response.
+ * <p>
+ * Chunks are spliced as raw JSON, so only text JSON responses written without a pretty printer are serialized in
+ * parallel, other responses are always serialized sequentially. By default parallel serialization is disabled.
+ * </p>
+ * <p>
+ * The chunks are serialized on threads of the pool, so resources, their lazily loaded relationships and the
+ * {@link io.katharsis.resource.field.LoadStateProbe} are read on other threads than the request's thread.
+ * Resources bound to a thread-confined persistence session, e.g. JPA or Hibernate entities with lazy associations,
+ * can't be serialized in parallel unless they're fully loaded before the response is written.
+ * </p>
+ * <p>
+ * Reading resources can block, so the chunks are serialized on a pool dedicated to Katharsis by default, instead of
+ * the common pool shared by the whole application. The default pool is created when it's first used.
+ * </p>
+ */
+public class ParallelSerialization {
+
+    private boolean enabled;
+    private int minResources = 10000;
+    private int chunkSize = 1000;
+    private ForkJoinPool pool;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Resources of parallel serialized collections are read on threads of the pool, so parallel serialization
+     * shouldn't be enabled for resources which can be read only on the request's thread, e.g. resources with lazy
+     * associations of a JPA or Hibernate session.
+     *
+     * @param enabled <i>true</i> if large collections should be serialized in parallel
+     * @return this instance
+     */
+    public ParallelSerialization setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public int getMinResources() {
+        return minResources;
+    }
+
+    /**
+     * @param minResources minimum number of resources of a collection serialized in parallel
+     * @return this instance
+     */
+    public ParallelSerialization setMinResources(int minResources) {
+        if (minResources < 1) {
+            throw new IllegalArgumentException("minResources must be positive");
+        }
+        this.minResources = minResources;
+        return this;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize number of resources serialized by a single task
+     * @return this instance
+     */
+    public ParallelSerialization setChunkSize(int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    public ForkJoinPool getPool() {
+        return pool != null ? pool : DefaultPool.INSTANCE;
+    }
+
+    /**
+     * @param pool pool the chunks are serialized on, a pool dedicated to Katharsis by default
+     * @return this instance
+     */
+    public ParallelSerialization setPool(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("pool cannot be null");
+        }
+        this.pool = pool;
+        return this;
+    }
+
+    /**
+     * Holder of the default pool, so the pool is created only if a response is serialized in parallel without a pool
+     * set. The pool has as many daemon threads as there are processors.
+     */
+    private static final class DefaultPool {
+        private static final ForkJoinPool INSTANCE = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+            pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("katharsis-serialization-" + thread.getPoolIndex());
+                return thread;
+            }, null, false);
+    }
+}
@@ -0,0 +1,21 @@
+package io.katharsis.jackson.exception;
+
+import io.katharsis.errorhandling.ErrorData;
+import io.katharsis.errorhandling.exception.KatharsisMappableException;
+import io.katharsis.response.HttpStatus;
+
+/**
+ * Thrown when included resources of a response exceed the configured include limits.
+ */
+public class IncludeLimitExceededException extends KatharsisMappableException {
+    private static final long serialVersionUID = 1L;
+    private static final String TITLE = "Include limit exceeded";
+
+    public IncludeLimitExceededException(String message) {
+        super(HttpStatus.BAD_REQUEST_400, ErrorData.builder()
+            .setTitle(TITLE)
+            .setDetail(message)
+            .setStatus(String.valueOf(HttpStatus.BAD_REQUEST_400))
+            .build(), isRoutineStackTraceCaptured());
+    }
+}
@@ -15,6 +15,6 @@ public class ParametersDeserializationException extends KatharsisMappableExcepti
                 .setTitle(TITLE)
                 .setDetail(message)
                 .setStatus(String.valueOf(HttpStatus.BAD_REQUEST_400))
-                .build());
+                .build(), isRoutineStackTraceCaptured());
     }
 }
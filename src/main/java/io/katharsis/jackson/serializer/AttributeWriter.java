@@ -0,0 +1,187 @@
+package io.katharsis.jackson.serializer;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import io.katharsis.resource.field.ResourceField;
+import io.katharsis.utils.PropertyAccessor;
+import io.katharsis.utils.PropertyUtils;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Writes a single attribute of a resource. Everything which doesn't depend on the serialized value is resolved once:
+ * the encoded name, the accessor, the inclusion rule and the value serializer. A serializer is resolved from the
+ * declared type if the type can't have subclasses, otherwise serializers are resolved and cached for each runtime
+ * type of the values, as Jackson does for bean properties.
+ * <p>
+ * A module, and so its writers, can be registered in several mappers, e.g. by {@link io.katharsis.jackson.JsonApiFormat},
+ * or used by writers with other features, e.g. {@link NdjsonCollectionWriter}, which can resolve different serializers
+ * for the same type. The serializers are therefore kept for each serialization configuration they've been resolved
+ * with.
+ * </p>
+ * <p>
+ * {@link JsonInclude} and {@link JsonSerialize#using()} of the attribute are honored. Without {@link JsonInclude},
+ * <i>null</i> values are written unless {@link SerializationFeature#WRITE_NULL_MAP_VALUES} is disabled, as they were
+ * when attributes were serialized as a map.
+ * </p>
+ */
+final class AttributeWriter {
+
+    private static final int MAX_CONFIGS = 8;
+
+    private final ResourceField field;
+    private final SerializedString name;
+    private final PropertyAccessor accessor;
+    private final JsonInclude.Include inclusion;
+    private final Class<? extends JsonSerializer> serializerClass;
+    private final boolean staticTyping;
+
+    private final ConcurrentMap<SerializationConfig, Serializers> serializers = new ConcurrentHashMap<>();
+
+    AttributeWriter(Class<?> resourceClass, ResourceField field) {
+        this.field = field;
+        this.name = new SerializedString(field.getName());
+        this.accessor = PropertyUtils.findPropertyAccessor(resourceClass, field.getName());
+        this.inclusion = findInclusion(resourceClass, field);
+        this.serializerClass = findSerializerClass(field);
+        Class<?> type = field.getType();
+        this.staticTyping = type.isPrimitive() || Modifier.isFinal(type.getModifiers());
+    }
+
+    private static JsonInclude.Include findInclusion(Class<?> resourceClass, ResourceField field) {
+        for (Annotation annotation : field.getAnnotations()) {
+            if (annotation instanceof JsonInclude) {
+                return ((JsonInclude) annotation).value();
+            }
+        }
+        JsonInclude classInclude = resourceClass.getAnnotation(JsonInclude.class);
+        return classInclude != null ? classInclude.value() : null;
+    }
+
+    private static Class<? extends JsonSerializer> findSerializerClass(ResourceField field) {
+        for (Annotation annotation : field.getAnnotations()) {
+            if (annotation instanceof JsonSerialize) {
+                Class<? extends JsonSerializer> using = ((JsonSerialize) annotation).using();
+                return using == JsonSerializer.None.class ? null : using;
+            }
+        }
+        return null;
+    }
+
+    public Object getValue(Object resource) {
+        if (accessor != null) {
+            return accessor.getValue(resource);
+        }
+        return PropertyUtils.getProperty(resource, field.getName());
+    }
+
+    /**
+     * @param value        value of the attribute
+     * @param provider     serializer provider
+     * @param nullsSkipped <i>true</i> if <i>null</i> values should be skipped regardless of the inclusion rule
+     * @return <i>true</i> if the value should be written
+     * @throws IOException if a serializer of the value cannot be resolved
+     */
+    public boolean isIncluded(Object value, SerializerProvider provider, boolean nullsSkipped) throws IOException {
+        if (value == null) {
+            return !nullsSkipped && isNullWritten(provider);
+        }
+        return !isEmptySkipped() || !findSerializer(value.getClass(), provider).isEmpty(provider, value);
+    }
+
+    public void write(Object value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            provider.defaultSerializeNull(gen);
+        } else {
+            findSerializer(value.getClass(), provider).serialize(value, gen, provider);
+        }
+    }
+
+    private boolean isNullWritten(SerializerProvider provider) {
+        if (inclusion == null) {
+            return provider.isEnabled(SerializationFeature.WRITE_NULL_MAP_VALUES);
+        }
+        return inclusion == JsonInclude.Include.ALWAYS;
+    }
+
+    /**
+     * {@link JsonInclude.Include#NON_DEFAULT} can't compare the value with a default resource here, so it's handled
+     * as {@link JsonInclude.Include#NON_EMPTY}.
+     */
+    private boolean isEmptySkipped() {
+        return inclusion == JsonInclude.Include.NON_EMPTY || inclusion == JsonInclude.Include.NON_DEFAULT;
+    }
+
+    /**
+     * Configurations don't define equality, so they're compared by identity. A new configuration is created for each
+     * changed mapper or writer, so the kept serializers are dropped once there are too many of them.
+     */
+    private Serializers getSerializers(SerializerProvider provider) {
+        SerializationConfig config = provider.getConfig();
+        Serializers configSerializers = serializers.get(config);
+        if (configSerializers == null) {
+            if (serializers.size() >= MAX_CONFIGS) {
+                serializers.clear();
+            }
+            configSerializers = new Serializers();
+            Serializers existing = serializers.putIfAbsent(config, configSerializers);
+            if (existing != null) {
+                configSerializers = existing;
+            }
+        }
+        return configSerializers;
+    }
+
+    @SuppressWarnings("unchecked")
+    private JsonSerializer<Object> findSerializer(Class<?> valueClass, SerializerProvider provider) throws IOException {
+        Serializers configSerializers = getSerializers(provider);
+        JsonSerializer<Object> resolved = configSerializers.serializer;
+        if (resolved != null) {
+            return resolved;
+        }
+        if (serializerClass != null) {
+            resolved = provider.serializerInstance(null, serializerClass);
+            if (resolved instanceof ResolvableSerializer) {
+                ((ResolvableSerializer) resolved).resolve(provider);
+            }
+            resolved = (JsonSerializer<Object>) provider.handleSecondaryContextualization(resolved, null);
+            configSerializers.serializer = resolved;
+            return resolved;
+        }
+        if (staticTyping) {
+            resolved = provider.findValueSerializer(provider.constructType(field.getGenericType()), null);
+            configSerializers.serializer = resolved;
+            return resolved;
+        }
+        PropertySerializerMap dynamicSerializers = configSerializers.dynamicSerializers;
+        resolved = dynamicSerializers.serializerFor(valueClass);
+        if (resolved == null) {
+            PropertySerializerMap.SerializerAndMapResult result =
+                dynamicSerializers.findAndAddSecondarySerializer(valueClass, provider, null);
+            configSerializers.dynamicSerializers = result.map;
+            resolved = result.serializer;
+        }
+        return resolved;
+    }
+
+    /**
+     * Serializers of the attribute resolved with a single configuration.
+     */
+    private static final class Serializers {
+        private volatile JsonSerializer<Object> serializer;
+        private volatile PropertySerializerMap dynamicSerializers = PropertySerializerMap.emptyForProperties();
+    }
+}
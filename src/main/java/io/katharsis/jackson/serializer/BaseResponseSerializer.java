@@ -2,7 +2,14 @@ package io.katharsis.jackson.serializer;
 
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.katharsis.jackson.ParallelSerialization;
+import io.katharsis.queryParams.include.IncludeLimits;
+import io.katharsis.request.path.ResourcePath;
 import io.katharsis.resource.field.ResourceField;
 import io.katharsis.resource.information.ResourceInformation;
 import io.katharsis.resource.registry.RegistryEntry;
@@ -10,6 +17,8 @@ import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.BaseResponse;
 import io.katharsis.response.CollectionResponse;
 import io.katharsis.response.Container;
+import io.katharsis.response.LinkageContainer;
+import io.katharsis.response.MetaInformation;
 import io.katharsis.response.ResourceResponse;
 
 import java.io.IOException;
@@ -26,50 +35,140 @@ public class BaseResponseSerializer extends JsonSerializer<BaseResponse> {
 
     private final ResourceRegistry resourceRegistry;
     private final IncludedRelationshipExtractor includedRelationshipExtractor;
+    private final boolean compact;
+    private final ParallelDataWriter parallelDataWriter;
 
     public BaseResponseSerializer(ResourceRegistry resourceRegistry) {
+        this(resourceRegistry, new IncludeLimits());
+    }
+
+    public BaseResponseSerializer(ResourceRegistry resourceRegistry, IncludeLimits includeLimits) {
+        this(resourceRegistry, includeLimits, false);
+    }
+
+    /**
+     * @param resourceRegistry registry of the resources
+     * @param includeLimits    limits of the included resources
+     * @param compact          <i>true</i> if all of the responses should be compact, see
+     *                         {@link io.katharsis.queryParams.RequestParams#isCompact()}
+     */
+    public BaseResponseSerializer(ResourceRegistry resourceRegistry, IncludeLimits includeLimits, boolean compact) {
+        this(resourceRegistry, includeLimits, compact, new ParallelSerialization());
+    }
+
+    /**
+     * @param resourceRegistry      registry of the resources
+     * @param includeLimits         limits of the included resources
+     * @param compact               <i>true</i> if all of the responses should be compact, see
+     *                              {@link io.katharsis.queryParams.RequestParams#isCompact()}
+     * @param parallelSerialization settings of parallel serialization of large collections
+     */
+    public BaseResponseSerializer(ResourceRegistry resourceRegistry, IncludeLimits includeLimits, boolean compact,
+                                  ParallelSerialization parallelSerialization) {
         this.resourceRegistry = resourceRegistry;
+        this.compact = compact;
+        this.parallelDataWriter = new ParallelDataWriter(parallelSerialization);
 
-        includedRelationshipExtractor = new IncludedRelationshipExtractor();
+        includedRelationshipExtractor = new IncludedRelationshipExtractor(resourceRegistry, includeLimits);
     }
 
     @Override
     public void serialize(BaseResponse value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
-        Set<?> includedResources = new HashSet<>();
+        IncludedResources includedResources = new IncludedResources();
+        extractIncludedResources(value, includedResources);
+        MetaInformation metaInformation = isMetaOmitted(value) ? null : value.getMetaInformation();
 
         gen.writeStartObject();
         if (value instanceof ResourceResponse) {
-            Set included = serializeSingle((ResourceResponse) value, gen);
-            //noinspection unchecked
-            includedResources.addAll(included);
+            serializeSingle((ResourceResponse) value, gen);
         } else if (value instanceof CollectionResponse) {
-            Set included = serializeResourceCollection((CollectionResponse) value, gen);
-            //noinspection unchecked
-            includedResources.addAll(included);
+            serializeResourceCollection((CollectionResponse) value, gen, serializers);
         } else {
             throw new IllegalArgumentException(String.format("Response can be either %s or %s. Got %s",
                     ResourceResponse.class, CollectionResponse.class, value.getClass()));
         }
 
-        gen.writeObjectField(INCLUDED_FIELD_NAME, includedResources);
+        if (!isCompact(value) || !includedResources.getResources().isEmpty()) {
+            gen.writeObjectField(INCLUDED_FIELD_NAME, includedResources.getResources());
+        }
 
-        if (value.getMetaInformation() != null) {
-            gen.writeObjectField(META_FIELD_NAME, value.getMetaInformation());
+        if (includedResources.isTruncated()) {
+            writeTruncatedMeta(metaInformation, gen, serializers);
+        } else if (metaInformation != null) {
+            gen.writeObjectField(META_FIELD_NAME, metaInformation);
         }
 
         gen.writeEndObject();
     }
 
-    private Set<?> serializeSingle(ResourceResponse resourceResponse, JsonGenerator gen) throws IOException {
-        Object value = resourceResponse.getData();
-        gen.writeObjectField(DATA_FIELD_NAME, new Container(value, resourceResponse.getRequestParams()));
+    /**
+     * Meta information of a response can be computed lazily, so it isn't read at all if it's omitted. Otherwise it's
+     * read before the document is started, so a failure of the computation is reported before anything is written.
+     */
+    private static boolean isMetaOmitted(BaseResponse response) {
+        return response.getRequestParams() != null && response.getRequestParams().isMetaOmitted();
+    }
 
-        if (value != null) {
-            Set<ResourceField> relationshipFields = getRelationshipFields(value);
-            return includedRelationshipExtractor.extractIncludedResources(value, relationshipFields, resourceResponse);
+    private boolean isCompact(BaseResponse response) {
+        return compact || response.getRequestParams() != null && response.getRequestParams().isCompact();
+    }
+
+    /**
+     * Writes the meta information of a response with included resources cut by the include limits. The flag is
+     * merged into the meta information object.
+     */
+    private void writeTruncatedMeta(Object metaInformation, JsonGenerator gen, SerializerProvider serializers)
+        throws IOException {
+        ObjectNode meta;
+        if (metaInformation != null) {
+            TokenBuffer buffer = new TokenBuffer(gen.getCodec(), false);
+            serializers.defaultSerializeValue(metaInformation, buffer);
+            JsonNode node = buffer.asParser(gen.getCodec()).readValueAsTree();
+            if (!(node instanceof ObjectNode)) {
+                gen.writeFieldName(META_FIELD_NAME);
+                gen.writeTree(node);
+                return;
+            }
+            meta = (ObjectNode) node;
         } else {
-            return Collections.EMPTY_SET;
+            meta = JsonNodeFactory.instance.objectNode();
         }
+        meta.put(IncludeLimits.TRUNCATED_META_FIELD_NAME, true);
+        gen.writeFieldName(META_FIELD_NAME);
+        gen.writeTree(meta);
+    }
+
+    /**
+     * Included resources are collected before anything is written, so an exceeded include limit fails the response
+     * before any part of the document is written.
+     */
+    private void extractIncludedResources(BaseResponse response, IncludedResources includedResources) {
+        Object data = response.getData();
+        if (response instanceof ResourceResponse) {
+            extractIncludedResources(data, response, includedResources);
+        } else if (response instanceof CollectionResponse && data != null) {
+            for (Object value : (Iterable<?>) data) {
+                extractIncludedResources(value, response, includedResources);
+            }
+        }
+    }
+
+    private void extractIncludedResources(Object value, BaseResponse response, IncludedResources includedResources) {
+        if (value != null && !(value instanceof LinkageContainer)) {
+            Set<ResourceField> relationshipFields = getRelationshipFields(value);
+            includedRelationshipExtractor.extractIncludedResources(value, relationshipFields, response,
+                includedResources);
+        }
+    }
+
+    private void serializeSingle(ResourceResponse resourceResponse, JsonGenerator gen) throws IOException {
+        Object value = resourceResponse.getData();
+        if (value instanceof LinkageContainer) {
+            gen.writeObjectField(DATA_FIELD_NAME, value);
+            return;
+        }
+        gen.writeObjectField(DATA_FIELD_NAME, new Container(value, resourceResponse.getRequestParams(),
+            getIncludedRelationNames(resourceResponse)));
     }
 
     private Set<ResourceField> getRelationshipFields(Object resource) {
@@ -79,27 +178,47 @@ public class BaseResponseSerializer extends JsonSerializer<BaseResponse> {
         return resourceInformation.getRelationshipFields();
     }
 
-    private Set serializeResourceCollection(CollectionResponse collectionResponse, JsonGenerator gen) throws IOException {
+    private void serializeResourceCollection(CollectionResponse collectionResponse, JsonGenerator gen,
+                                             SerializerProvider serializers) throws IOException {
         Iterable values = collectionResponse.getData();
-        Set includedFields = new HashSet<>();
-        if (values != null) {
+        if (values == null) {
+            values = Collections.emptyList();
+        }
+
+        gen.writeArrayFieldStart(DATA_FIELD_NAME);
+        Set<String> includedRelationNames = getIncludedRelationNames(collectionResponse);
+        if (values instanceof List && parallelDataWriter.isApplicable((List<?>) values, gen, serializers)) {
+            List<Object> containers = new ArrayList<>(((List<?>) values).size());
             for (Object value : values) {
-                Set<ResourceField> relationshipFields = getRelationshipFields(value);
-                //noinspection unchecked
-                includedFields.addAll(includedRelationshipExtractor.extractIncludedResources(value, relationshipFields, collectionResponse));
+                containers.add(wrap(value, collectionResponse, includedRelationNames));
             }
+            parallelDataWriter.writeElements(containers, gen, serializers);
         } else {
-            values = Collections.emptyList();
+            for (Object value : values) {
+                gen.writeObject(wrap(value, collectionResponse, includedRelationNames));
+            }
         }
+        gen.writeEndArray();
+    }
 
-        List<Container> containers = new LinkedList<>();
-        for (Object value : values) {
-            containers.add(new Container(value, collectionResponse.getRequestParams()));
+    private static Object wrap(Object value, CollectionResponse collectionResponse,
+                               Set<String> includedRelationNames) {
+        if (value instanceof LinkageContainer) {
+            return value;
         }
+        return new Container(value, collectionResponse.getRequestParams(), includedRelationNames);
+    }
 
-        gen.writeObjectField(DATA_FIELD_NAME, containers);
-
-        return includedFields;
+    /**
+     * Included relationships of the primary data start at the first segment of the inclusions, or at the second one
+     * if the first segment is the name of the resource itself.
+     */
+    static Set<String> getIncludedRelationNames(BaseResponse response) {
+        if (response.getRequestParams() == null) {
+            return null;
+        }
+        boolean skipFirstSegment = !(response.getJsonPath() instanceof ResourcePath);
+        return response.getRequestParams().getIncludedRelationNames(skipFirstSegment);
     }
 
     public Class<BaseResponse> handledType() {
@@ -1,10 +1,17 @@
 package io.katharsis.jackson.serializer;
 
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
 import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.SerializerProvider;
+import io.katharsis.jackson.FragmentCache;
 import io.katharsis.jackson.exception.JsonSerializationException;
-import io.katharsis.request.dto.Attributes;
+import io.katharsis.queryParams.Projection;
+import io.katharsis.queryParams.RequestParams;
+import io.katharsis.resource.annotations.JsonApiIncludeByDefault;
+import io.katharsis.resource.annotations.JsonApiVersion;
+import io.katharsis.resource.annotations.LinkagePolicy;
 import io.katharsis.resource.field.ResourceField;
 import io.katharsis.resource.information.ResourceInformation;
 import io.katharsis.resource.registry.RegistryEntry;
@@ -12,13 +19,15 @@ import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.Container;
 import io.katharsis.response.DataLinksContainer;
 import io.katharsis.utils.BeanUtils;
-import io.katharsis.utils.PropertyUtils;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
-import java.util.List;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class serializes an single resource which can be included in <i>data</i> field of JSON API response.
@@ -33,20 +42,58 @@ public class ContainerSerializer extends JsonSerializer<Container> {
     private static final String RELATIONSHIPS_FIELD_NAME = "relationships";
     private static final String LINKS_FIELD_NAME = "links";
     private static final String SELF_FIELD_NAME = "self";
+    private static final int MAX_CONFIG_TOKENS = 8;
+    private static final AtomicLong CONFIG_TOKEN_SEQUENCE = new AtomicLong();
 
     private final ResourceRegistry resourceRegistry;
+    private final LinkWriter linkWriter;
+    private final boolean compact;
+    private final FragmentCache fragmentCache;
+    private final ConcurrentMap<Class<?>, AttributesPlan> attributesPlans = new ConcurrentHashMap<>();
+    private final ConcurrentMap<SerializationConfig, Long> configTokens = new ConcurrentHashMap<>();
 
     public ContainerSerializer(ResourceRegistry resourceRegistry) {
+        this(resourceRegistry, new LinkWriter(resourceRegistry));
+    }
+
+    public ContainerSerializer(ResourceRegistry resourceRegistry, LinkWriter linkWriter) {
+        this(resourceRegistry, linkWriter, false);
+    }
+
+    /**
+     * @param resourceRegistry registry of the resources
+     * @param linkWriter       writer of the links of the resources
+     * @param compact          <i>true</i> if all of the resources should be written as in a compact response, see
+     *                         {@link RequestParams#isCompact()}
+     */
+    public ContainerSerializer(ResourceRegistry resourceRegistry, LinkWriter linkWriter, boolean compact) {
+        this(resourceRegistry, linkWriter, compact, null);
+    }
+
+    /**
+     * @param resourceRegistry registry of the resources
+     * @param linkWriter       writer of the links of the resources
+     * @param compact          <i>true</i> if all of the resources should be written as in a compact response, see
+     *                         {@link RequestParams#isCompact()}
+     * @param fragmentCache    cache of serialized resources, can be <i>null</i>
+     */
+    public ContainerSerializer(ResourceRegistry resourceRegistry, LinkWriter linkWriter, boolean compact,
+                               FragmentCache fragmentCache) {
         this.resourceRegistry = resourceRegistry;
+        this.linkWriter = linkWriter;
+        this.compact = compact;
+        this.fragmentCache = fragmentCache;
     }
 
     @Override
     public void serialize(Container value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
 
         if (value != null && value.getData() != null) {
-            gen.writeStartObject();
-            writeData(gen, value.getData(), value.getRequestParams().getIncludedFields());
-            gen.writeEndObject();
+            if (fragmentCache == null || !writeFragment(gen, value, serializers)) {
+                gen.writeStartObject();
+                writeData(gen, value, serializers);
+                gen.writeEndObject();
+            }
         } else {
             gen.writeObject(null);
         }
@@ -56,7 +103,10 @@ public class ContainerSerializer extends JsonSerializer<Container> {
      * Writes a value. Each serialized container must contain type field whose value is string
      * <a href="http://jsonapi.org/format/#document-structure-resource-types"></a>.
      */
-    private void writeData(JsonGenerator gen, Object data, List<String> includedFields) throws IOException {
+    private void writeData(JsonGenerator gen, Container container, SerializerProvider serializers)
+        throws IOException {
+        Object data = container.getData();
+        RequestParams requestParams = container.getRequestParams();
         Class<?> dataClass = data.getClass();
         String resourceType = resourceRegistry.getResourceType(dataClass);
 
@@ -64,6 +114,7 @@ public class ContainerSerializer extends JsonSerializer<Container> {
 
         RegistryEntry entry = resourceRegistry.getEntry(dataClass);
         ResourceInformation resourceInformation = entry.getResourceInformation();
+        Projection projection = requestParams.resolveProjection(resourceType, resourceInformation);
         try {
             writeId(gen, data, resourceInformation.getIdField());
         } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
@@ -71,30 +122,118 @@ public class ContainerSerializer extends JsonSerializer<Container> {
                 "Error writing id field: " + resourceInformation.getIdField().getName());
         }
 
-        try {
-            writeAttributes(gen, data, resourceInformation.getAttributeFields(), includedFields);
-        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-            throw new JsonSerializationException("Error writing basic fields: " +
-                resourceInformation.getAttributeFields().stream().map(ResourceField::getName)
-                    .collect(Collectors.toSet()));
+        boolean compactData = compact || requestParams.isCompact();
+        writeAttributes(gen, data, getAttributesPlan(dataClass, resourceInformation), projection, serializers,
+            compactData);
+
+        Set<ResourceField> relationshipFields = getRelationshipFields(projection, container, compactData);
+        if (!compactData || !relationshipFields.isEmpty()) {
+            writeRelationshipFields(gen, container, relationshipFields);
+        }
+        if (!linkWriter.isOmitted(requestParams)) {
+            writeLinksField(gen, data);
+        }
+    }
+
+    /**
+     * Writes a resource from the fragment cache. A missing fragment is serialized into a separate buffer and cached
+     * before it's written. Fragments are spliced as raw JSON, so they can be written only to text JSON without a
+     * pretty printer.
+     *
+     * @return <i>false</i> if the resource cannot be written from the cache
+     */
+    private boolean writeFragment(JsonGenerator gen, Container container, SerializerProvider serializers)
+        throws IOException {
+        if (!(gen instanceof JsonGeneratorImpl) || gen.getPrettyPrinter() != null || gen.getCodec() == null
+            || gen.getCharacterEscapes() != null || serializers.getActiveView() != null) {
+            return false;
+        }
+        Object data = container.getData();
+        Class<?> dataClass = data.getClass();
+        ResourceInformation resourceInformation = resourceRegistry.getEntry(dataClass).getResourceInformation();
+        AttributesPlan plan = getAttributesPlan(dataClass, resourceInformation);
+        Object version = plan.versionIndex >= 0 ? plan.writers[plan.versionIndex].getValue(data) : null;
+        if (version == null) {
+            return false;
+        }
+        String resourceType = resourceRegistry.getResourceType(dataClass);
+        String variant = getFragmentVariant(gen, dataClass, resourceType, resourceInformation, container,
+            serializers);
+        if (variant == null) {
+            return false;
         }
 
-        Set<ResourceField> relationshipFields = getRelationshipFields(resourceInformation, includedFields);
-        writeRelationshipFields(gen, data, relationshipFields);
-        writeLinksField(gen, data);
+        String id = linkWriter.getId(data);
+        String fragment = fragmentCache.get(resourceType, id, version, variant);
+        if (fragment == null) {
+            StringWriter writer = new StringWriter();
+            try (JsonGenerator fragmentGen = gen.getCodec().getFactory().createGenerator(writer)) {
+                fragmentGen.setCodec(gen.getCodec());
+                fragmentGen.setFeatureMask(gen.getFeatureMask());
+                fragmentGen.writeStartObject();
+                writeData(fragmentGen, container, serializers);
+                fragmentGen.writeEndObject();
+            }
+            fragment = writer.toString();
+            fragmentCache.put(resourceType, id, version, variant, fragment);
+        }
+        gen.writeRawValue(fragment);
+        return true;
     }
 
-    private Set<ResourceField> getRelationshipFields(ResourceInformation resourceInformation, List includedFields) {
-        Set<ResourceField> relationshipFields = resourceInformation.getRelationshipFields();
+    /**
+     * A variant describes everything a serialized resource depends on besides the resource itself: the registry,
+     * the generator features, the serialization configuration, and the members requested. Resources with
+     * relationships whose linkage depends on their load state are not cached.
+     *
+     * @return variant of the request, <i>null</i> if the resource cannot be cached
+     */
+    private String getFragmentVariant(JsonGenerator gen, Class<?> dataClass, String resourceType,
+                                      ResourceInformation resourceInformation, Container container,
+                                      SerializerProvider serializers) {
+        RequestParams requestParams = container.getRequestParams();
+        Projection projection = requestParams.resolveProjection(resourceType, resourceInformation);
+        boolean compactData = compact || requestParams.isCompact();
+        StringBuilder variant = new StringBuilder()
+            .append(resourceRegistry.getVersion()).append(':')
+            .append(gen.getFeatureMask()).append(':')
+            .append(getConfigToken(serializers.getConfig())).append(':')
+            .append(compactData ? 'c' : '-')
+            .append(linkWriter.isOmitted(requestParams) ? 'l' : '-')
+            .append(':');
+        for (int i = 0; i < resourceInformation.getIndexedAttributeFields().length; i++) {
+            variant.append(projection.isAttributeIncluded(i) ? '1' : '0');
+        }
+        for (ResourceField field : getRelationshipFields(projection, container, compactData)) {
+            if (resourceRegistry.getRelationship(dataClass, field).getLinkagePolicy() == LinkagePolicy.WHEN_LOADED) {
+                return null;
+            }
+            variant.append(':').append(field.getName())
+                .append(container.isRelationIncluded(field.getName()) ? "+" : "");
+        }
+        return variant.toString();
+    }
 
-        if (includedFields == null || includedFields.isEmpty()) {
-            return relationshipFields;
-        } else {
-            return relationshipFields
-                .stream()
-                .filter(field -> includedFields.contains(field.getName()))
-                .collect(Collectors.toSet());
+    /**
+     * A module can be registered in several mappers, whose serializers and features can differ, and a fragment cache
+     * can be shared by several modules. Each configuration a resource is serialized with is therefore identified by
+     * a token unique across all serializers. Configurations don't define equality, so they're compared by identity.
+     * A new configuration is created for each changed mapper or writer, so the tokens are dropped once there are too
+     * many of them, and the fragments of the dropped configurations are evicted from the cache eventually.
+     */
+    private long getConfigToken(SerializationConfig config) {
+        Long token = configTokens.get(config);
+        if (token == null) {
+            if (configTokens.size() >= MAX_CONFIG_TOKENS) {
+                configTokens.clear();
+            }
+            token = CONFIG_TOKEN_SEQUENCE.incrementAndGet();
+            Long existing = configTokens.putIfAbsent(config, token);
+            if (existing != null) {
+                token = existing;
+            }
         }
+        return token;
     }
 
     /**
@@ -107,49 +246,115 @@ public class ContainerSerializer extends JsonSerializer<Container> {
         gen.writeObjectField(ID_FIELD_NAME, sourceId);
     }
 
-    private void writeAttributes(JsonGenerator gen, Object data, Set<ResourceField> attributeFields,
-                                 List<String> includedFields)
-        throws IllegalAccessException, InvocationTargetException, NoSuchMethodException, IOException {
+    private AttributesPlan getAttributesPlan(Class<?> dataClass, ResourceInformation resourceInformation) {
+        AttributesPlan plan = attributesPlans.get(dataClass);
+        if (plan == null || plan.resourceInformation != resourceInformation) {
+            plan = new AttributesPlan(dataClass, resourceInformation);
+            attributesPlans.put(dataClass, plan);
+        }
+        return plan;
+    }
 
-        Attributes attributesObject = new Attributes();
-        attributeFields
-            .stream()
-            .filter(attributeField -> isIncluded(includedFields, attributeField))
-            .forEach(attributeField -> {
-                Object basicFieldValue = PropertyUtils.getProperty(data, attributeField.getName());
-                attributesObject.addAttribute(attributeField.getName(), basicFieldValue);
-            });
-        gen.writeObjectField(ATTRIBUTES_FIELD_NAME, attributesObject);
+    /**
+     * Attributes are written one by one by writers of the resource's attributes, so serializers of the values are
+     * resolved once per attribute instead of once per value. A compact resource has no <i>null</i> attributes and
+     * no empty attributes object.
+     */
+    private void writeAttributes(JsonGenerator gen, Object data, AttributesPlan plan, Projection projection,
+                                 SerializerProvider serializers, boolean compactData) throws IOException {
+        boolean started = false;
+        if (!compactData) {
+            gen.writeFieldName(ATTRIBUTES_FIELD_NAME);
+            gen.writeStartObject();
+            started = true;
+        }
+        AttributeWriter[] writers = plan.writers;
+        for (int i = 0; i < writers.length; i++) {
+            if (projection.isAttributeIncluded(i)) {
+                Object value = writers[i].getValue(data);
+                if (writers[i].isIncluded(value, serializers, compactData)) {
+                    if (!started) {
+                        gen.writeFieldName(ATTRIBUTES_FIELD_NAME);
+                        gen.writeStartObject();
+                        started = true;
+                    }
+                    writers[i].write(value, gen, serializers);
+                }
+            }
+        }
+        if (started) {
+            gen.writeEndObject();
+        }
     }
 
-    private boolean isIncluded(List<String> includedFields, ResourceField attributeField) {
-        return includedFields == null || includedFields.isEmpty() || includedFields.contains(attributeField.getName());
+    private static Set<ResourceField> getRelationshipFields(Projection projection, Container container,
+                                                           boolean compactData) {
+        Set<ResourceField> relationshipFields = projection.getRelationshipFields();
+        if (compactData) {
+            relationshipFields = getRequestedRelationshipFields(relationshipFields, projection, container);
+        }
+        return relationshipFields;
     }
 
-    private void writeRelationshipFields(JsonGenerator gen, Object data, Set<ResourceField> relationshipFields)
-        throws IOException {
-        DataLinksContainer dataLinksContainer = new DataLinksContainer(data, relationshipFields);
+    /**
+     * A compact resource has only the relationships which are included or explicitly requested by a sparse fieldset.
+     */
+    private static Set<ResourceField> getRequestedRelationshipFields(Set<ResourceField> relationshipFields,
+                                                                     Projection projection,
+                                                                     Container container) {
+        if (!projection.isAll()) {
+            return relationshipFields;
+        }
+        Set<ResourceField> requestedFields = new LinkedHashSet<>();
+        for (ResourceField relationshipField : relationshipFields) {
+            if (relationshipField.isAnnotationPresent(JsonApiIncludeByDefault.class)
+                || container.isRelationIncluded(relationshipField.getName())) {
+                requestedFields.add(relationshipField);
+            }
+        }
+        return requestedFields;
+    }
+
+    private void writeRelationshipFields(JsonGenerator gen, Container container,
+                                         Set<ResourceField> relationshipFields) throws IOException {
+        DataLinksContainer dataLinksContainer = new DataLinksContainer(container.getData(), relationshipFields,
+            container.getRequestParams(), container.getIncludedRelationNames());
         gen.writeObjectField(RELATIONSHIPS_FIELD_NAME, dataLinksContainer);
     }
 
     private void writeLinksField(JsonGenerator gen, Object data) throws IOException {
         gen.writeFieldName(LINKS_FIELD_NAME);
         gen.writeStartObject();
-        writeSelfLink(gen, data);
+        gen.writeFieldName(SELF_FIELD_NAME);
+        linkWriter.writeSelfLink(gen, data);
         gen.writeEndObject();
     }
 
-    private void writeSelfLink(JsonGenerator gen, Object data) throws IOException {
-        Class<?> sourceClass = data.getClass();
-        String resourceUrl = resourceRegistry.getResourceUrl(sourceClass);
-        RegistryEntry entry = resourceRegistry.getEntry(sourceClass);
-        ResourceField idField = entry.getResourceInformation().getIdField();
-
-        Object sourceId = PropertyUtils.getProperty(data, idField.getName());
-        gen.writeStringField(SELF_FIELD_NAME, resourceUrl + "/" + sourceId);
-    }
-
     public Class<Container> handledType() {
         return Container.class;
     }
+
+    /**
+     * Writers of the attributes of a resource class, in order of the attribute indexes of the
+     * {@link ResourceInformation} they have been created from, and the index of the {@link JsonApiVersion} attribute.
+     */
+    private static final class AttributesPlan {
+        private final ResourceInformation resourceInformation;
+        private final AttributeWriter[] writers;
+        private final int versionIndex;
+
+        private AttributesPlan(Class<?> dataClass, ResourceInformation resourceInformation) {
+            this.resourceInformation = resourceInformation;
+            ResourceField[] attributeFields = resourceInformation.getIndexedAttributeFields();
+            this.writers = new AttributeWriter[attributeFields.length];
+            int version = -1;
+            for (int i = 0; i < attributeFields.length; i++) {
+                writers[i] = new AttributeWriter(dataClass, attributeFields[i]);
+                if (attributeFields[i].isAnnotationPresent(JsonApiVersion.class)) {
+                    version = i;
+                }
+            }
+            this.versionIndex = version;
+        }
+    }
 }
@@ -23,9 +23,13 @@ public class DataLinksContainerSerializer extends JsonSerializer<DataLinksContai
     public void serialize(DataLinksContainer dataLinksContainer, JsonGenerator gen, SerializerProvider serializers) throws IOException {
         gen.writeStartObject();
 
+        JsonSerializer<Object> relationshipSerializer = serializers.findValueSerializer(RelationshipContainer.class);
         for (ResourceField field : dataLinksContainer.getRelationshipFields()) {
             RelationshipContainer relationshipContainer = new RelationshipContainer(dataLinksContainer, field);
-            gen.writeObjectField(field.getName(), relationshipContainer);
+            if (!relationshipSerializer.isEmpty(serializers, relationshipContainer)) {
+                gen.writeFieldName(field.getName());
+                relationshipSerializer.serialize(relationshipContainer, gen, serializers);
+            }
         }
 
         gen.writeEndObject();
@@ -1,121 +1,158 @@
 package io.katharsis.jackson.serializer;
 
-import io.katharsis.queryParams.include.Inclusion;
+import io.katharsis.queryParams.RequestParams;
+import io.katharsis.queryParams.include.IncludeLimits;
+import io.katharsis.queryParams.include.IncludeNode;
+import io.katharsis.queryParams.include.IncludeTree;
+import io.katharsis.queryParams.include.IncludeTreeBuilder;
 import io.katharsis.request.path.ResourcePath;
 import io.katharsis.resource.field.ResourceField;
 import io.katharsis.resource.annotations.JsonApiIncludeByDefault;
+import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.BaseResponse;
 import io.katharsis.response.Container;
 import io.katharsis.utils.PropertyUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.util.*;
 
 /**
  * Extracts inclusions from a resource.
  */
 public class IncludedRelationshipExtractor {
-    private final Logger logger = LoggerFactory.getLogger(IncludedRelationshipExtractor.class);
+
+    private final ResourceRegistry resourceRegistry;
+    private final IncludeTreeBuilder includeTreeBuilder;
+    private final IncludeLimits includeLimits;
+
+    public IncludedRelationshipExtractor() {
+        this(null);
+    }
+
+    /**
+     * @param resourceRegistry registry used to validate and resolve inclusions of registered resources
+     */
+    public IncludedRelationshipExtractor(ResourceRegistry resourceRegistry) {
+        this(resourceRegistry, new IncludeLimits());
+    }
+
+    /**
+     * @param resourceRegistry registry used to validate and resolve inclusions of registered resources
+     * @param includeLimits limits enforced while included resources are extracted
+     */
+    public IncludedRelationshipExtractor(ResourceRegistry resourceRegistry, IncludeLimits includeLimits) {
+        this.resourceRegistry = resourceRegistry;
+        this.includeTreeBuilder = new IncludeTreeBuilder(resourceRegistry);
+        this.includeLimits = includeLimits;
+    }
 
     public Set<?> extractIncludedResources(Object resource, Set<ResourceField> relationshipFields,
         BaseResponse response) {
-        Set includedResources = new HashSet<>();
-        //noinspection unchecked
-        includedResources.addAll(extractDefaultIncludedFields(resource, relationshipFields, response));
-        try {
-            //noinspection unchecked
-            includedResources.addAll(extractIncludedRelationships(resource, response));
-        } catch (IllegalAccessException | NoSuchMethodException | InvocationTargetException | NoSuchFieldException e) {
-            logger.info("Exception while extracting included fields", e);
-        }
+        IncludedResources includedResources = new IncludedResources();
+        extractIncludedResources(resource, relationshipFields, response, includedResources);
 
-        return includedResources;
+        return includedResources.getResources();
     }
 
-    private List<?> extractDefaultIncludedFields(Object resource, Set<ResourceField> relationshipFields,
-        BaseResponse response) {
-        List<?> includedResources = new LinkedList<>();
-        //noinspection unchecked
-        relationshipFields
-            .stream()
-            .filter(relationshipField -> relationshipField.isAnnotationPresent(JsonApiIncludeByDefault.class))
-            .forEach(relationshipField -> includedResources.addAll(getIncludedFromRelation(relationshipField, resource, response)));
-
-        return includedResources;
+    void extractIncludedResources(Object resource, Set<ResourceField> relationshipFields, BaseResponse response,
+                                  IncludedResources includedResources) {
+        if (resource == null || includedResources.isClosed()) {
+            return;
+        }
+        IncludeLimits limits = getLimits(resource);
+        extractDefaultIncludedFields(resource, relationshipFields, response, limits, includedResources);
+        extractIncludedRelationships(resource, response, limits, includedResources);
     }
 
-    private List<?> extractIncludedRelationships(Object resource, BaseResponse response)
-        throws IllegalAccessException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
-        List<?> includedResources = new LinkedList<>();
-        List<Inclusion> includedRelations = response.getRequestParams().getIncludedRelations();
-        if (includedRelations != null) {
-            for (Inclusion inclusion : includedRelations) {
-                //noinspection unchecked
-                includedResources.addAll(extractIncludedRelationship(resource, inclusion, response));
+    private IncludeLimits getLimits(Object resource) {
+        if (resourceRegistry == null || !includeLimits.hasResourceLimits()) {
+            return includeLimits;
+        }
+        return includeLimits.getResourceLimits(resourceRegistry.getResourceType(resource.getClass()));
+    }
+
+    private void extractDefaultIncludedFields(Object resource, Set<ResourceField> relationshipFields,
+                                              BaseResponse response, IncludeLimits limits,
+                                              IncludedResources includedResources) {
+        for (ResourceField relationshipField : relationshipFields) {
+            if (relationshipField.isAnnotationPresent(JsonApiIncludeByDefault.class)) {
+                Object property = PropertyUtils.getProperty(resource, relationshipField.getName());
+                extractProperty(property, relationshipField.getName(), null, 1, response.getRequestParams(), limits,
+                    includedResources);
             }
         }
-        return includedResources;
     }
 
-    private Set extractIncludedRelationship(Object resource, Inclusion inclusion, BaseResponse response)
-        throws IllegalAccessException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
-        List<String> pathList = inclusion.getPathList();
-        if (resource == null || pathList.isEmpty()) {
-            return Collections.EMPTY_SET;
+    private void extractIncludedRelationships(Object resource, BaseResponse response, IncludeLimits limits,
+                                              IncludedResources includedResources) {
+        RequestParams requestParams = response.getRequestParams();
+        if (requestParams.getIncludedRelations() == null) {
+            return;
         }
-        if (!(response.getJsonPath() instanceof ResourcePath)) { // the first property name is the resource itself
-            pathList = pathList.subList(1, pathList.size());
-            if (pathList.isEmpty()) {
-                return Collections.EMPTY_SET;
-            }
+        // the first property name is the resource itself
+        boolean skipFirstSegment = !(response.getJsonPath() instanceof ResourcePath);
+        IncludeTree includeTree = requestParams.getIncludeTree(resource.getClass(), skipFirstSegment,
+            includeTreeBuilder);
+        if (!includeTree.isEmpty()) {
+            extractElements(resource, includeTree.getRoots(), 1, requestParams, limits, includedResources);
         }
-        return getElements(resource, pathList, response);
     }
 
-    private Set getElements(Object resource, List<String> pathList, BaseResponse response)
-        throws IllegalAccessException, NoSuchMethodException, InvocationTargetException, NoSuchFieldException {
-        Set elements = new HashSet();
-        if (pathList.isEmpty()) {
-            if (resource != null) {
-                return Collections.singleton(new Container(resource, response.getRequestParams()));
-            } else {
-                return Collections.emptySet();
+    private void extractElements(Object resource, List<IncludeNode> nodes, int depth, RequestParams requestParams,
+                                 IncludeLimits limits, IncludedResources includedResources) {
+        if (depth > limits.getMaxDepth()) {
+            includedResources.exceeded(limits, String.format("Inclusion depth exceeds %d", limits.getMaxDepth()));
+            return;
+        }
+        for (IncludeNode node : nodes) {
+            if (includedResources.isClosed()) {
+                return;
             }
+            extractProperty(node.getValue(resource), node.getName(), node, depth, requestParams, limits,
+                includedResources);
+        }
+    }
+
+    /**
+     * Adds the value of a relationship. If the relationship is a part of an inclusion path, the traversal continues
+     * with the relationship's children.
+     */
+    private void extractProperty(Object property, String name, IncludeNode node, int depth,
+                                 RequestParams requestParams, IncludeLimits limits,
+                                 IncludedResources includedResources) {
+        if (property == null) {
+            return;
         }
-        Field field = resource.getClass().getDeclaredField(pathList.get(0));
-        Object property = PropertyUtils.getProperty(resource, field.getName());
-        if (property != null) {
-            List<String> subPathList = pathList.subList(1, pathList.size());
-            if (Iterable.class.isAssignableFrom(property.getClass())) {
-                for (Object o : ((Iterable) property)) {
-                    //noinspection unchecked
-                    elements.addAll(getElements(o, subPathList, response));
+        if (property instanceof Iterable) {
+            int count = 0;
+            for (Object element : (Iterable) property) {
+                if (count++ >= limits.getMaxPerRelationship()) {
+                    includedResources.exceeded(limits, String.format("Number of resources included from %s exceeds %d",
+                        name, limits.getMaxPerRelationship()));
+                    return;
+                }
+                extractElement(element, node, depth, requestParams, limits, includedResources);
+                if (includedResources.isClosed()) {
+                    return;
                 }
-            } else {
-                //noinspection unchecked
-                elements.addAll(getElements(property, subPathList, response));
             }
         } else {
-            return Collections.emptySet();
+            extractElement(property, node, depth, requestParams, limits, includedResources);
         }
-        return elements;
     }
 
-    private List getIncludedFromRelation(ResourceField relationshipField, Object resource, BaseResponse response) {
-        List<Container> includedFields = new LinkedList<>();
-        Object targetDataObj = PropertyUtils.getProperty(resource, relationshipField.getName());
-        if (targetDataObj != null) {
-            if (Iterable.class.isAssignableFrom(targetDataObj.getClass())) {
-                for (Object objectItem : (Iterable) targetDataObj) {
-                    includedFields.add(new Container(objectItem, response.getRequestParams()));
-                }
-            } else {
-                includedFields.add(new Container(targetDataObj, response.getRequestParams()));
-            }
+    private void extractElement(Object element, IncludeNode node, int depth, RequestParams requestParams,
+                                IncludeLimits limits, IncludedResources includedResources) {
+        if (element == null) {
+            return;
+        }
+        if (node == null || node.isIncluded()) {
+            Set<String> includedRelationNames = node != null ? node.getChildNames() : Collections.emptySet();
+            includedResources.add(new Container(element, requestParams, includedRelationNames), limits);
+        } else if (!node.getChildNames().isEmpty()) {
+            includedResources.addTraversed(new Container(element, requestParams, node.getChildNames()));
+        }
+        if (node != null && !node.getChildren().isEmpty()) {
+            extractElements(element, node.getChildren(), depth + 1, requestParams, limits, includedResources);
         }
-        return includedFields;
     }
 }
@@ -0,0 +1,92 @@
+package io.katharsis.jackson.serializer;
+
+import io.katharsis.jackson.exception.IncludeLimitExceededException;
+import io.katharsis.queryParams.include.IncludeLimits;
+import io.katharsis.response.Container;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects resources included in a single response and keeps track of reached include limits.
+ */
+class IncludedResources {
+
+    private final Map<Container, Container> resources = new HashMap<>();
+    private final Map<Container, Set<String>> traversedRelationNames = new HashMap<>();
+    private boolean truncated;
+    private boolean closed;
+
+    /**
+     * Add a resource unless the total limit has been reached. A resource can be reached by several inclusion paths,
+     * the relationships included at each of its positions are merged into the resource added first.
+     *
+     * @param container included resource
+     * @param limits limits of the response
+     */
+    void add(Container container, IncludeLimits limits) {
+        Container existing = resources.get(container);
+        if (existing != null) {
+            merge(existing, container.getIncludedRelationNames());
+        } else if (resources.size() >= limits.getMaxIncluded()) {
+            exceeded(limits, String.format("Number of included resources exceeds %d", limits.getMaxIncluded()));
+            closed = true;
+        } else {
+            merge(container, traversedRelationNames.remove(container));
+            resources.put(container, container);
+        }
+    }
+
+    /**
+     * Records the relationships included at a position of a resource which isn't included at that position, e.g.
+     * <i>author</i> of <i>author.projects</i>. They're merged into the resource if it's included by another path,
+     * e.g. <i>comments.author</i>.
+     *
+     * @param container traversed resource
+     */
+    void addTraversed(Container container) {
+        Container existing = resources.get(container);
+        if (existing != null) {
+            merge(existing, container.getIncludedRelationNames());
+        } else {
+            traversedRelationNames.merge(container, container.getIncludedRelationNames(), IncludedResources::union);
+        }
+    }
+
+    private static void merge(Container container, Set<String> names) {
+        Set<String> containerNames = container.getIncludedRelationNames();
+        if (containerNames != null && names != null && !containerNames.containsAll(names)) {
+            container.setIncludedRelationNames(union(containerNames, names));
+        }
+    }
+
+    private static Set<String> union(Set<String> names, Set<String> otherNames) {
+        Set<String> result = new HashSet<>(names);
+        result.addAll(otherNames);
+        return result;
+    }
+
+    void exceeded(IncludeLimits limits, String message) {
+        if (limits.getExceedAction() == IncludeLimits.ExceedAction.FAIL) {
+            throw new IncludeLimitExceededException(message);
+        }
+        truncated = true;
+    }
+
+    /**
+     * @return <i>true</i> if no more resources can be included
+     */
+    boolean isClosed() {
+        return closed;
+    }
+
+    boolean isTruncated() {
+        return truncated;
+    }
+
+    Set<Container> getResources() {
+        return resources.keySet();
+    }
+}
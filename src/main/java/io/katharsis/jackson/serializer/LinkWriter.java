@@ -0,0 +1,160 @@
+package io.katharsis.jackson.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.katharsis.queryParams.RequestParams;
+import io.katharsis.request.path.PathBuilder;
+import io.katharsis.resource.field.ResourceField;
+import io.katharsis.resource.information.ResourceInformation;
+import io.katharsis.resource.registry.RegistryEntry;
+import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.utils.PropertyAccessor;
+import io.katharsis.utils.PropertyUtils;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Writes links of resources and their relationships. URLs of a resource class are split into a constant prefix, the
+ * id of the resource and a constant suffix. The prefix and the suffixes of each relationship are computed once per
+ * resource class, so writing a link only copies the parts into a buffer of the current thread, which the generator
+ * copies before it returns. The templates are computed again after entries of the registry change.
+ * <p>
+ * Links can be omitted from all responses or by a client by {@link RequestParams#isLinksOmitted()} or
+ * {@link RequestParams#isCompact()}.
+ * </p>
+ */
+public class LinkWriter {
+
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private static final ThreadLocal<char[]> BUFFERS = ThreadLocal.withInitial(() -> new char[INITIAL_BUFFER_SIZE]);
+
+    private final ResourceRegistry resourceRegistry;
+    private final boolean linksOmitted;
+    private final ConcurrentMap<Class<?>, Template> templates = new ConcurrentHashMap<>();
+
+    public LinkWriter(ResourceRegistry resourceRegistry) {
+        this(resourceRegistry, false);
+    }
+
+    /**
+     * @param resourceRegistry registry of the resources
+     * @param linksOmitted     <i>true</i> if links shouldn't be written to any response
+     */
+    public LinkWriter(ResourceRegistry resourceRegistry, boolean linksOmitted) {
+        this.resourceRegistry = resourceRegistry;
+        this.linksOmitted = linksOmitted;
+    }
+
+    /**
+     * @param requestParams parameters of the request, can be <i>null</i>
+     * @return <i>true</i> if links shouldn't be written
+     */
+    public boolean isOmitted(RequestParams requestParams) {
+        return linksOmitted || requestParams != null && (requestParams.isLinksOmitted() || requestParams.isCompact());
+    }
+
+    /**
+     * Reads the id of a resource as used in its links.
+     *
+     * @param resource resource
+     * @return id of the resource
+     */
+    public String getId(Object resource) {
+        return getTemplate(resource.getClass()).getId(resource);
+    }
+
+    /**
+     * Writes <i>self</i> link of a resource.
+     *
+     * @param gen      generator
+     * @param resource resource
+     * @throws IOException if the link cannot be written
+     */
+    public void writeSelfLink(JsonGenerator gen, Object resource) throws IOException {
+        Template template = getTemplate(resource.getClass());
+        writeLink(gen, template.prefix, template.getId(resource), null);
+    }
+
+    /**
+     * Writes a link of a relationship of a resource.
+     *
+     * @param gen              generator
+     * @param resourceClass    class of the resource
+     * @param resourceId       id of the resource, see {@link #getId(Object)}
+     * @param relationshipName name of the relationship
+     * @param self             <i>true</i> for <i>self</i> link, <i>false</i> for <i>related</i> link
+     * @throws IOException if the link cannot be written
+     */
+    public void writeRelationshipLink(JsonGenerator gen, Class<?> resourceClass, String resourceId,
+                                      String relationshipName, boolean self) throws IOException {
+        Template template = getTemplate(resourceClass);
+        char[] suffix = (self ? template.selfSuffixes : template.relatedSuffixes).get(relationshipName);
+        if (suffix == null) {
+            suffix = createRelationshipSuffix(relationshipName, self);
+        }
+        writeLink(gen, template.prefix, resourceId, suffix);
+    }
+
+    private static void writeLink(JsonGenerator gen, char[] prefix, String id, char[] suffix) throws IOException {
+        int suffixLength = suffix != null ? suffix.length : 0;
+        int length = prefix.length + id.length() + suffixLength;
+        char[] buffer = BUFFERS.get();
+        if (buffer.length < length) {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+            BUFFERS.set(buffer);
+        }
+        System.arraycopy(prefix, 0, buffer, 0, prefix.length);
+        id.getChars(0, id.length(), buffer, prefix.length);
+        if (suffix != null) {
+            System.arraycopy(suffix, 0, buffer, prefix.length + id.length(), suffixLength);
+        }
+        gen.writeString(buffer, 0, length);
+    }
+
+    private Template getTemplate(Class<?> resourceClass) {
+        long registryVersion = resourceRegistry.getVersion();
+        Template template = templates.get(resourceClass);
+        if (template == null || template.registryVersion != registryVersion) {
+            template = new Template(resourceClass, resourceRegistry.getEntry(resourceClass),
+                resourceRegistry.getResourceUrl(resourceClass), registryVersion);
+            templates.put(resourceClass, template);
+        }
+        return template;
+    }
+
+    private static char[] createRelationshipSuffix(String relationshipName, boolean self) {
+        return ((self ? "/" + PathBuilder.RELATIONSHIP_MARK + "/" : "/") + relationshipName).toCharArray();
+    }
+
+    private static final class Template {
+        private final long registryVersion;
+        private final char[] prefix;
+        private final PropertyAccessor idAccessor;
+        private final Map<String, char[]> selfSuffixes = new HashMap<>();
+        private final Map<String, char[]> relatedSuffixes = new HashMap<>();
+
+        private Template(Class<?> resourceClass, RegistryEntry entry, String resourceUrl, long registryVersion) {
+            this.registryVersion = registryVersion;
+            ResourceInformation resourceInformation = entry.getResourceInformation();
+            String idName = resourceInformation.getIdField().getName();
+            this.prefix = (resourceUrl + "/").toCharArray();
+            this.idAccessor = PropertyUtils.findPropertyAccessor(resourceClass, idName);
+            if (idAccessor == null) {
+                throw new IllegalStateException(String.format("Cannot find an getter for %s.%s",
+                    resourceClass.getCanonicalName(), idName));
+            }
+            for (ResourceField field : resourceInformation.getRelationshipFields()) {
+                selfSuffixes.put(field.getName(), createRelationshipSuffix(field.getName(), true));
+                relatedSuffixes.put(field.getName(), createRelationshipSuffix(field.getName(), false));
+            }
+        }
+
+        private String getId(Object resource) {
+            return String.valueOf(idAccessor.getValue(resource));
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package io.katharsis.jackson.serializer;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.katharsis.queryParams.include.IncludeLimits;
+import io.katharsis.resource.field.ResourceField;
+import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.response.CollectionResponse;
+import io.katharsis.response.Container;
+import io.katharsis.response.LinkageContainer;
+import io.katharsis.response.MetaInformation;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Set;
+
+/**
+ * Writes a collection response as newline delimited JSON, see {@link io.katharsis.jackson.JsonApiFormat#NDJSON}.
+ * Each resource of the primary data is written as a single line with the same resource object as in the
+ * <i>data</i> member of a JSON API document, and flushed, so a client can process it before the whole collection is
+ * read. The data is iterated only once, so a lazily loaded collection is never held in memory.
+ * <p>
+ * Included resources and meta information are written as the last line, an object with <i>included</i> and
+ * <i>meta</i> members. The line is omitted if both of them are empty.
+ * </p>
+ * <p>
+ * Records are sent as soon as they're written, so an error, e.g. an exceeded include limit, can't be reported by a
+ * status of the response after the first record; the stream just ends without the trailing line.
+ * </p>
+ */
+public class NdjsonCollectionWriter {
+
+    private static final String INCLUDED_FIELD_NAME = "included";
+    private static final String META_FIELD_NAME = "meta";
+
+    private final ResourceRegistry resourceRegistry;
+    private final IncludedRelationshipExtractor includedRelationshipExtractor;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+
+    /**
+     * @param resourceRegistry registry of the resources
+     * @param includeLimits    limits of the included resources
+     * @param objectMapper     object mapper with the Katharsis module
+     */
+    public NdjsonCollectionWriter(ResourceRegistry resourceRegistry, IncludeLimits includeLimits,
+                                  ObjectMapper objectMapper) {
+        this.resourceRegistry = resourceRegistry;
+        this.includedRelationshipExtractor = new IncludedRelationshipExtractor(resourceRegistry, includeLimits);
+        this.objectMapper = objectMapper;
+        this.objectWriter = objectMapper.writer()
+            .without(SerializationFeature.INDENT_OUTPUT)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /**
+     * Writes a response to a stream.
+     *
+     * @param response     collection response
+     * @param outputStream stream the response is written to, the stream is not closed
+     * @throws IOException if the response cannot be written
+     */
+    public void write(CollectionResponse response, OutputStream outputStream) throws IOException {
+        IncludedResources includedResources = new IncludedResources();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(outputStream, JsonEncoding.UTF8)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.setRootValueSeparator(null);
+            Iterable values = response.getData();
+            Set<String> includedRelationNames = BaseResponseSerializer.getIncludedRelationNames(response);
+            if (values != null) {
+                for (Object value : values) {
+                    writeRecord(gen, value instanceof LinkageContainer
+                        ? value
+                        : new Container(value, response.getRequestParams(), includedRelationNames));
+                    if (!(value instanceof LinkageContainer)) {
+                        Set<ResourceField> relationshipFields = resourceRegistry.getEntry(value.getClass())
+                            .getResourceInformation()
+                            .getRelationshipFields();
+                        includedRelationshipExtractor.extractIncludedResources(value, relationshipFields, response,
+                            includedResources);
+                    }
+                }
+            }
+            writeTrailer(gen, response, includedResources);
+        }
+    }
+
+    /**
+     * A record is flushed after its line separator, so a client reading lines gets each record as soon as it's
+     * written.
+     */
+    private void writeRecord(JsonGenerator gen, Object record) throws IOException {
+        objectWriter.writeValue(gen, record);
+        gen.writeRaw('\n');
+        gen.flush();
+    }
+
+    private void writeTrailer(JsonGenerator gen, CollectionResponse response, IncludedResources includedResources)
+        throws IOException {
+        boolean metaOmitted = response.getRequestParams() != null && response.getRequestParams().isMetaOmitted();
+        MetaInformation metaInformation = metaOmitted ? null : response.getMetaInformation();
+        JsonNode meta = metaInformation != null ? objectMapper.valueToTree(metaInformation) : null;
+        if (includedResources.isTruncated()) {
+            if (meta == null) {
+                meta = objectMapper.createObjectNode();
+            }
+            if (meta instanceof ObjectNode) {
+                ((ObjectNode) meta).put(IncludeLimits.TRUNCATED_META_FIELD_NAME, true);
+            }
+        }
+        if (includedResources.getResources().isEmpty() && meta == null) {
+            return;
+        }
+        gen.writeStartObject();
+        if (!includedResources.getResources().isEmpty()) {
+            gen.writeFieldName(INCLUDED_FIELD_NAME);
+            objectWriter.writeValue(gen, includedResources.getResources());
+        }
+        if (meta != null) {
+            gen.writeFieldName(META_FIELD_NAME);
+            objectWriter.writeValue(gen, meta);
+        }
+        gen.writeEndObject();
+        gen.writeRaw('\n');
+        gen.flush();
+    }
+}
@@ -0,0 +1,116 @@
+package io.katharsis.jackson.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.json.JsonGeneratorImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import io.katharsis.jackson.ParallelSerialization;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Writes elements of a large <i>data</i> array in parallel. The elements are split into chunks, each chunk is written
+ * by a separate task to its own buffer using its own generator and serializer provider, and the buffers are spliced
+ * in order into the response as raw JSON.
+ */
+final class ParallelDataWriter {
+
+    private final ParallelSerialization settings;
+
+    ParallelDataWriter(ParallelSerialization settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Chunks can be spliced only into text JSON written without a pretty printer by a generator of an
+     * {@link ObjectMapper}, all other responses are written sequentially.
+     *
+     * @param elements  elements of the array
+     * @param gen       generator of the response
+     * @param provider  serializer provider of the response
+     * @return <i>true</i> if the elements should be written in parallel
+     */
+    boolean isApplicable(List<?> elements, JsonGenerator gen, SerializerProvider provider) {
+        return settings.isEnabled()
+            && elements.size() >= settings.getMinResources()
+            && gen instanceof JsonGeneratorImpl
+            && gen.getPrettyPrinter() == null
+            && gen.getCodec() instanceof ObjectMapper
+            && provider instanceof DefaultSerializerProvider;
+    }
+
+    /**
+     * Writes the elements into an array which has already been started.
+     *
+     * @param elements elements of the array, already wrapped in containers
+     * @param gen      generator of the response
+     * @param provider serializer provider of the response
+     * @throws IOException if any of the elements cannot be written
+     */
+    void writeElements(List<?> elements, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        List<ForkJoinTask<String>> tasks = new ArrayList<>();
+        int chunkSize = settings.getChunkSize();
+        for (int start = 0; start < elements.size(); start += chunkSize) {
+            List<?> chunk = elements.subList(start, Math.min(start + chunkSize, elements.size()));
+            tasks.add(settings.getPool().submit(() -> writeChunk(chunk, gen, provider)));
+        }
+        try {
+            for (ForkJoinTask<String> task : tasks) {
+                String chunk = task.get();
+                if (!chunk.isEmpty()) {
+                    gen.writeRawValue(chunk);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing resources");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } finally {
+            for (ForkJoinTask<String> task : tasks) {
+                task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * @return elements of the chunk separated by commas, without brackets of the array
+     */
+    private static String writeChunk(List<?> chunk, JsonGenerator gen, SerializerProvider provider)
+        throws IOException {
+        ObjectMapper objectMapper = (ObjectMapper) gen.getCodec();
+        DefaultSerializerProvider chunkProvider = ((DefaultSerializerProvider) provider)
+            .createInstance(provider.getConfig(), objectMapper.getSerializerFactory());
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator chunkGen = objectMapper.getFactory().createGenerator(writer)) {
+            chunkGen.setCodec(objectMapper);
+            chunkGen.setFeatureMask(gen.getFeatureMask());
+            chunkGen.setCharacterEscapes(gen.getCharacterEscapes());
+            chunkGen.writeStartArray();
+            for (Object element : chunk) {
+                chunkProvider.defaultSerializeValue(element, chunkGen);
+            }
+            chunkGen.writeEndArray();
+        }
+        StringBuffer buffer = writer.getBuffer();
+        return buffer.substring(1, buffer.length() - 1);
+    }
+
+    private static IOException unwrap(Throwable cause) {
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        } else if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IOException(cause);
+    }
+}
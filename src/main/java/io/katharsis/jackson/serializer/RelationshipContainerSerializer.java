@@ -3,18 +3,18 @@ package io.katharsis.jackson.serializer;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
-import io.katharsis.jackson.exception.JsonSerializationException;
-import io.katharsis.request.path.PathBuilder;
-import io.katharsis.resource.field.ResourceField;
+import io.katharsis.queryParams.RequestParams;
+import io.katharsis.repository.RelationshipIdRepository;
+import io.katharsis.resource.annotations.LinkagePolicy;
+import io.katharsis.resource.field.LoadStateProbe;
 import io.katharsis.resource.registry.RegistryEntry;
+import io.katharsis.resource.registry.RelationshipDescriptor;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.response.LinkageContainer;
 import io.katharsis.response.RelationshipContainer;
-import io.katharsis.utils.Generics;
-import io.katharsis.utils.PropertyUtils;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationTargetException;
+import java.io.Serializable;
 
 /**
  * Serializes a relationship inside of top-level links object
@@ -30,81 +30,141 @@ public class RelationshipContainerSerializer extends JsonSerializer<Relationship
     private static final String LINKS_FIELD_NAME = "links";
 
     private final ResourceRegistry resourceRegistry;
+    private final LoadStateProbe loadStateProbe;
+    private final LinkWriter linkWriter;
 
     public RelationshipContainerSerializer(ResourceRegistry resourceRegistry) {
+        this(resourceRegistry, LoadStateProbe.ALWAYS_LOADED);
+    }
+
+    public RelationshipContainerSerializer(ResourceRegistry resourceRegistry, LoadStateProbe loadStateProbe) {
+        this(resourceRegistry, loadStateProbe, new LinkWriter(resourceRegistry));
+    }
+
+    public RelationshipContainerSerializer(ResourceRegistry resourceRegistry, LoadStateProbe loadStateProbe,
+                                           LinkWriter linkWriter) {
         this.resourceRegistry = resourceRegistry;
+        this.loadStateProbe = loadStateProbe;
+        this.linkWriter = linkWriter;
     }
 
     @Override
     public void serialize(RelationshipContainer relationshipContainer, JsonGenerator gen, SerializerProvider provider)
         throws IOException {
+        RelationshipDescriptor relationship = resourceRegistry.getRelationship(
+            relationshipContainer.getDataLinksContainer().getData().getClass(),
+            relationshipContainer.getRelationshipField());
         gen.writeStartObject();
-        writeLinks(relationshipContainer, gen);
-        writeLinkage(relationshipContainer, gen);
+        if (!linkWriter.isOmitted(relationshipContainer.getDataLinksContainer().getRequestParams())) {
+            writeLinks(relationshipContainer, gen);
+        }
+        if (isLinkageWritten(relationshipContainer, relationship)) {
+            writeLinkage(relationshipContainer, relationship, gen);
+        }
         gen.writeEndObject();
     }
 
+    /**
+     * A relationship is empty if it has neither links nor linkage, such a relationship isn't written.
+     */
+    @Override
+    public boolean isEmpty(SerializerProvider provider, RelationshipContainer relationshipContainer) {
+        if (!linkWriter.isOmitted(relationshipContainer.getDataLinksContainer().getRequestParams())) {
+            return false;
+        }
+        RelationshipDescriptor relationship = resourceRegistry.getRelationship(
+            relationshipContainer.getDataLinksContainer().getData().getClass(),
+            relationshipContainer.getRelationshipField());
+        return !isLinkageWritten(relationshipContainer, relationship);
+    }
+
+    /**
+     * Linkage is written according to {@link LinkagePolicy} of the relationship. Reading a relationship which is
+     * neither included nor loaded is avoided, because it can trigger loading of the relationship.
+     */
+    private boolean isLinkageWritten(RelationshipContainer relationshipContainer, RelationshipDescriptor relationship) {
+        LinkagePolicy linkagePolicy = relationship.getLinkagePolicy();
+        if (linkagePolicy == LinkagePolicy.ALWAYS || isIncluded(relationshipContainer, relationship)) {
+            return true;
+        }
+        return linkagePolicy == LinkagePolicy.WHEN_LOADED
+            && loadStateProbe.isLoaded(relationshipContainer.getDataLinksContainer().getData(), relationship.getField());
+    }
+
+    private static boolean isIncluded(RelationshipContainer relationshipContainer, RelationshipDescriptor relationship) {
+        if (relationship.isIncludedByDefault()) {
+            return true;
+        }
+        return relationshipContainer.getDataLinksContainer().isRelationIncluded(relationship.getName());
+    }
+
     private void writeLinks(RelationshipContainer relationshipContainer, JsonGenerator gen) throws IOException {
+        Object data = relationshipContainer.getDataLinksContainer().getData();
+        String sourceId = linkWriter.getId(data);
+        String relationshipName = relationshipContainer.getRelationshipField().getName();
+
         gen.writeFieldName(LINKS_FIELD_NAME);
         gen.writeStartObject();
-        writeLink(relationshipContainer, gen, SELF_FIELD_NAME, true);
-        writeLink(relationshipContainer, gen, RELATED_FIELD_NAME, false);
+        gen.writeFieldName(SELF_FIELD_NAME);
+        linkWriter.writeRelationshipLink(gen, data.getClass(), sourceId, relationshipName, true);
+        gen.writeFieldName(RELATED_FIELD_NAME);
+        linkWriter.writeRelationshipLink(gen, data.getClass(), sourceId, relationshipName, false);
         gen.writeEndObject();
     }
 
-    private void writeLink(RelationshipContainer relationshipContainer, JsonGenerator gen, String fieldName,
-        boolean addLinks) throws IOException {
-        Object data = relationshipContainer.getDataLinksContainer().getData();
-        Class<?> sourceClass = data.getClass();
-        String resourceUrl = resourceRegistry.getResourceUrl(sourceClass);
-        RegistryEntry entry = resourceRegistry.getEntry(sourceClass);
-        ResourceField idField = entry.getResourceInformation().getIdField();
-
-        Object sourceId = PropertyUtils.getProperty(data, idField.getName());
-        String url = resourceUrl + "/" + sourceId + (addLinks ? "/" + PathBuilder.RELATIONSHIP_MARK + "/" : "/")
-            + relationshipContainer.getRelationshipField().getName();
-        gen.writeStringField(fieldName, url);
-    }
-
     /**
-     * Here it is needed to check actual generic type of a class. To achieve that {@code Class::getType} method cannot
-     * be used because of type erasure.
-     *
-     * @param relationshipContainer
-     * @param gen
-     * @throws IOException
+     * Linkage of a relationship which is loaded is read from the resource. Linkage of a relationship which isn't
+     * loaded is read from {@link RelationshipIdRepository} if the relationship repository implements it, so the
+     * targets aren't loaded only to write their identifiers. It takes one repository call per resource, so loaded
+     * relationships are still read from the resource.
      */
-    private void writeLinkage(RelationshipContainer relationshipContainer, JsonGenerator gen) throws IOException {
-        Class baseClass = relationshipContainer.getRelationshipField().getType();
-        Class relationshipClass = Generics
-            .getResourceClass(relationshipContainer.getRelationshipField().getGenericType(), baseClass);
-        RegistryEntry relationshipEntry = resourceRegistry.getEntry(relationshipClass);
+    private void writeLinkage(RelationshipContainer relationshipContainer, RelationshipDescriptor relationship,
+        JsonGenerator gen) throws IOException {
+        Object resource = relationshipContainer.getDataLinksContainer().getData();
+        Class<?> relationshipClass = relationship.getTargetClass();
+        RegistryEntry relationshipEntry = relationship.getTargetEntry();
+        RelationshipIdRepository relationshipIdRepository = relationship.getRelationshipIdRepository();
 
         gen.writeFieldName(DATA_FIELD_NAME);
-        writeLinkageField(relationshipContainer, gen, baseClass, relationshipClass, relationshipEntry);
+        if (relationshipIdRepository != null && !loadStateProbe.isLoaded(resource, relationship.getField())) {
+            writeLinkageOfIds(relationshipContainer, relationship, relationshipIdRepository, gen);
+        } else if (relationship.isCollection()) {
+            writeToManyLinkage(relationship.getValue(resource), gen, relationshipClass, relationshipEntry);
+        } else {
+            writeToOneLinkage(relationship.getValue(resource), gen, relationshipClass, relationshipEntry);
+        }
     }
 
-    private void writeLinkageField(RelationshipContainer relationshipContainer, JsonGenerator gen, Class baseClass,
-        Class relationshipClass, RegistryEntry relationshipEntry)
+    @SuppressWarnings("unchecked")
+    private static void writeLinkageOfIds(RelationshipContainer relationshipContainer,
+        RelationshipDescriptor relationship, RelationshipIdRepository relationshipIdRepository, JsonGenerator gen)
         throws IOException {
-        try {
-            if (Iterable.class.isAssignableFrom(baseClass)) {
-                writeToManyLinkage(relationshipContainer, gen, relationshipClass, relationshipEntry);
+        Serializable sourceId = relationship.getSourceId(relationshipContainer.getDataLinksContainer().getData());
+        RequestParams requestParams = relationshipContainer.getDataLinksContainer().getRequestParams();
+        Class<?> relationshipClass = relationship.getTargetClass();
+        RegistryEntry relationshipEntry = relationship.getTargetEntry();
+        if (relationship.isCollection()) {
+            Iterable<?> targetIds = relationshipIdRepository
+                .findManyTargetIds(sourceId, relationship.getName(), requestParams);
+            gen.writeStartArray();
+            if (targetIds != null) {
+                for (Object targetId : targetIds) {
+                    gen.writeObject(LinkageContainer.forId(targetId, relationshipClass, relationshipEntry));
+                }
+            }
+            gen.writeEndArray();
+        } else {
+            Object targetId = relationshipIdRepository.findOneTargetId(sourceId, relationship.getName(), requestParams);
+            if (targetId == null) {
+                gen.writeObject(null);
             } else {
-                writeToOneLinkage(relationshipContainer, gen, relationshipClass, relationshipEntry);
+                gen.writeObject(LinkageContainer.forId(targetId, relationshipClass, relationshipEntry));
             }
-        } catch (IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-            throw new JsonSerializationException("Error writing linkage field");
         }
     }
 
-    private void writeToManyLinkage(RelationshipContainer relationshipContainer, JsonGenerator gen,
-        Class relationshipClass, RegistryEntry relationshipEntry)
-        throws IOException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
-        ResourceField relationshipField = relationshipContainer.getRelationshipField();
-        Object targetDataObj = PropertyUtils
-            .getProperty(relationshipContainer.getDataLinksContainer().getData(), relationshipField.getName());
-
+    private static void writeToManyLinkage(Object targetDataObj, JsonGenerator gen, Class<?> relationshipClass,
+        RegistryEntry relationshipEntry) throws IOException {
         gen.writeStartArray();
         if (targetDataObj != null) {
             for (Object objectItem : (Iterable) targetDataObj) {
@@ -114,12 +174,8 @@ public class RelationshipContainerSerializer extends JsonSerializer<Relationship
         gen.writeEndArray();
     }
 
-    private void writeToOneLinkage(RelationshipContainer relationshipContainer, JsonGenerator gen,
-        Class<?> relationshipClass, RegistryEntry relationshipEntry)
-        throws IOException, IllegalAccessException, NoSuchMethodException, InvocationTargetException {
-        ResourceField relationshipField = relationshipContainer.getRelationshipField();
-        Object targetDataObj = PropertyUtils
-            .getProperty(relationshipContainer.getDataLinksContainer().getData(), relationshipField.getName());
+    private static void writeToOneLinkage(Object targetDataObj, JsonGenerator gen, Class<?> relationshipClass,
+        RegistryEntry relationshipEntry) throws IOException {
         if (targetDataObj == null) {
             gen.writeObject(null);
         } else {
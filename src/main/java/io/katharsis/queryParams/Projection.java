@@ -0,0 +1,139 @@
+package io.katharsis.queryParams;
+
+import io.katharsis.resource.field.ResourceField;
+import io.katharsis.resource.information.ResourceInformation;
+
+import java.util.*;
+
+/**
+ * Represents a sparse fieldset <a href="http://jsonapi.org/format/#fetching-sparse-fieldsets">Sparse Fieldsets</a>
+ * of a single resource type. Requested field names are resolved once into bitsets over the indexes defined by
+ * {@link ResourceInformation}, so checking whether a field should be returned doesn't require any lookups.
+ * <p>
+ * Repositories can use an instance of this class, available by {@link RequestParams#getProjection(String)}, to fetch
+ * only the required attributes from a data source.
+ */
+public final class Projection {
+
+    private final ResourceInformation resourceInformation;
+    private final BitSet attributes;
+    private final BitSet relationships;
+    private final boolean all;
+
+    private Projection(ResourceInformation resourceInformation, BitSet attributes, BitSet relationships, boolean all) {
+        this.resourceInformation = resourceInformation;
+        this.attributes = attributes;
+        this.relationships = relationships;
+        this.all = all;
+    }
+
+    /**
+     * Creates a projection of a resource.
+     *
+     * @param resourceInformation information about the resource
+     * @param fieldNames names of the requested fields, <i>null</i> or an empty collection means all of the fields.
+     *                   Names of fields which do not exist in the resource are ignored.
+     * @return resolved projection
+     */
+    public static Projection of(ResourceInformation resourceInformation, Collection<String> fieldNames) {
+        ResourceField[] attributeFields = resourceInformation.getIndexedAttributeFields();
+        ResourceField[] relationshipFields = resourceInformation.getIndexedRelationshipFields();
+        BitSet attributes = new BitSet(attributeFields.length);
+        BitSet relationships = new BitSet(relationshipFields.length);
+
+        if (fieldNames == null || fieldNames.isEmpty()) {
+            attributes.set(0, attributeFields.length);
+            relationships.set(0, relationshipFields.length);
+            return new Projection(resourceInformation, attributes, relationships, true);
+        }
+
+        for (String fieldName : fieldNames) {
+            int attributeIndex = resourceInformation.getAttributeIndex(fieldName);
+            if (attributeIndex >= 0) {
+                attributes.set(attributeIndex);
+            }
+            int relationshipIndex = resourceInformation.getRelationshipIndex(fieldName);
+            if (relationshipIndex >= 0) {
+                relationships.set(relationshipIndex);
+            }
+        }
+        return new Projection(resourceInformation, attributes, relationships, false);
+    }
+
+    public ResourceInformation getResourceInformation() {
+        return resourceInformation;
+    }
+
+    /**
+     * @return true if no sparse fieldset has been requested for the resource
+     */
+    public boolean isAll() {
+        return all;
+    }
+
+    /**
+     * @param index index of an attribute as defined by {@link ResourceInformation#getAttributeIndex(String)}
+     * @return true if the attribute should be returned
+     */
+    public boolean isAttributeIncluded(int index) {
+        return attributes.get(index);
+    }
+
+    /**
+     * @param index index of a relationship as defined by {@link ResourceInformation#getRelationshipIndex(String)}
+     * @return true if the relationship should be returned
+     */
+    public boolean isRelationshipIncluded(int index) {
+        return relationships.get(index);
+    }
+
+    /**
+     * @param name name of an attribute or a relationship
+     * @return true if the field should be returned
+     */
+    public boolean isFieldIncluded(String name) {
+        int attributeIndex = resourceInformation.getAttributeIndex(name);
+        if (attributeIndex >= 0) {
+            return attributes.get(attributeIndex);
+        }
+        int relationshipIndex = resourceInformation.getRelationshipIndex(name);
+        return relationshipIndex >= 0 && relationships.get(relationshipIndex);
+    }
+
+    /**
+     * @return names of attributes which should be returned, in order of their indexes
+     */
+    public List<String> getAttributeNames() {
+        return getNames(resourceInformation.getIndexedAttributeFields(), attributes);
+    }
+
+    /**
+     * @return names of relationships which should be returned, in order of their indexes
+     */
+    public List<String> getRelationshipNames() {
+        return getNames(resourceInformation.getIndexedRelationshipFields(), relationships);
+    }
+
+    /**
+     * @return relationship fields which should be returned
+     */
+    public Set<ResourceField> getRelationshipFields() {
+        if (all) {
+            return resourceInformation.getRelationshipFields();
+        }
+        ResourceField[] relationshipFields = resourceInformation.getIndexedRelationshipFields();
+        Set<ResourceField> result = new LinkedHashSet<>();
+        for (int i = relationships.nextSetBit(0); i >= 0; i = relationships.nextSetBit(i + 1)) {
+            result.add(relationshipFields[i]);
+        }
+        return result;
+    }
+
+    private static List<String> getNames(ResourceField[] fields, BitSet included) {
+        List<String> names = new ArrayList<>(included.cardinality());
+        for (int i = included.nextSetBit(0); i >= 0; i = included.nextSetBit(i + 1)) {
+            names.add(fields[i].getName());
+        }
+        return Collections.unmodifiableList(names);
+    }
+}
@@ -3,12 +3,14 @@ package io.katharsis.queryParams;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.katharsis.queryParams.include.IncludeTree;
+import io.katharsis.queryParams.include.IncludeTreeBuilder;
 import io.katharsis.queryParams.include.Inclusion;
+import io.katharsis.resource.information.ResourceInformation;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -20,7 +22,17 @@ public class RequestParams {
     private List<String> grouping;
     private Map<PaginationKeys, Integer> pagination;
     private List<String> includedFields;
+    private Map<String, Set<String>> typedIncludedFields = Collections.emptyMap();
     private List<Inclusion> includedRelations;
+    private Set<String> includedRelationNames = Collections.emptySet();
+    private Set<String> nestedIncludedRelationNames = Collections.emptySet();
+    private boolean linksOmitted;
+    private boolean compact;
+    private boolean metaOmitted;
+    private Set<String> includedMetaKeys = Collections.emptySet();
+    private final Map<String, Projection> projections = new ConcurrentHashMap<>();
+    private final Map<Class<?>, IncludeTree> includeTrees = new ConcurrentHashMap<>();
+    private final Map<Class<?>, IncludeTree> nestedIncludeTrees = new ConcurrentHashMap<>();
 
     private final ObjectMapper objectMapper;
 
@@ -29,6 +41,7 @@ public class RequestParams {
     private static final TypeReference PAGINATION_TYPE_REFERENCE;
     private static final TypeReference INCLUDED_FIELDS_TYPE_REFERENCE;
     private static final TypeReference INCLUDED_RELATIONS_TYPE_REFERENCE;
+    private static final TypeReference INCLUDED_META_KEYS_TYPE_REFERENCE;
 
     static {
         SORTING_TYPE_REFERENCE = new TypeReference<Map<String, SortingValues>>() {};
@@ -36,6 +49,7 @@ public class RequestParams {
         PAGINATION_TYPE_REFERENCE = new TypeReference<Map<PaginationKeys, Integer>>() {};
         INCLUDED_FIELDS_TYPE_REFERENCE = new TypeReference<List<String>>() {};
         INCLUDED_RELATIONS_TYPE_REFERENCE = new TypeReference<List<String>>() {};
+        INCLUDED_META_KEYS_TYPE_REFERENCE = new TypeReference<List<String>>() {};
     }
 
     public RequestParams(ObjectMapper objectMapper) {
@@ -89,14 +103,105 @@ public class RequestParams {
         );
     }
 
+    /**
+     * Contains a list of fields which should be returned for every resource type. Sparse fieldsets defined for a
+     * specific type are available by {@link #getIncludedFields(String)}.
+     *
+     * @return list of fields or <i>null</i> if not defined
+     */
     public List<String> getIncludedFields() {
         return includedFields;
     }
 
+    /**
+     * Returns a sparse fieldset of a resource type <a href="http://jsonapi.org/format/#fetching-sparse-fieldsets">Sparse
+     * Fieldsets</a>. A fieldset defined for the type takes precedence over the fields defined for all of the types.
+     *
+     * @param resourceType type of the resource
+     * @return collection of field names or <i>null</i> if all of the fields should be returned
+     */
+    public Collection<String> getIncludedFields(String resourceType) {
+        Set<String> typeFields = typedIncludedFields.get(resourceType);
+        if (typeFields != null) {
+            return typeFields;
+        }
+        return includedFields;
+    }
+
+    /**
+     * Accepts either a list of fields applied to all of the resource types, e.g. <i>["name"]</i>, or an object
+     * with fields defined per type, e.g. <i>{"projects": ["name"]}</i>.
+     */
     void setIncludedFields(String includedFields) throws IOException {
-        this.includedFields = Collections.unmodifiableList(
-                objectMapper.readValue(includedFields, INCLUDED_FIELDS_TYPE_REFERENCE)
-        );
+        JsonNode fieldsNode = objectMapper.readTree(includedFields);
+        if (fieldsNode != null && fieldsNode.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = fieldsNode.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                JsonNode value = field.getValue();
+                if (value.isArray()) {
+                    Set<String> fieldNames = new LinkedHashSet<>();
+                    value.forEach(name -> fieldNames.add(name.asText()));
+                    addTypedIncludedFields(field.getKey(), fieldNames);
+                } else {
+                    setIncludedFields(field.getKey(), value.asText());
+                }
+            }
+        } else {
+            this.includedFields = Collections.unmodifiableList(
+                    objectMapper.readValue(includedFields, INCLUDED_FIELDS_TYPE_REFERENCE)
+            );
+        }
+    }
+
+    /**
+     * Sets a fieldset for a single resource type passed in a form of <i>fields[type]=name,description</i>.
+     */
+    void setIncludedFields(String resourceType, String includedFields) {
+        Set<String> fieldNames = new LinkedHashSet<>();
+        for (String fieldName : includedFields.split(",")) {
+            String trimmedName = fieldName.trim();
+            if (!trimmedName.isEmpty()) {
+                fieldNames.add(trimmedName);
+            }
+        }
+        addTypedIncludedFields(resourceType, fieldNames);
+    }
+
+    private void addTypedIncludedFields(String resourceType, Set<String> fieldNames) {
+        Map<String, Set<String>> newTypedIncludedFields = new HashMap<>(typedIncludedFields);
+        newTypedIncludedFields.put(resourceType, Collections.unmodifiableSet(fieldNames));
+        this.typedIncludedFields = Collections.unmodifiableMap(newTypedIncludedFields);
+    }
+
+    /**
+     * Resolves a projection of a resource type from the sparse fieldsets of the request. The projection is resolved
+     * once per request and resource type, later calls return the same instance. Controllers call it before a
+     * repository is called, so the projection is available by {@link #getProjection(String)}.
+     *
+     * @param resourceType type of the resource
+     * @param resourceInformation information about the resource
+     * @return resolved projection
+     */
+    public Projection resolveProjection(String resourceType, ResourceInformation resourceInformation) {
+        Projection projection = projections.get(resourceType);
+        if (projection == null || projection.getResourceInformation() != resourceInformation) {
+            projection = Projection.of(resourceInformation, getIncludedFields(resourceType));
+            projections.put(resourceType, projection);
+        }
+        return projection;
+    }
+
+    /**
+     * Returns a projection of a resource type which has already been resolved for the request. Katharsis resolves
+     * the projection of the requested resource type before a repository is called, so that repositories can fetch
+     * only the required fields.
+     *
+     * @param resourceType type of the resource
+     * @return resolved projection or <i>null</i> if it hasn't been resolved
+     */
+    public Projection getProjection(String resourceType) {
+        return projections.get(resourceType);
     }
 
     /**
@@ -107,6 +212,36 @@ public class RequestParams {
         return includedRelations;
     }
 
+    /**
+     * Checks if a relationship of the primary data of a resource path is included, that is if it's the first segment
+     * of any of the included relationship paths. Relationships of included resources depend on the position of the
+     * resources in the paths, see {@link io.katharsis.response.Container#isRelationIncluded(String)}.
+     *
+     * @param relationshipName name of the relationship
+     * @return <i>true</i> if the relationship is included in the response
+     */
+    public boolean isRelationIncluded(String relationshipName) {
+        return includedRelationNames.contains(relationshipName);
+    }
+
+    /**
+     * Returns names of the included relationships of the primary data.
+     *
+     * @param skipFirstSegment <i>true</i> if the first segment of each inclusion is the name of the resource itself
+     * @return names of the first relationships of the included relationship paths
+     */
+    public Set<String> getIncludedRelationNames(boolean skipFirstSegment) {
+        return skipFirstSegment ? nestedIncludedRelationNames : includedRelationNames;
+    }
+
+    private static Set<String> collectSegments(List<Inclusion> inclusions, int index) {
+        return Collections.unmodifiableSet(inclusions
+                .stream()
+                .filter(inclusion -> inclusion.getPathList().size() > index)
+                .map(inclusion -> inclusion.getPathList().get(index))
+                .collect(Collectors.toSet()));
+    }
+
     void setIncludedRelations(String includedRelations) throws IOException {
         List<? extends String> list = objectMapper.readValue(includedRelations, INCLUDED_RELATIONS_TYPE_REFERENCE);
         List<Inclusion> inclusions = list
@@ -114,6 +249,82 @@ public class RequestParams {
                 .map(Inclusion::new)
                 .collect(Collectors.toList());
         this.includedRelations = Collections.unmodifiableList(inclusions);
+        this.includedRelationNames = collectSegments(inclusions, 0);
+        this.nestedIncludedRelationNames = collectSegments(inclusions, 1);
+        includeTrees.clear();
+        nestedIncludeTrees.clear();
+    }
+
+    /**
+     * Returns the included relationships of the request compiled for a class of resources. The tree is compiled once
+     * per request and resource class.
+     *
+     * @param resourceClass class of the resources the inclusions start from
+     * @param skipFirstSegment <i>true</i> if the first segment of each inclusion is the name of the resource itself
+     * @param includeTreeBuilder builder used to compile the tree
+     * @return compiled inclusions
+     */
+    public IncludeTree getIncludeTree(Class<?> resourceClass, boolean skipFirstSegment,
+                                      IncludeTreeBuilder includeTreeBuilder) {
+        Map<Class<?>, IncludeTree> trees = skipFirstSegment ? nestedIncludeTrees : includeTrees;
+        IncludeTree includeTree = trees.get(resourceClass);
+        if (includeTree == null) {
+            includeTree = includeTreeBuilder.build(resourceClass, includedRelations, skipFirstSegment);
+            trees.put(resourceClass, includeTree);
+        }
+        return includeTree;
     }
 
+    /**
+     * Links are not a required part of a response, a client which doesn't follow them can ask to omit them to make
+     * the response smaller.
+     *
+     * @return <i>true</i> if links of resources and relationships shouldn't be returned
+     */
+    public boolean isLinksOmitted() {
+        return linksOmitted;
+    }
+
+    void setLinksOmitted(String linksOmitted) {
+        this.linksOmitted = Boolean.parseBoolean(linksOmitted);
+    }
+
+    /**
+     * A compact response leaves out everything a client can do without: <i>null</i> attributes, empty members,
+     * relationships which are neither included nor requested by a sparse fieldset and links, which can be built
+     * from types and ids of the resources.
+     *
+     * @return <i>true</i> if a compact response has been requested
+     */
+    public boolean isCompact() {
+        return compact;
+    }
+
+    void setCompact(boolean compact) {
+        this.compact = compact;
+    }
+
+    /**
+     * @return <i>true</i> if meta information of the response shouldn't be computed and returned
+     */
+    public boolean isMetaOmitted() {
+        return metaOmitted;
+    }
+
+    void setMetaOmitted(String metaOmitted) {
+        this.metaOmitted = Boolean.parseBoolean(metaOmitted);
+    }
+
+    /**
+     * @return keys of expensive meta information requested by the client, see
+     * {@link io.katharsis.repository.MetaRepository#getExpensiveMetaKeys()}
+     */
+    public Set<String> getIncludedMetaKeys() {
+        return includedMetaKeys;
+    }
+
+    void setIncludedMetaKeys(String includedMetaKeys) throws IOException {
+        List<? extends String> list = objectMapper.readValue(includedMetaKeys, INCLUDED_META_KEYS_TYPE_REFERENCE);
+        this.includedMetaKeys = Collections.unmodifiableSet(new HashSet<>(list));
+    }
 }
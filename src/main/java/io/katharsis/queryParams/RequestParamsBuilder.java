@@ -13,6 +13,27 @@ import java.util.Map;
  */
 public class RequestParamsBuilder {
 
+    /**
+     * Name of a query param which omits links from a response if its value is <i>true</i>. As required for
+     * implementation specific query params, the name is not made only of lowercase letters.
+     */
+    public static final String OMIT_LINKS_KEY = "omitLinks";
+
+    /**
+     * Name of a query param which omits meta information from a response if its value is <i>true</i>.
+     */
+    public static final String OMIT_META_KEY = "omitMeta";
+
+    /**
+     * Name of a query param listing expensive meta information keys to compute, e.g. <i>["totalCount"]</i>.
+     */
+    public static final String INCLUDE_META_KEY = "includeMeta";
+
+    /**
+     * Profile of JSON API media type requesting a compact response, see {@link RequestParams#isCompact()}.
+     */
+    public static final String COMPACT_PROFILE = "urn:katharsis:profile:compact";
+
     private final ObjectMapper objectMapper;
 
     public RequestParamsBuilder(ObjectMapper objectMapper) {
@@ -27,7 +48,21 @@ public class RequestParamsBuilder {
      * @throws ParametersDeserializationException thrown when unsupported input format is detected
      */
     public RequestParams buildRequestParams(Map<String, String> queryParams) {
+        return buildRequestParams(queryParams, null);
+    }
+
+    /**
+     * Filters and groups query params and reads the output options negotiated by the <i>Accept</i> header of the
+     * request.
+     *
+     * @param queryParams Map of provided query params
+     * @param accept      value of the <i>Accept</i> header of the request, can be <i>null</i>
+     * @return RequestParams containing filtered query params grouped by JSON:API standard
+     * @throws ParametersDeserializationException thrown when unsupported input format is detected
+     */
+    public RequestParams buildRequestParams(Map<String, String> queryParams, String accept) {
         RequestParams requestParams = new RequestParams(objectMapper);
+        requestParams.setCompact(isCompactProfileAccepted(accept));
 
         try {
             String filterKey = RestrictedQueryParamsMembers.filter.name();
@@ -55,14 +90,69 @@ public class RequestParamsBuilder {
                 requestParams.setIncludedFields(queryParams.get(fieldsKey));
             }
 
+            for (Map.Entry<String, String> queryParam : queryParams.entrySet()) {
+                String resourceType = getTypedFieldsResourceType(fieldsKey, queryParam.getKey());
+                if (resourceType != null) {
+                    requestParams.setIncludedFields(resourceType, queryParam.getValue());
+                }
+            }
+
             String includeKey = RestrictedQueryParamsMembers.include.name();
             if (queryParams.containsKey(includeKey)) {
                 requestParams.setIncludedRelations(queryParams.get(includeKey));
             }
+
+            if (queryParams.containsKey(OMIT_LINKS_KEY)) {
+                requestParams.setLinksOmitted(queryParams.get(OMIT_LINKS_KEY));
+            }
+
+            if (queryParams.containsKey(OMIT_META_KEY)) {
+                requestParams.setMetaOmitted(queryParams.get(OMIT_META_KEY));
+            }
+
+            if (queryParams.containsKey(INCLUDE_META_KEY)) {
+                requestParams.setIncludedMetaKeys(queryParams.get(INCLUDE_META_KEY));
+            }
         } catch (IOException e) {
             throw new ParametersDeserializationException(e.getMessage());
         }
 
         return requestParams;
     }
+
+    /**
+     * Searches media ranges of the header for a <i>profile</i> parameter listing {@link #COMPACT_PROFILE}, e.g.
+     * <i>application/vnd.api+json; profile="urn:katharsis:profile:compact"</i>.
+     */
+    private static boolean isCompactProfileAccepted(String accept) {
+        if (accept == null || !accept.contains(COMPACT_PROFILE)) {
+            return false;
+        }
+        for (String mediaRange : accept.split(",")) {
+            String[] parameters = mediaRange.split(";");
+            for (int i = 1; i < parameters.length; i++) {
+                String[] parameter = parameters[i].split("=", 2);
+                if (parameter.length == 2 && "profile".equalsIgnoreCase(parameter[0].trim())) {
+                    String profiles = parameter[1].trim().replace("\"", "");
+                    for (String profile : profiles.split(" ")) {
+                        if (COMPACT_PROFILE.equals(profile)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extracts a type from a key of a sparse fieldset defined for a resource type e.g. <i>fields[projects]</i>.
+     */
+    private static String getTypedFieldsResourceType(String fieldsKey, String key) {
+        if (key.length() > fieldsKey.length() + 2 && key.startsWith(fieldsKey) &&
+            key.charAt(fieldsKey.length()) == '[' && key.charAt(key.length() - 1) == ']') {
+            return key.substring(fieldsKey.length() + 1, key.length() - 1);
+        }
+        return null;
+    }
 }
@@ -0,0 +1,124 @@
+package io.katharsis.queryParams.include;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limits of resources included in a single response. The limits are checked while relationships are traversed, so
+ * a request can't load more resources than allowed. By default all of the limits are disabled.
+ * <p>
+ * Limits can be overridden for responses with primary data of a resource type using
+ * {@link #setResourceLimits(String, IncludeLimits)}.
+ * </p>
+ */
+public class IncludeLimits {
+
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    /**
+     * Action taken when a limit is reached.
+     */
+    public enum ExceedAction {
+        /**
+         * Stop including resources and mark the response with the {@link #TRUNCATED_META_FIELD_NAME} meta field.
+         */
+        TRUNCATE,
+        /**
+         * Fail serialization with {@link io.katharsis.jackson.exception.IncludeLimitExceededException}.
+         */
+        FAIL
+    }
+
+    /**
+     * Name of the top-level meta field set to <i>true</i> when included resources have been truncated.
+     */
+    public static final String TRUNCATED_META_FIELD_NAME = "includedTruncated";
+
+    private int maxDepth = UNLIMITED;
+    private int maxPerRelationship = UNLIMITED;
+    private int maxIncluded = UNLIMITED;
+    private ExceedAction exceedAction = ExceedAction.TRUNCATE;
+    private final Map<String, IncludeLimits> resourceLimits = new HashMap<>();
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * @param maxDepth maximum number of segments of an inclusion path
+     * @return this instance
+     */
+    public IncludeLimits setMaxDepth(int maxDepth) {
+        this.maxDepth = checkLimit(maxDepth);
+        return this;
+    }
+
+    public int getMaxPerRelationship() {
+        return maxPerRelationship;
+    }
+
+    /**
+     * @param maxPerRelationship maximum number of resources included from a single relationship of a resource
+     * @return this instance
+     */
+    public IncludeLimits setMaxPerRelationship(int maxPerRelationship) {
+        this.maxPerRelationship = checkLimit(maxPerRelationship);
+        return this;
+    }
+
+    public int getMaxIncluded() {
+        return maxIncluded;
+    }
+
+    /**
+     * @param maxIncluded maximum number of resources included in a response
+     * @return this instance
+     */
+    public IncludeLimits setMaxIncluded(int maxIncluded) {
+        this.maxIncluded = checkLimit(maxIncluded);
+        return this;
+    }
+
+    public ExceedAction getExceedAction() {
+        return exceedAction;
+    }
+
+    public IncludeLimits setExceedAction(ExceedAction exceedAction) {
+        if (exceedAction == null) {
+            throw new IllegalArgumentException("exceedAction cannot be null");
+        }
+        this.exceedAction = exceedAction;
+        return this;
+    }
+
+    /**
+     * Override the limits for responses with primary data of a resource type.
+     *
+     * @param resourceType type of the primary data
+     * @param limits limits used instead of this instance
+     * @return this instance
+     */
+    public IncludeLimits setResourceLimits(String resourceType, IncludeLimits limits) {
+        resourceLimits.put(resourceType, limits);
+        return this;
+    }
+
+    /**
+     * @param resourceType type of the primary data
+     * @return limits of the resource type or this instance if the type has no own limits
+     */
+    public IncludeLimits getResourceLimits(String resourceType) {
+        return resourceLimits.getOrDefault(resourceType, this);
+    }
+
+    public boolean hasResourceLimits() {
+        return !resourceLimits.isEmpty();
+    }
+
+    private static int checkLimit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit cannot be negative");
+        }
+        return limit;
+    }
+}
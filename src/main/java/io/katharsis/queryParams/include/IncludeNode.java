@@ -0,0 +1,85 @@
+package io.katharsis.queryParams.include;
+
+import io.katharsis.resource.field.ResourceField;
+import io.katharsis.utils.PropertyAccessor;
+import io.katharsis.utils.PropertyUtils;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A single segment of a compiled {@link IncludeTree}. Inclusions sharing a prefix, e.g. <i>comments.author</i> and
+ * <i>comments.post</i>, share the node of the prefix.
+ */
+public final class IncludeNode {
+
+    private final String name;
+    private final ResourceField resourceField;
+    private final PropertyAccessor accessor;
+    private final boolean included;
+    private final List<IncludeNode> children;
+    private final Set<String> childNames;
+
+    IncludeNode(String name, ResourceField resourceField, PropertyAccessor accessor, boolean included,
+                List<IncludeNode> children) {
+        this.name = name;
+        this.resourceField = resourceField;
+        this.accessor = accessor;
+        this.included = included;
+        this.children = children;
+        Set<String> names = new HashSet<>();
+        for (IncludeNode child : children) {
+            names.add(child.name);
+        }
+        this.childNames = Collections.unmodifiableSet(names);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return relationship field of this segment or <i>null</i> if the owning class is not a registered resource
+     */
+    public ResourceField getResourceField() {
+        return resourceField;
+    }
+
+    /**
+     * @return <i>true</i> if an inclusion ends at this segment, so values of this node are included resources
+     */
+    public boolean isIncluded() {
+        return included;
+    }
+
+    public List<IncludeNode> getChildren() {
+        return children;
+    }
+
+    /**
+     * @return names of the children, that is the included relationships of the values of this node
+     */
+    public Set<String> getChildNames() {
+        return childNames;
+    }
+
+    /**
+     * Read the value of this segment from a resource. If the owning class is not a registered resource, the property
+     * is resolved against the class of the passed resource.
+     *
+     * @param resource resource owning this segment
+     * @return value of the relationship or <i>null</i> if it is not set or not present in the resource
+     */
+    public Object getValue(Object resource) {
+        PropertyAccessor propertyAccessor = accessor;
+        if (propertyAccessor == null) {
+            propertyAccessor = PropertyUtils.findPropertyAccessor(resource.getClass(), name);
+            if (propertyAccessor == null) {
+                return null;
+            }
+        }
+        return propertyAccessor.getValue(resource);
+    }
+}
@@ -0,0 +1,27 @@
+package io.katharsis.queryParams.include;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Inclusions of a request compiled for a root resource class by {@link IncludeTreeBuilder}. Paths which don't match
+ * relationships of the resources are not part of the tree.
+ */
+public final class IncludeTree {
+
+    public static final IncludeTree EMPTY = new IncludeTree(Collections.emptyList());
+
+    private final List<IncludeNode> roots;
+
+    IncludeTree(List<IncludeNode> roots) {
+        this.roots = roots;
+    }
+
+    public List<IncludeNode> getRoots() {
+        return roots;
+    }
+
+    public boolean isEmpty() {
+        return roots.isEmpty();
+    }
+}
@@ -0,0 +1,168 @@
+package io.katharsis.queryParams.include;
+
+import io.katharsis.resource.field.ResourceField;
+import io.katharsis.resource.registry.RegistryEntry;
+import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.utils.Generics;
+import io.katharsis.utils.PropertyAccessor;
+import io.katharsis.utils.PropertyUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Compiles inclusions passed in a request into an {@link IncludeTree}. Segments owned by registered resources are
+ * validated against their relationship fields and resolved once, so a tree can be traversed for each resource of a
+ * response without further lookups. Compiled trees are cached for each root class and inclusion set until the
+ * registry changes.
+ */
+public class IncludeTreeBuilder {
+
+    /**
+     * Inclusions come from requests, so the number of cached trees is limited.
+     */
+    private static final int MAX_CACHED_TREES = 1024;
+
+    private final Logger logger = LoggerFactory.getLogger(IncludeTreeBuilder.class);
+
+    private final ResourceRegistry resourceRegistry;
+    private final ConcurrentMap<TreeKey, IncludeTree> trees = new ConcurrentHashMap<>();
+    private volatile long registryVersion;
+
+    /**
+     * @param resourceRegistry registry used to validate the segments, can be <i>null</i> to resolve all segments
+     *                         against classes of the traversed resources
+     */
+    public IncludeTreeBuilder(ResourceRegistry resourceRegistry) {
+        this.resourceRegistry = resourceRegistry;
+        this.registryVersion = getRegistryVersion();
+    }
+
+    /**
+     * Build a tree of inclusions for resources of a class.
+     *
+     * @param rootClass         class of the resources the inclusions start from
+     * @param inclusions        inclusions passed in a request
+     * @param skipFirstSegment  <i>true</i> if the first segment of each path is the name of the root resource itself
+     * @return compiled tree
+     */
+    public IncludeTree build(Class<?> rootClass, List<Inclusion> inclusions, boolean skipFirstSegment) {
+        if (inclusions == null || inclusions.isEmpty()) {
+            return IncludeTree.EMPTY;
+        }
+        long version = getRegistryVersion();
+        if (version != registryVersion) {
+            registryVersion = version;
+            trees.clear();
+        }
+        TreeKey key = new TreeKey(rootClass, inclusions, skipFirstSegment);
+        IncludeTree tree = trees.get(key);
+        if (tree == null) {
+            tree = compile(rootClass, inclusions, skipFirstSegment);
+            if (trees.size() < MAX_CACHED_TREES && version == getRegistryVersion()) {
+                trees.putIfAbsent(key.copy(), tree);
+            }
+        }
+        return tree;
+    }
+
+    private IncludeTree compile(Class<?> rootClass, List<Inclusion> inclusions, boolean skipFirstSegment) {
+        DraftNode root = new DraftNode();
+        for (Inclusion inclusion : inclusions) {
+            List<String> pathList = inclusion.getPathList();
+            if (skipFirstSegment) {
+                pathList = pathList.subList(1, pathList.size());
+            }
+            if (pathList.isEmpty()) {
+                continue;
+            }
+            DraftNode node = root;
+            for (String segment : pathList) {
+                node = node.children.computeIfAbsent(segment, s -> new DraftNode());
+            }
+            node.included = true;
+        }
+        List<IncludeNode> roots = resolve(rootClass, root);
+        return roots.isEmpty() ? IncludeTree.EMPTY : new IncludeTree(roots);
+    }
+
+    private List<IncludeNode> resolve(Class<?> ownerClass, DraftNode draft) {
+        if (draft.children.isEmpty()) {
+            return Collections.emptyList();
+        }
+        RegistryEntry registryEntry = findEntry(ownerClass);
+        List<IncludeNode> nodes = new ArrayList<>(draft.children.size());
+        for (Map.Entry<String, DraftNode> child : draft.children.entrySet()) {
+            String name = child.getKey();
+            if (registryEntry == null) {
+                nodes.add(new IncludeNode(name, null, null, child.getValue().included,
+                    resolve(null, child.getValue())));
+                continue;
+            }
+            ResourceField relationshipField = registryEntry.getResourceInformation().findRelationshipFieldByName(name);
+            PropertyAccessor accessor = relationshipField != null ?
+                PropertyUtils.findPropertyAccessor(ownerClass, relationshipField.getName()) : null;
+            if (accessor == null) {
+                logger.debug("Skipping inclusion of {}, it is not a relationship of {}", name, ownerClass.getName());
+                continue;
+            }
+            Class<?> targetClass = Generics.getResourceClass(relationshipField.getGenericType(),
+                relationshipField.getType());
+            nodes.add(new IncludeNode(name, relationshipField, accessor, child.getValue().included,
+                resolve(targetClass, child.getValue())));
+        }
+        return Collections.unmodifiableList(nodes);
+    }
+
+    private long getRegistryVersion() {
+        return resourceRegistry != null ? resourceRegistry.getVersion() : 0;
+    }
+
+    private RegistryEntry findEntry(Class<?> ownerClass) {
+        if (resourceRegistry == null || ownerClass == null) {
+            return null;
+        }
+        return resourceRegistry.findEntry(ownerClass);
+    }
+
+    private static class DraftNode {
+        private final Map<String, DraftNode> children = new LinkedHashMap<>();
+        private boolean included;
+    }
+
+    private static class TreeKey {
+        private final Class<?> rootClass;
+        private final List<Inclusion> inclusions;
+        private final boolean skipFirstSegment;
+        private final int hashCode;
+
+        private TreeKey(Class<?> rootClass, List<Inclusion> inclusions, boolean skipFirstSegment) {
+            this.rootClass = rootClass;
+            this.inclusions = inclusions;
+            this.skipFirstSegment = skipFirstSegment;
+            this.hashCode = Objects.hash(rootClass, inclusions, skipFirstSegment);
+        }
+
+        private TreeKey copy() {
+            return new TreeKey(rootClass, new ArrayList<>(inclusions), skipFirstSegment);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            TreeKey treeKey = (TreeKey) o;
+            return skipFirstSegment == treeKey.skipFirstSegment &&
+                rootClass.equals(treeKey.rootClass) &&
+                inclusions.equals(treeKey.inclusions);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package io.katharsis.queryParams.include;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -10,12 +11,14 @@ import java.util.List;
 public class Inclusion {
 
     private String path;
+    private final List<String> pathList;
 
     public Inclusion(@SuppressWarnings("SameParameterValue") String path) {
         if (path == null) {
             throw new IllegalArgumentException("path cannot be null");
         }
         this.path = path;
+        this.pathList = Collections.unmodifiableList(Arrays.asList(path.split("\\.")));
     }
 
     public String getPath() {
@@ -23,7 +26,7 @@ public class Inclusion {
     }
 
     public List<String> getPathList() {
-        return Arrays.asList(path.split("\\."));
+        return pathList;
     }
 
     @Override
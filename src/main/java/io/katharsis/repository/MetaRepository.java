@@ -2,6 +2,9 @@ package io.katharsis.repository;
 
 import io.katharsis.response.MetaInformation;
 
+import java.util.Collections;
+import java.util.Set;
+
 /**
  * An optional interface that can be implemented along with {@link ResourceRepository} or {@link
  * RelationshipRepository} to get meta information about returned resource(s).
@@ -15,4 +18,27 @@ public interface MetaRepository<T> {
      * @return meta information object
      */
     MetaInformation getMetaInformation(Iterable<T> resources);
+
+    /**
+     * Declares keys of meta information which are expensive to compute. Meta information is computed only when it's
+     * written, but the expensive keys are computed only if a client asks for them by
+     * {@link io.katharsis.queryParams.RequestParamsBuilder#INCLUDE_META_KEY} query param.
+     *
+     * @return keys of the expensive meta information
+     */
+    default Set<String> getExpensiveMetaKeys() {
+        return Collections.emptySet();
+    }
+
+    /**
+     * Return meta information about a resource with the requested expensive keys. The default implementation
+     * ignores the keys.
+     *
+     * @param resources     a list of found resource(s)
+     * @param expensiveKeys keys declared by {@link #getExpensiveMetaKeys()} which have been requested
+     * @return meta information object
+     */
+    default MetaInformation getMetaInformation(Iterable<T> resources, Set<String> expensiveKeys) {
+        return getMetaInformation(resources);
+    }
 }
@@ -0,0 +1,40 @@
+package io.katharsis.repository;
+
+import io.katharsis.queryParams.RequestParams;
+
+import java.io.Serializable;
+
+/**
+ * An optional interface that can be implemented along with {@link RelationshipRepository} to find identifiers of
+ * relationship targets without fetching the targets. It is used to serve relationship requests, e.g.
+ * <i>/tasks/1/relationships/project</i>, which return only types and identifiers of the targets.
+ * <p>
+ * Targets passed to {@link MetaRepository} of a response built from identifiers are fetched only when the meta
+ * information is written and the repository reads them.
+ * </p>
+ *
+ * @param <T_ID> source class id type
+ * @param <D_ID> target class id type
+ */
+public interface RelationshipIdRepository<T_ID extends Serializable, D_ID extends Serializable> {
+
+    /**
+     * Find an identifier of a relation's target. It is used only for To-One relationship.
+     *
+     * @param sourceId an identifier of a source
+     * @param fieldName name of target's filed
+     * @param requestParams parameters sent along with the request
+     * @return an identifier of a target of a relation or <i>null</i> if there's no target
+     */
+    D_ID findOneTargetId(T_ID sourceId, String fieldName, RequestParams requestParams);
+
+    /**
+     * Find identifiers of a relation's targets. It is used only for To-Many relationship.
+     *
+     * @param sourceId an identifier of a source
+     * @param fieldName name of target's filed
+     * @param requestParams parameters sent along with the request
+     * @return identifiers of targets of a relation
+     */
+    Iterable<D_ID> findManyTargetIds(T_ID sourceId, String fieldName, RequestParams requestParams);
+}
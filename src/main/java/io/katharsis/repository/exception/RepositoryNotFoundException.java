@@ -7,6 +7,6 @@ import io.katharsis.errorhandling.exception.KatharsisMatchingException;
  */
 public final class RepositoryNotFoundException extends KatharsisMatchingException {
     public RepositoryNotFoundException(Class clazz) {
-        super("Repository for a resource not found: " + clazz.getCanonicalName());
+        super("Repository for a resource not found: " + clazz.getCanonicalName(), isRoutineStackTraceCaptured());
     }
 }
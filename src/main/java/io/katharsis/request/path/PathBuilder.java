@@ -30,8 +30,28 @@ public class PathBuilder {
      * @return doubly-linked list which represents path given at the input
      */
     public JsonPath buildPath(String path) {
+        return buildPath(path, true);
+    }
+
+    /**
+     * Parses path provided by the application as {@link #buildPath(String)} does, but doesn't throw an exception if
+     * the path doesn't point to a registered resource or field. Useful for integrations which pass requests to other
+     * handlers if they are not JSON API requests.
+     *
+     * @param path Path to be parsed
+     * @return doubly-linked list which represents path given at the input, empty if the path points to an unknown
+     * resource or field
+     */
+    public Optional<JsonPath> findPath(String path) {
+        return Optional.ofNullable(buildPath(path, false));
+    }
+
+    private JsonPath buildPath(String path, boolean failOnMissing) {
         String[] strings = splitPath(path);
         if (strings.length == 0 || (strings.length == 1 && "".equals(strings[0]))) {
+            if (!failOnMissing) {
+                return null;
+            }
             throw new ResourceException("Path is empty");
         }
 
@@ -62,11 +82,20 @@ public class PathBuilder {
             RegistryEntry entry = resourceRegistry.getEntry(elementName);
             if (previousJsonPath != null) {
                 currentJsonPath = getNonResourcePath(previousJsonPath, elementName, relationshipMark);
+                if (currentJsonPath == null) {
+                    if (!failOnMissing) {
+                        return null;
+                    }
+                    //TODO: Throw different exception? element name can be null..
+                    throw new ResourceFieldNotFoundException(elementName);
+                }
                 if (pathIds != null) {
                     throw new ResourceException("RelationshipsPath and FieldPath cannot contain ids");
                 }
             } else if (entry != null && !relationshipMark) {
                 currentJsonPath = new ResourcePath(elementName);
+            } else if (!failOnMissing) {
+                return null;
             } else {
                 throw new ResourceNotFoundException(path);
             }
@@ -87,18 +116,14 @@ public class PathBuilder {
     private JsonPath getNonResourcePath(JsonPath previousJsonPath, String elementName, boolean relationshipMark) {
         String previousElementName = previousJsonPath.getElementName();
         RegistryEntry previousEntry = resourceRegistry.getEntry(previousElementName);
-        Set<ResourceField> resourceFields = previousEntry.getResourceInformation().getRelationshipFields();
-        for (ResourceField field : resourceFields) {
-            if (field.getName().equals(elementName)) {
-                if (relationshipMark) {
-                    return new RelationshipsPath(elementName);
-                } else {
-                    return new FieldPath(elementName);
-                }
-            }
+        ResourceField field = previousEntry.getResourceInformation().findRelationshipFieldByName(elementName);
+        if (field == null) {
+            return null;
+        } else if (relationshipMark) {
+            return new RelationshipsPath(elementName);
+        } else {
+            return new FieldPath(elementName);
         }
-        //TODO: Throw different exception? element name can be null..
-        throw new ResourceFieldNotFoundException(elementName);
     }
 
     private PathIds createPathIds(String idsString) {
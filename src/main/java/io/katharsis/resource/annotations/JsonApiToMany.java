@@ -9,4 +9,12 @@ import java.lang.annotation.*;
 @Retention(RetentionPolicy.RUNTIME)
 @Target({ElementType.FIELD, ElementType.METHOD})
 public @interface JsonApiToMany {
+
+    /**
+     * Defines when linkage of the relationship is serialized. Use {@link LinkagePolicy#LINKS_ONLY} or
+     * {@link LinkagePolicy#WHEN_LOADED} for lazily loaded relationships, so the serialization doesn't load them.
+     *
+     * @return linkage policy of the relationship
+     */
+    LinkagePolicy linkage() default LinkagePolicy.ALWAYS;
 }
@@ -0,0 +1,17 @@
+package io.katharsis.resource.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * Defines an attribute holding a version of a resource, which must change whenever the resource or its relationships
+ * change. The attribute is serialized as any other attribute.
+ * <p>
+ * Only resources with a version can be written from {@link io.katharsis.jackson.FragmentCache}, a cached fragment
+ * of a resource is used only if the version of the resource hasn't changed.
+ * </p>
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface JsonApiVersion {
+}
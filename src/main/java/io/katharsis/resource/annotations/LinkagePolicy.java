@@ -0,0 +1,24 @@
+package io.katharsis.resource.annotations;
+
+/**
+ * Defines when resource linkage, that is <i>data</i> member of a relationship, is serialized. Linkage of a
+ * relationship which is included in a response is always serialized.
+ *
+ * @see JsonApiToOne#linkage()
+ * @see JsonApiToMany#linkage()
+ */
+public enum LinkagePolicy {
+    /**
+     * Only links of the relationship are serialized. The relationship is not read unless it is included.
+     */
+    LINKS_ONLY,
+    /**
+     * Linkage is serialized if the relationship has already been loaded according to
+     * {@link io.katharsis.resource.field.LoadStateProbe}.
+     */
+    WHEN_LOADED,
+    /**
+     * Linkage is always serialized.
+     */
+    ALWAYS
+}
@@ -15,6 +15,6 @@ public class RequestBodyException extends KatharsisMappableException {
                 .setTitle(TITLE)
                 .setDetail(String.format("Request body doesn't meet the requirements (%s), %s method, resource name %s",
                         details, method.name(), resourceName))
-                .build());
+                .build(), isRoutineStackTraceCaptured());
     }
 }
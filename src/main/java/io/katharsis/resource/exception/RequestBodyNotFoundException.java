@@ -14,7 +14,7 @@ public class RequestBodyNotFoundException extends KatharsisMappableException {
             .setStatus(String.valueOf(HttpStatus.BAD_REQUEST_400))
             .setTitle(TITLE)
             .setDetail("Request body not found, " + method.name() + " method, resource name " + resourceName)
-        .build());
+        .build(), isRoutineStackTraceCaptured());
     }
 
 }
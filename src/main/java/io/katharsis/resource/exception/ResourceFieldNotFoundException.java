@@ -8,6 +8,6 @@ import io.katharsis.errorhandling.exception.KatharsisMatchingException;
 public final class ResourceFieldNotFoundException extends KatharsisMatchingException {
 
     public ResourceFieldNotFoundException(String message) {
-        super(message);
+        super(message, isRoutineStackTraceCaptured());
     }
 }
@@ -8,6 +8,6 @@ import io.katharsis.errorhandling.exception.KatharsisMatchingException;
 public final class ResourceNotFoundException extends KatharsisMatchingException {
 
     public ResourceNotFoundException(String path) {
-        super(path);
+        super(path, isRoutineStackTraceCaptured());
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package io.katharsis.resource.exception.init;
+
+import io.katharsis.errorhandling.exception.KatharsisInitializationException;
+
+/**
+ * Thrown when a relationship of a registered resource is used, but it couldn't be resolved when the resource was
+ * registered. The failure of the resolution is the cause.
+ */
+public class InvalidRelationshipException extends KatharsisInitializationException {
+
+    public InvalidRelationshipException(Class resourceClass, String relationshipName, Throwable cause) {
+        super(String.format("Relationship %s of resource %s cannot be resolved", relationshipName,
+            resourceClass.getCanonicalName()), cause);
+    }
+}
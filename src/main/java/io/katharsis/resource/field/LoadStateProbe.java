@@ -0,0 +1,22 @@
+package io.katharsis.resource.field;
+
+/**
+ * Checks if a relationship of a resource has been loaded without loading it. An implementation can delegate to a
+ * persistence provider, e.g. <i>javax.persistence.PersistenceUtil#isLoaded(Object, String)</i>.
+ *
+ * @see io.katharsis.resource.annotations.LinkagePolicy#WHEN_LOADED
+ */
+public interface LoadStateProbe {
+
+    /**
+     * Probe which considers every relationship loaded.
+     */
+    LoadStateProbe ALWAYS_LOADED = (resource, relationshipField) -> true;
+
+    /**
+     * @param resource resource owning the relationship
+     * @param relationshipField relationship field
+     * @return <i>true</i> if the value of the relationship can be read without loading it
+     */
+    boolean isLoaded(Object resource, ResourceField relationshipField);
+}
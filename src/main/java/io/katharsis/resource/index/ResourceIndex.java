@@ -0,0 +1,162 @@
+package io.katharsis.resource.index;
+
+import io.katharsis.resource.exception.init.InvalidResourceException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * An index of resources, repositories and exception mappers generated at compile time by
+ * {@link ResourceIndexProcessor}. Registry builders use the index instead of scanning the classpath, if the index
+ * covers the searched packages.
+ * <p>
+ * Each line of the index file consists of an entry kind and a binary class or package name separated by a colon.
+ * The index covers only packages at or below its <i>root</i> entries, see {@link ResourceIndexProcessor}.
+ * </p>
+ */
+public class ResourceIndex {
+
+    public static final String INDEX_LOCATION = "META-INF/katharsis/resource-index";
+
+    static final String ROOT = "root";
+    static final String PACKAGE = "package";
+    static final String RESOURCE = "resource";
+    static final String RESOURCE_REPOSITORY = "resourceRepository";
+    static final String RELATIONSHIP_REPOSITORY = "relationshipRepository";
+    static final String EXCEPTION_MAPPER = "exceptionMapper";
+
+    private final ClassLoader classLoader;
+    private final Map<String, Set<String>> entries;
+
+    ResourceIndex(ClassLoader classLoader, Map<String, Set<String>> entries) {
+        this.classLoader = classLoader;
+        this.entries = entries;
+    }
+
+    /**
+     * Loads all of the index files available to the context class loader.
+     *
+     * @return index or <i>null</i> if there is no index on the classpath
+     */
+    public static ResourceIndex load() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (classLoader == null) {
+            classLoader = ResourceIndex.class.getClassLoader();
+        }
+        return load(classLoader);
+    }
+
+    public static ResourceIndex load(ClassLoader classLoader) {
+        Map<String, Set<String>> entries = new HashMap<>();
+        try {
+            Enumeration<URL> indexUrls = classLoader.getResources(INDEX_LOCATION);
+            if (!indexUrls.hasMoreElements()) {
+                return null;
+            }
+            while (indexUrls.hasMoreElements()) {
+                readEntries(indexUrls.nextElement(), entries);
+            }
+        } catch (IOException e) {
+            throw new InvalidResourceException("Cannot read " + INDEX_LOCATION + ": " + e.getMessage());
+        }
+        return new ResourceIndex(classLoader, entries);
+    }
+
+    static void readEntries(URL indexUrl, Map<String, Set<String>> entries) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+            new InputStreamReader(indexUrl.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf(':');
+                if (separator > 0) {
+                    entries.computeIfAbsent(line.substring(0, separator), kind -> new TreeSet<>())
+                        .add(line.substring(separator + 1).trim());
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if the index has been generated for all classes of the packages, that is if each of the packages is at
+     * or below a root of the index. A package which only contains indexed subpackages is not covered, because other
+     * classes of the package can come from another compilation. Classes of a package which is not covered have to be
+     * found by scanning the classpath.
+     *
+     * @param packageNames comma separated package names
+     * @return <i>true</i> if each of the packages is covered by the index
+     */
+    public boolean covers(String packageNames) {
+        if (packageNames == null) {
+            return false;
+        }
+        Set<String> roots = entries.getOrDefault(ROOT, Collections.emptySet());
+        for (String packageName : splitPackageNames(packageNames)) {
+            if (roots.stream().noneMatch(root -> isInPackage(packageName, root))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public Set<Class<?>> getResources(String packageNames) {
+        return getClasses(RESOURCE, packageNames);
+    }
+
+    public Set<Class<?>> getResourceRepositories(String packageNames) {
+        return getClasses(RESOURCE_REPOSITORY, packageNames);
+    }
+
+    public Set<Class<?>> getRelationshipRepositories(String packageNames) {
+        return getClasses(RELATIONSHIP_REPOSITORY, packageNames);
+    }
+
+    public Set<Class<?>> getExceptionMappers(String packageNames) {
+        return getClasses(EXCEPTION_MAPPER, packageNames);
+    }
+
+    private Set<Class<?>> getClasses(String kind, String packageNames) {
+        List<String> packages = splitPackageNames(packageNames);
+        Set<Class<?>> classes = new HashSet<>();
+        for (String className : entries.getOrDefault(kind, Collections.emptySet())) {
+            for (String packageName : packages) {
+                if (isInPackage(className, packageName)) {
+                    classes.add(loadClass(className));
+                    break;
+                }
+            }
+        }
+        return classes;
+    }
+
+    private static List<String> splitPackageNames(String packageNames) {
+        List<String> result = new ArrayList<>();
+        for (String packageName : packageNames.split(",")) {
+            String trimmedName = packageName.trim();
+            if (!trimmedName.isEmpty()) {
+                result.add(trimmedName);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param name        name of a package or a class
+     * @param packageName name of a package
+     * @return <i>true</i> if the name is the package itself or a member of the package or of its subpackages
+     */
+    private static boolean isInPackage(String name, String packageName) {
+        return name.equals(packageName) || name.startsWith(packageName + ".");
+    }
+
+    private Class<?> loadClass(String className) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new InvalidResourceException(className + " listed in " + INDEX_LOCATION + " cannot be loaded");
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package io.katharsis.resource.index;
+
+import io.katharsis.errorhandling.mapper.ExceptionMapperProvider;
+import io.katharsis.repository.RelationshipRepository;
+import io.katharsis.repository.ResourceRepository;
+import io.katharsis.resource.annotations.JsonApiResource;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.io.OutputStreamWriter;
+import java.util.*;
+
+/**
+ * Annotation processor generating {@link ResourceIndex} of the compiled classes. The processor is registered as a
+ * service, so it runs when katharsis-core is on the compile classpath.
+ * <p>
+ * The index covers only the packages declared by the {@value #ROOTS_OPTION} option, e.g.
+ * <i>-Akatharsis.index.roots=com.example.api</i>, together with their subpackages. The option states that no other
+ * compilation adds classes to these packages, so the index lists all of their resources. Without the option the
+ * index covers no package and the classpath is scanned.
+ * </p>
+ * <p>
+ * Entries of a previously generated index are kept if their classes still exist, so incremental compilation of a
+ * subset of the sources doesn't drop classes from the index.
+ * </p>
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions(ResourceIndexProcessor.ROOTS_OPTION)
+public class ResourceIndexProcessor extends AbstractProcessor {
+
+    public static final String ROOTS_OPTION = "katharsis.index.roots";
+
+    private final Map<String, Set<String>> entries = new TreeMap<>();
+    private final Set<String> processedClasses = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            if (!processedClasses.isEmpty()) {
+                addRoots();
+                writeIndex();
+            }
+        } else {
+            for (Element element : roundEnv.getRootElements()) {
+                if (element instanceof TypeElement) {
+                    indexType((TypeElement) element);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void indexType(TypeElement typeElement) {
+        Elements elements = processingEnv.getElementUtils();
+        String className = elements.getBinaryName(typeElement).toString();
+        processedClasses.add(className);
+        addEntry(ResourceIndex.PACKAGE, elements.getPackageOf(typeElement).getQualifiedName().toString());
+
+        if (isResource(typeElement)) {
+            addEntry(ResourceIndex.RESOURCE, className);
+        }
+        if (isSubtype(typeElement, ResourceRepository.class)) {
+            addEntry(ResourceIndex.RESOURCE_REPOSITORY, className);
+        }
+        if (isSubtype(typeElement, RelationshipRepository.class)) {
+            addEntry(ResourceIndex.RELATIONSHIP_REPOSITORY, className);
+        }
+        if (isAnnotated(typeElement, ExceptionMapperProvider.class)) {
+            addEntry(ResourceIndex.EXCEPTION_MAPPER, className);
+        }
+
+        for (Element enclosedElement : typeElement.getEnclosedElements()) {
+            if (enclosedElement instanceof TypeElement) {
+                indexType((TypeElement) enclosedElement);
+            }
+        }
+    }
+
+    private void addRoots() {
+        String roots = processingEnv.getOptions().get(ROOTS_OPTION);
+        if (roots != null) {
+            for (String root : roots.split(",")) {
+                if (!root.trim().isEmpty()) {
+                    addEntry(ResourceIndex.ROOT, root.trim());
+                }
+            }
+        }
+    }
+
+    private boolean isResource(TypeElement typeElement) {
+        return isAnnotated(typeElement, JsonApiResource.class);
+    }
+
+    /**
+     * As in case of classpath scanning, subtypes of an annotated class are found too.
+     */
+    private boolean isAnnotated(TypeElement typeElement, Class<? extends Annotation> annotationClass) {
+        if (typeElement.getAnnotation(annotationClass) != null) {
+            return true;
+        }
+        Types types = processingEnv.getTypeUtils();
+        List<TypeMirror> supertypes = new ArrayList<>(types.directSupertypes(typeElement.asType()));
+        for (TypeMirror supertype : supertypes) {
+            if (supertype instanceof DeclaredType
+                && isAnnotated((TypeElement) ((DeclaredType) supertype).asElement(), annotationClass)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isSubtype(TypeElement typeElement, Class<?> superclass) {
+        TypeElement superElement = processingEnv.getElementUtils().getTypeElement(superclass.getCanonicalName());
+        if (superElement == null || typeElement.equals(superElement)) {
+            return false;
+        }
+        Types types = processingEnv.getTypeUtils();
+        return types.isSubtype(types.erasure(typeElement.asType()), types.erasure(superElement.asType()));
+    }
+
+    private void addEntry(String kind, String name) {
+        entries.computeIfAbsent(kind, k -> new TreeSet<>()).add(name);
+    }
+
+    private void writeIndex() {
+        mergePreviousIndex();
+        try {
+            FileObject index = processingEnv.getFiler()
+                .createResource(StandardLocation.CLASS_OUTPUT, "", ResourceIndex.INDEX_LOCATION);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, Set<String>> entry : entries.entrySet()) {
+                    for (String name : entry.getValue()) {
+                        writer.write(entry.getKey() + ":" + name + "\n");
+                    }
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Cannot write " + ResourceIndex.INDEX_LOCATION + ": " + e.getMessage());
+        }
+    }
+
+    private void mergePreviousIndex() {
+        Map<String, Set<String>> previousEntries = new HashMap<>();
+        try {
+            FileObject previousIndex = processingEnv.getFiler()
+                .getResource(StandardLocation.CLASS_OUTPUT, "", ResourceIndex.INDEX_LOCATION);
+            ResourceIndex.readEntries(previousIndex.toUri().toURL(), previousEntries);
+        } catch (IOException | IllegalArgumentException e) {
+            return; // there's no previous index
+        }
+        Elements elements = processingEnv.getElementUtils();
+        for (Map.Entry<String, Set<String>> entry : previousEntries.entrySet()) {
+            for (String name : entry.getValue()) {
+                if (ResourceIndex.ROOT.equals(entry.getKey())) {
+                    continue; // roots are taken from the current options
+                } else if (ResourceIndex.PACKAGE.equals(entry.getKey())) {
+                    PackageElement packageElement = elements.getPackageElement(name);
+                    if (packageElement != null) {
+                        addEntry(entry.getKey(), name);
+                    }
+                } else if (!processedClasses.contains(name)
+                    && elements.getTypeElement(name.replace('$', '.')) != null) {
+                    addEntry(entry.getKey(), name);
+                }
+            }
+        }
+    }
+}
@@ -2,8 +2,7 @@ package io.katharsis.resource.information;
 
 import io.katharsis.resource.field.ResourceField;
 
-import java.util.Objects;
-import java.util.Set;
+import java.util.*;
 
 /**
  * Holds information about the type of the resource.
@@ -26,12 +25,40 @@ public final class ResourceInformation {
      */
     private final Set<ResourceField> relationshipFields;
 
+    /**
+     * Attribute and relationship fields in a fixed order, used as an index e.g. for sparse fieldsets.
+     */
+    private final ResourceField[] indexedAttributeFields;
+    private final ResourceField[] indexedRelationshipFields;
+    private final Map<String, Integer> attributeIndex;
+    private final Map<String, Integer> relationshipIndex;
+
     public ResourceInformation(Class<?> resourceClass, ResourceField idField, Set<ResourceField> attributeFields,
         Set<ResourceField> relationshipFields) {
         this.resourceClass = resourceClass;
         this.idField = idField;
         this.attributeFields = attributeFields;
         this.relationshipFields = relationshipFields;
+
+        this.indexedAttributeFields = toArray(attributeFields);
+        this.indexedRelationshipFields = toArray(relationshipFields);
+        this.attributeIndex = buildIndex(indexedAttributeFields);
+        this.relationshipIndex = buildIndex(indexedRelationshipFields);
+    }
+
+    private static ResourceField[] toArray(Set<ResourceField> fields) {
+        if (fields == null) {
+            return new ResourceField[0];
+        }
+        return fields.toArray(new ResourceField[fields.size()]);
+    }
+
+    private static Map<String, Integer> buildIndex(ResourceField[] fields) {
+        Map<String, Integer> index = new HashMap<>(fields.length * 2);
+        for (int i = 0; i < fields.length; i++) {
+            index.putIfAbsent(fields[i].getName(), i);
+        }
+        return Collections.unmodifiableMap(index);
     }
 
     public Class<?> getResourceClass() {
@@ -50,23 +77,50 @@ public final class ResourceInformation {
         return relationshipFields;
     }
 
-    public ResourceField findAttributeFieldByName(String name) {
-        return getField(name, attributeFields);
+    /**
+     * Returns attribute fields ordered by their index. The returned array must not be modified.
+     *
+     * @return indexed attribute fields
+     */
+    public ResourceField[] getIndexedAttributeFields() {
+        return indexedAttributeFields;
     }
 
-    public ResourceField findRelationshipFieldByName(String name) {
-        return getField(name, relationshipFields);
+    /**
+     * Returns relationship fields ordered by their index. The returned array must not be modified.
+     *
+     * @return indexed relationship fields
+     */
+    public ResourceField[] getIndexedRelationshipFields() {
+        return indexedRelationshipFields;
     }
 
-    private ResourceField getField(String name, Set<ResourceField> fields) {
-        ResourceField foundField = null;
-        for (ResourceField field : fields) {
-            if (field.getName().equals(name)) {
-                foundField = field;
-                break;
-            }
-        }
-        return foundField;
+    /**
+     * @param name name of an attribute
+     * @return index of the attribute in {@link #getIndexedAttributeFields()} or -1 if not found
+     */
+    public int getAttributeIndex(String name) {
+        Integer index = attributeIndex.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * @param name name of a relationship
+     * @return index of the relationship in {@link #getIndexedRelationshipFields()} or -1 if not found
+     */
+    public int getRelationshipIndex(String name) {
+        Integer index = relationshipIndex.get(name);
+        return index != null ? index : -1;
+    }
+
+    public ResourceField findAttributeFieldByName(String name) {
+        int index = getAttributeIndex(name);
+        return index >= 0 ? indexedAttributeFields[index] : null;
+    }
+
+    public ResourceField findRelationshipFieldByName(String name) {
+        int index = getRelationshipIndex(name);
+        return index >= 0 ? indexedRelationshipFields[index] : null;
     }
 
     @Override
@@ -86,4 +140,4 @@ public final class ResourceInformation {
     public int hashCode() {
         return Objects.hash(resourceClass, idField, attributeFields, relationshipFields);
     }
-}
\ No newline at end of file
+}
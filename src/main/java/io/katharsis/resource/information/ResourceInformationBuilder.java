@@ -9,12 +9,16 @@ import io.katharsis.resource.exception.init.ResourceIdNotFoundException;
 import io.katharsis.resource.field.ResourceField;
 import io.katharsis.resource.field.ResourceFieldNameTransformer;
 import io.katharsis.utils.ClassUtils;
+import io.katharsis.utils.PropertyUtils;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 /**
@@ -29,6 +33,10 @@ public final class ResourceInformationBuilder {
         this.resourceFieldNameTransformer = resourceFieldNameTransformer;
     }
 
+    public ResourceFieldNameTransformer getResourceFieldNameTransformer() {
+        return resourceFieldNameTransformer;
+    }
+
     public ResourceInformation build(Class<?> resourceClass) {
         List<ResourceField> resourceFields = getResourceFields(resourceClass);
 
@@ -44,6 +52,65 @@ public final class ResourceInformationBuilder {
             relationshipFields);
     }
 
+    /**
+     * Builds information about many resources in parallel. Property accessors of the resource fields are resolved
+     * along, so they are ready before the first request.
+     * <p>
+     * If building fails for several classes, the exception of the first class in the order of class names is thrown
+     * with exceptions of the other classes added as suppressed.
+     * </p>
+     *
+     * @param resourceClasses resource classes
+     * @return information about the resources in the order of class names
+     */
+    public Map<Class<?>, ResourceInformation> buildAll(Collection<Class<?>> resourceClasses) {
+        List<Class<?>> sortedClasses = new ArrayList<>(resourceClasses);
+        sortedClasses.sort(Comparator.comparing(Class::getName));
+
+        Map<Class<?>, CompletableFuture<ResourceInformation>> futures = new LinkedHashMap<>();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(sortedClasses.size(),
+            Runtime.getRuntime().availableProcessors())));
+        try {
+            for (Class<?> resourceClass : sortedClasses) {
+                futures.put(resourceClass, CompletableFuture.supplyAsync(() -> buildWithAccessors(resourceClass), pool));
+            }
+
+            Map<Class<?>, ResourceInformation> resourceInformations = new LinkedHashMap<>();
+            RuntimeException exception = null;
+            for (Map.Entry<Class<?>, CompletableFuture<ResourceInformation>> future : futures.entrySet()) {
+                try {
+                    resourceInformations.put(future.getKey(), future.getValue().join());
+                } catch (CompletionException e) {
+                    RuntimeException cause = e.getCause() instanceof RuntimeException ?
+                        (RuntimeException) e.getCause() : e;
+                    if (exception == null) {
+                        exception = cause;
+                    } else {
+                        exception.addSuppressed(cause);
+                    }
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+            return resourceInformations;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private ResourceInformation buildWithAccessors(Class<?> resourceClass) {
+        ResourceInformation resourceInformation = build(resourceClass);
+        PropertyUtils.findPropertyAccessor(resourceClass, resourceInformation.getIdField().getName());
+        for (ResourceField attributeField : resourceInformation.getIndexedAttributeFields()) {
+            PropertyUtils.findPropertyAccessor(resourceClass, attributeField.getName());
+        }
+        for (ResourceField relationshipField : resourceInformation.getIndexedRelationshipFields()) {
+            PropertyUtils.findPropertyAccessor(resourceClass, relationshipField.getName());
+        }
+        return resourceInformation;
+    }
+
     private List<ResourceField> getResourceFields(Class<?> resourceClass) {
         List<Field> classFields = ClassUtils.getClassFields(resourceClass);
         List<Method> classGetters = ClassUtils.getClassGetters(resourceClass);
@@ -0,0 +1,152 @@
+package io.katharsis.resource.registry;
+
+import io.katharsis.repository.NotFoundRepository;
+import io.katharsis.repository.RelationshipRepository;
+import io.katharsis.repository.ResourceRepository;
+import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.resource.exception.init.InvalidResourceException;
+import io.katharsis.resource.information.ResourceInformation;
+import io.katharsis.resource.information.ResourceInformationBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builder of a {@link ResourceRegistry} with explicitly registered resources and repositories. Unlike
+ * {@link ResourceRegistryBuilder} it doesn't scan the classpath and doesn't need a
+ * {@link io.katharsis.locator.JsonServiceLocator}, the repository instances are passed directly:
+ * <pre>
+ * {@code
+ * ResourceRegistry resourceRegistry = new ProgrammaticResourceRegistryBuilder(resourceInformationBuilder)
+ *     .register(Task.class, taskRepository)
+ *         .relationship(taskToProjectRepository)
+ *     .register(Project.class, projectRepository)
+ *     .build("http://service.local");
+ * }
+ * </pre>
+ * The resulting registry entries are the same as the entries created by {@link ResourceRegistryBuilder}.
+ */
+public class ProgrammaticResourceRegistryBuilder {
+
+    private final ResourceInformationBuilder resourceInformationBuilder;
+    private final Map<Class<?>, Registration<?>> registrations = new LinkedHashMap<>();
+
+    public ProgrammaticResourceRegistryBuilder(ResourceInformationBuilder resourceInformationBuilder) {
+        this.resourceInformationBuilder = resourceInformationBuilder;
+    }
+
+    /**
+     * Registers a resource served by a repository.
+     *
+     * @param resourceClass      resource class annotated with {@link JsonApiResource}
+     * @param resourceRepository repository of the resource
+     * @param <T>                resource type
+     * @return registration of the resource used to add its relationship repositories
+     */
+    public <T> Registration<T> register(Class<T> resourceClass, ResourceRepository<T, ?> resourceRepository) {
+        if (resourceClass == null) {
+            throw new IllegalArgumentException("resourceClass cannot be null");
+        }
+        if (!resourceClass.isAnnotationPresent(JsonApiResource.class)) {
+            throw new InvalidResourceException(resourceClass.getCanonicalName() + " is not annotated with "
+                + JsonApiResource.class.getSimpleName());
+        }
+        if (registrations.containsKey(resourceClass)) {
+            throw new InvalidResourceException(resourceClass.getCanonicalName() + " is already registered");
+        }
+        Registration<T> registration = new Registration<>(resourceClass, resourceRepository);
+        registrations.put(resourceClass, registration);
+        return registration;
+    }
+
+    /**
+     * Registers a resource without a repository. Requests to the resource's endpoints fail with
+     * {@link io.katharsis.repository.exception.RepositoryNotFoundException}.
+     *
+     * @param resourceClass resource class annotated with {@link JsonApiResource}
+     * @param <T>           resource type
+     * @return registration of the resource used to add its relationship repositories
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Registration<T> register(Class<T> resourceClass) {
+        return register(resourceClass, new NotFoundRepository(resourceClass));
+    }
+
+    /**
+     * Builds a registry with all of the registered resources.
+     *
+     * @param serviceUrl URL to the service
+     * @return an instance of ResourceRegistry
+     */
+    public ResourceRegistry build(String serviceUrl) {
+        Map<Class<?>, ResourceInformation> resourceInformations =
+            resourceInformationBuilder.buildAll(registrations.keySet());
+
+        Map<Class, RegistryEntry> registryEntries = new LinkedHashMap<>();
+        for (Registration<?> registration : registrations.values()) {
+            registryEntries.put(registration.resourceClass,
+                createEntry(registration, resourceInformations.get(registration.resourceClass)));
+        }
+        ResourceRegistry resourceRegistry = new ResourceRegistry(serviceUrl);
+        resourceRegistry.addEntries(registryEntries);
+        return resourceRegistry;
+    }
+
+    private <T> RegistryEntry<T> createEntry(Registration<T> registration, ResourceInformation resourceInformation) {
+        return new RegistryEntry<>(resourceInformation, registration.resourceRepository,
+            new LinkedList<>(registration.relationshipRepositories));
+    }
+
+    /**
+     * Registration of a single resource.
+     *
+     * @param <T> resource type
+     */
+    public class Registration<T> {
+        private final Class<T> resourceClass;
+        private final ResourceRepository<T, ?> resourceRepository;
+        private final List<RelationshipRepository<T, ?, ?, ?>> relationshipRepositories = new LinkedList<>();
+
+        private Registration(Class<T> resourceClass, ResourceRepository<T, ?> resourceRepository) {
+            this.resourceClass = resourceClass;
+            this.resourceRepository = resourceRepository;
+        }
+
+        /**
+         * Adds a repository of relationships whose source is the registered resource.
+         *
+         * @param relationshipRepository relationship repository
+         * @return this registration
+         */
+        public Registration<T> relationship(RelationshipRepository<T, ?, ?, ?> relationshipRepository) {
+            if (relationshipRepository == null) {
+                throw new IllegalArgumentException("relationshipRepository cannot be null");
+            }
+            relationshipRepositories.add(relationshipRepository);
+            return this;
+        }
+
+        /**
+         * @see ProgrammaticResourceRegistryBuilder#register(Class, ResourceRepository)
+         */
+        public <U> Registration<U> register(Class<U> resourceClass, ResourceRepository<U, ?> resourceRepository) {
+            return ProgrammaticResourceRegistryBuilder.this.register(resourceClass, resourceRepository);
+        }
+
+        /**
+         * @see ProgrammaticResourceRegistryBuilder#register(Class)
+         */
+        public <U> Registration<U> register(Class<U> resourceClass) {
+            return ProgrammaticResourceRegistryBuilder.this.register(resourceClass);
+        }
+
+        /**
+         * @see ProgrammaticResourceRegistryBuilder#build(String)
+         */
+        public ResourceRegistry build(String serviceUrl) {
+            return ProgrammaticResourceRegistryBuilder.this.build(serviceUrl);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package io.katharsis.resource.registry;
+
+import io.katharsis.repository.RelationshipRepository;
+import io.katharsis.repository.ResourceRepository;
+import io.katharsis.resource.exception.init.InvalidResourceException;
+import io.katharsis.resource.field.ResourceField;
+import io.katharsis.resource.field.ResourceFieldNameTransformer;
+import io.katharsis.resource.index.ResourceIndex;
+import io.katharsis.resource.information.ResourceInformation;
+import io.katharsis.utils.ClassUtils;
+
+import java.io.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Serializable metadata of a resource registry: resource classes, the members backing their id, attribute and
+ * relationship fields, and classes of their repositories. A snapshot is written after a registry has been built by
+ * {@link ResourceRegistryBuilder} and restored on later starts, so the fields are resolved by direct member lookups
+ * instead of analysing every field and getter of the resource classes.
+ * <p>
+ * A snapshot holds a fingerprint of the bytecode of the classes it refers to, their superclasses and the resource
+ * index files on the classpath. A snapshot whose fingerprint doesn't match the current classpath is stale. Resources
+ * added to the packages change the fingerprint through the index files, so {@link ResourceRegistryBuilder} uses
+ * snapshots only for packages covered by {@link ResourceIndex}.
+ * </p>
+ */
+public final class RegistrySnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String packageName;
+    private final List<ResourceSnapshot> resources;
+    private final long fingerprint;
+
+    private RegistrySnapshot(String packageName, List<ResourceSnapshot> resources, long fingerprint) {
+        this.packageName = packageName;
+        this.resources = resources;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Captures metadata of resources and their repositories.
+     *
+     * @param packageName                  packages the resources have been found in
+     * @param resourceInformations         information about the resources
+     * @param resourceRepositoryClasses    repository class of each resource with a repository
+     * @param relationshipRepositoryClasses relationship repository classes of each resource
+     * @param resourceFieldNameTransformer transformer used to name the resource fields
+     * @param classLoader                  class loader of the resource and repository classes
+     * @return snapshot of the metadata
+     */
+    public static RegistrySnapshot capture(String packageName,
+                                           Map<Class<?>, ResourceInformation> resourceInformations,
+                                           Map<Class<?>, Class<? extends ResourceRepository>> resourceRepositoryClasses,
+                                           Map<Class<?>, Set<Class<? extends RelationshipRepository>>> relationshipRepositoryClasses,
+                                           ResourceFieldNameTransformer resourceFieldNameTransformer,
+                                           ClassLoader classLoader) {
+        List<ResourceSnapshot> resources = new ArrayList<>(resourceInformations.size());
+        for (ResourceInformation resourceInformation : resourceInformations.values()) {
+            Class<?> resourceClass = resourceInformation.getResourceClass();
+            MemberResolver memberResolver = new MemberResolver(resourceClass, resourceFieldNameTransformer);
+
+            Class<? extends ResourceRepository> resourceRepositoryClass = resourceRepositoryClasses.get(resourceClass);
+            List<String> relationshipRepositoryClassNames = new ArrayList<>();
+            for (Class<?> relationshipRepositoryClass :
+                relationshipRepositoryClasses.getOrDefault(resourceClass, Collections.emptySet())) {
+                relationshipRepositoryClassNames.add(relationshipRepositoryClass.getName());
+            }
+            Collections.sort(relationshipRepositoryClassNames);
+
+            resources.add(new ResourceSnapshot(
+                resourceClass.getName(),
+                memberResolver.resolve(resourceInformation.getIdField()),
+                memberResolver.resolve(resourceInformation.getAttributeFields()),
+                memberResolver.resolve(resourceInformation.getRelationshipFields()),
+                resourceRepositoryClass != null ? resourceRepositoryClass.getName() : null,
+                relationshipRepositoryClassNames));
+        }
+        resources.sort(Comparator.comparing(resource -> resource.resourceClassName));
+        return new RegistrySnapshot(packageName, resources, fingerprint(packageName, resources, classLoader));
+    }
+
+    /**
+     * Reads a snapshot. Only classes a snapshot consists of can be deserialized, a stream with any other class is
+     * rejected before the class is loaded.
+     *
+     * @param inputStream stream with a snapshot written by {@link #writeTo(OutputStream)}
+     * @return snapshot
+     * @throws IOException if the stream doesn't contain a snapshot
+     */
+    public static RegistrySnapshot readFrom(InputStream inputStream) throws IOException {
+        ObjectInputStream objectInputStream = new SnapshotInputStream(inputStream);
+        try {
+            return (RegistrySnapshot) objectInputStream.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new InvalidObjectException("Not a registry snapshot: " + e.getMessage());
+        }
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream);
+        objectOutputStream.writeObject(this);
+        objectOutputStream.flush();
+    }
+
+    /**
+     * Checks if the snapshot has been captured for the packages and the classes it refers to haven't changed since.
+     *
+     * @param packageName packages of the resources
+     * @param classLoader class loader of the resource and repository classes
+     * @return <i>true</i> if the snapshot can be restored
+     */
+    public boolean isValid(String packageName, ClassLoader classLoader) {
+        return Objects.equals(this.packageName, packageName)
+            && fingerprint == fingerprint(packageName, resources, classLoader);
+    }
+
+    /**
+     * Restores information about the resources.
+     *
+     * @param classLoader class loader of the resource classes
+     * @return information about the resources in the order of class names
+     */
+    public Map<Class<?>, ResourceInformation> restoreResourceInformations(ClassLoader classLoader) {
+        Map<Class<?>, ResourceInformation> resourceInformations = new LinkedHashMap<>();
+        for (ResourceSnapshot resource : resources) {
+            Class<?> resourceClass = loadClass(resource.resourceClassName, classLoader);
+            resourceInformations.put(resourceClass, new ResourceInformation(resourceClass,
+                resource.idField.restore(classLoader),
+                restore(resource.attributeFields, classLoader),
+                restore(resource.relationshipFields, classLoader)));
+        }
+        return resourceInformations;
+    }
+
+    /**
+     * Restores repository classes of the resources.
+     *
+     * @param classLoader class loader of the repository classes
+     * @return repository class of each resource which has a repository
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Class<?>, Class<? extends ResourceRepository>> restoreResourceRepositoryClasses(ClassLoader classLoader) {
+        Map<Class<?>, Class<? extends ResourceRepository>> repositoryClasses = new HashMap<>();
+        for (ResourceSnapshot resource : resources) {
+            if (resource.resourceRepositoryClassName != null) {
+                repositoryClasses.put(loadClass(resource.resourceClassName, classLoader),
+                    (Class<? extends ResourceRepository>) loadClass(resource.resourceRepositoryClassName, classLoader));
+            }
+        }
+        return repositoryClasses;
+    }
+
+    /**
+     * Restores relationship repository classes of the resources.
+     *
+     * @param classLoader class loader of the repository classes
+     * @return relationship repository classes of each resource
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Class<?>, Set<Class<? extends RelationshipRepository>>> restoreRelationshipRepositoryClasses(
+        ClassLoader classLoader) {
+        Map<Class<?>, Set<Class<? extends RelationshipRepository>>> repositoryClasses = new HashMap<>();
+        for (ResourceSnapshot resource : resources) {
+            Set<Class<? extends RelationshipRepository>> resourceRepositoryClasses = new HashSet<>();
+            for (String repositoryClassName : resource.relationshipRepositoryClassNames) {
+                resourceRepositoryClasses.add(
+                    (Class<? extends RelationshipRepository>) loadClass(repositoryClassName, classLoader));
+            }
+            repositoryClasses.put(loadClass(resource.resourceClassName, classLoader), resourceRepositoryClasses);
+        }
+        return repositoryClasses;
+    }
+
+    private static Set<ResourceField> restore(List<FieldSnapshot> fields, ClassLoader classLoader) {
+        Set<ResourceField> resourceFields = new HashSet<>();
+        for (FieldSnapshot field : fields) {
+            resourceFields.add(field.restore(classLoader));
+        }
+        return resourceFields;
+    }
+
+    private static long fingerprint(String packageName, List<ResourceSnapshot> resources, ClassLoader classLoader) {
+        Set<String> classNames = new TreeSet<>();
+        for (ResourceSnapshot resource : resources) {
+            addClassHierarchy(resource.resourceClassName, classNames, classLoader);
+            if (resource.resourceRepositoryClassName != null) {
+                classNames.add(resource.resourceRepositoryClassName);
+            }
+            classNames.addAll(resource.relationshipRepositoryClassNames);
+        }
+
+        CRC32 checksum = new CRC32();
+        checksum.update(String.valueOf(packageName).getBytes());
+        try {
+            for (String className : classNames) {
+                checksum.update(className.getBytes());
+                update(checksum, classLoader.getResource(className.replace('.', '/') + ".class"));
+            }
+            Enumeration<URL> indexUrls = classLoader.getResources(ResourceIndex.INDEX_LOCATION);
+            while (indexUrls.hasMoreElements()) {
+                update(checksum, indexUrls.nextElement());
+            }
+        } catch (IOException e) {
+            return -1; // a CRC32 value is never negative, so the snapshot is considered stale
+        }
+        return checksum.getValue();
+    }
+
+    private static void addClassHierarchy(String className, Set<String> classNames, ClassLoader classLoader) {
+        Class<?> currentClass;
+        try {
+            currentClass = Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            classNames.add(className); // the class resource is missing, so the fingerprint doesn't match
+            return;
+        }
+        while (currentClass != null && currentClass != Object.class) {
+            classNames.add(currentClass.getName());
+            currentClass = currentClass.getSuperclass();
+        }
+    }
+
+    private static void update(CRC32 checksum, URL url) throws IOException {
+        if (url == null) {
+            throw new FileNotFoundException();
+        }
+        try (InputStream inputStream = url.openStream()) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                checksum.update(buffer, 0, read);
+            }
+        }
+    }
+
+    private static Class<?> loadClass(String className, ClassLoader classLoader) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new InvalidResourceException(className + " listed in the registry snapshot cannot be loaded");
+        }
+    }
+
+    private static final class ResourceSnapshot implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String resourceClassName;
+        private final FieldSnapshot idField;
+        private final List<FieldSnapshot> attributeFields;
+        private final List<FieldSnapshot> relationshipFields;
+        private final String resourceRepositoryClassName;
+        private final List<String> relationshipRepositoryClassNames;
+
+        private ResourceSnapshot(String resourceClassName, FieldSnapshot idField, List<FieldSnapshot> attributeFields,
+                                 List<FieldSnapshot> relationshipFields, String resourceRepositoryClassName,
+                                 List<String> relationshipRepositoryClassNames) {
+            this.resourceClassName = resourceClassName;
+            this.idField = idField;
+            this.attributeFields = attributeFields;
+            this.relationshipFields = relationshipFields;
+            this.resourceRepositoryClassName = resourceRepositoryClassName;
+            this.relationshipRepositoryClassNames = relationshipRepositoryClassNames;
+        }
+    }
+
+    /**
+     * Deserializes only the classes of a snapshot.
+     */
+    private static final class SnapshotInputStream extends ObjectInputStream {
+        private static final Set<String> ALLOWED_CLASS_NAMES = new HashSet<>(Arrays.asList(
+            RegistrySnapshot.class.getName(),
+            ResourceSnapshot.class.getName(),
+            FieldSnapshot.class.getName(),
+            ArrayList.class.getName()));
+
+        private SnapshotInputStream(InputStream inputStream) throws IOException {
+            super(inputStream);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            if (!ALLOWED_CLASS_NAMES.contains(desc.getName())) {
+                throw new InvalidClassException(desc.getName(), "Not a class of a registry snapshot");
+            }
+            return super.resolveClass(desc);
+        }
+    }
+
+    /**
+     * A resource field backed by either a class field or a getter.
+     */
+    private static final class FieldSnapshot implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final String declaringClassName;
+        private final String memberName;
+        private final boolean getter;
+
+        private FieldSnapshot(String name, String declaringClassName, String memberName, boolean getter) {
+            this.name = name;
+            this.declaringClassName = declaringClassName;
+            this.memberName = memberName;
+            this.getter = getter;
+        }
+
+        private ResourceField restore(ClassLoader classLoader) {
+            Class<?> declaringClass = loadClass(declaringClassName, classLoader);
+            try {
+                if (getter) {
+                    Method method = declaringClass.getDeclaredMethod(memberName);
+                    return new ResourceField(name, method.getReturnType(), method.getGenericReturnType(),
+                        Arrays.asList(method.getAnnotations()));
+                } else {
+                    Field field = declaringClass.getDeclaredField(memberName);
+                    return new ResourceField(name, field.getType(), field.getGenericType(),
+                        Arrays.asList(field.getAnnotations()));
+                }
+            } catch (NoSuchMethodException | NoSuchFieldException e) {
+                throw new InvalidResourceException(declaringClassName + "." + memberName
+                    + " listed in the registry snapshot cannot be found");
+            }
+        }
+    }
+
+    /**
+     * Finds members backing resource fields in the same way {@link io.katharsis.resource.information.ResourceInformationBuilder}
+     * does, that is a class field takes precedence over a getter of the same name.
+     */
+    private static final class MemberResolver {
+        private final Class<?> resourceClass;
+        private final Map<String, Field> fields = new HashMap<>();
+        private final Map<String, Method> getters = new HashMap<>();
+
+        private MemberResolver(Class<?> resourceClass, ResourceFieldNameTransformer resourceFieldNameTransformer) {
+            this.resourceClass = resourceClass;
+            for (Field field : ClassUtils.getClassFields(resourceClass)) {
+                fields.putIfAbsent(resourceFieldNameTransformer.getName(field), field);
+            }
+            for (Method getter : ClassUtils.getClassGetters(resourceClass)) {
+                getters.putIfAbsent(resourceFieldNameTransformer.getName(getter), getter);
+            }
+        }
+
+        private List<FieldSnapshot> resolve(Collection<ResourceField> resourceFields) {
+            List<FieldSnapshot> fieldSnapshots = new ArrayList<>(resourceFields.size());
+            for (ResourceField resourceField : resourceFields) {
+                fieldSnapshots.add(resolve(resourceField));
+            }
+            fieldSnapshots.sort(Comparator.comparing(field -> field.name));
+            return fieldSnapshots;
+        }
+
+        private FieldSnapshot resolve(ResourceField resourceField) {
+            Field field = fields.get(resourceField.getName());
+            if (field != null && field.getGenericType().equals(resourceField.getGenericType())
+                && Arrays.asList(field.getAnnotations()).equals(resourceField.getAnnotations())) {
+                return new FieldSnapshot(resourceField.getName(), field.getDeclaringClass().getName(),
+                    field.getName(), false);
+            }
+            Method getter = getters.get(resourceField.getName());
+            if (getter != null) {
+                return new FieldSnapshot(resourceField.getName(), getter.getDeclaringClass().getName(),
+                    getter.getName(), true);
+            }
+            throw new InvalidResourceException("Cannot find a member of " + resourceClass.getCanonicalName()
+                + " backing the field " + resourceField.getName());
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package io.katharsis.resource.registry;
+
+import io.katharsis.repository.RelationshipIdRepository;
+import io.katharsis.repository.RelationshipRepository;
+import io.katharsis.repository.exception.RelationshipRepositoryNotFoundException;
+import io.katharsis.resource.annotations.JsonApiIncludeByDefault;
+import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.resource.annotations.JsonApiToMany;
+import io.katharsis.resource.annotations.JsonApiToOne;
+import io.katharsis.resource.annotations.LinkagePolicy;
+import io.katharsis.resource.exception.init.ResourceNotFoundInitializationException;
+import io.katharsis.resource.field.ResourceField;
+import io.katharsis.resource.information.ResourceInformation;
+import io.katharsis.utils.Generics;
+import io.katharsis.utils.PropertyAccessor;
+import io.katharsis.utils.PropertyUtils;
+import io.katharsis.utils.parser.TypeParser;
+
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.util.function.Function;
+
+/**
+ * Resolved information about a relationship field of a resource: the target resource, its entry, id type and id
+ * parser, the parser of the ids of the source resource, the cardinality, the linkage policy and the repository
+ * serving the relationship, along with its {@link RelationshipIdRepository} view if it implements one. Descriptors are created by
+ * {@link ResourceRegistry} each time its entries change, so they always refer to the current entries.
+ */
+public final class RelationshipDescriptor {
+
+    private static final TypeParser TYPE_PARSER = new TypeParser();
+
+    private final Class<?> sourceClass;
+    private final ResourceField field;
+    private final Class<?> targetClass;
+    private final String targetType;
+    private final boolean collection;
+    private final LinkagePolicy linkagePolicy;
+    private final boolean includedByDefault;
+    private final PropertyAccessor accessor;
+    private final String sourceIdName;
+    private final PropertyAccessor sourceIdAccessor;
+    private final RegistryEntry targetEntry;
+    private final RelationshipRepository relationshipRepository;
+    private final RelationshipIdRepository relationshipIdRepository;
+    private final Function<String, ? extends Serializable> sourceIdParser;
+    private final Function<String, ? extends Serializable> targetIdParser;
+
+    RelationshipDescriptor(Class<?> sourceClass, ResourceField field, Function<Class<?>, RegistryEntry> entries) {
+        this.sourceClass = sourceClass;
+        this.field = field;
+        this.collection = Iterable.class.isAssignableFrom(field.getType());
+        this.targetClass = Generics.getResourceClass(field.getGenericType(), field.getType());
+        JsonApiResource targetResource = targetClass.getAnnotation(JsonApiResource.class);
+        this.targetType = targetResource != null ? targetResource.type() : null;
+        this.linkagePolicy = findLinkagePolicy(field);
+        this.includedByDefault = field.isAnnotationPresent(JsonApiIncludeByDefault.class);
+        this.accessor = PropertyUtils.findPropertyAccessor(sourceClass, field.getName());
+        this.targetEntry = entries.apply(targetClass);
+        RegistryEntry sourceEntry = entries.apply(sourceClass);
+        this.relationshipRepository = findRelationshipRepository(sourceEntry, targetClass);
+        this.relationshipIdRepository = relationshipRepository instanceof RelationshipIdRepository
+            ? (RelationshipIdRepository) relationshipRepository : null;
+        this.sourceIdName = sourceEntry != null && sourceEntry.getResourceInformation() != null
+            && sourceEntry.getResourceInformation().getIdField() != null
+            ? sourceEntry.getResourceInformation().getIdField().getName() : null;
+        this.sourceIdAccessor = sourceIdName != null ? PropertyUtils.findPropertyAccessor(sourceClass, sourceIdName)
+            : null;
+        this.sourceIdParser = findIdParser(sourceEntry);
+        this.targetIdParser = findIdParser(targetEntry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<String, ? extends Serializable> findIdParser(RegistryEntry entry) {
+        ResourceInformation resourceInformation = entry != null ? entry.getResourceInformation() : null;
+        if (resourceInformation == null || resourceInformation.getIdField() == null) {
+            return null;
+        }
+        return TYPE_PARSER.getParser((Class<? extends Serializable>) resourceInformation.getIdField().getType());
+    }
+
+    private static LinkagePolicy findLinkagePolicy(ResourceField field) {
+        for (Annotation annotation : field.getAnnotations()) {
+            if (annotation instanceof JsonApiToMany) {
+                return ((JsonApiToMany) annotation).linkage();
+            } else if (annotation instanceof JsonApiToOne) {
+                return ((JsonApiToOne) annotation).linkage();
+            }
+        }
+        return LinkagePolicy.ALWAYS;
+    }
+
+    private static RelationshipRepository findRelationshipRepository(RegistryEntry sourceEntry, Class<?> targetClass) {
+        if (sourceEntry == null) {
+            return null;
+        }
+        try {
+            return sourceEntry.getRelationshipRepositoryForClass(targetClass);
+        } catch (RelationshipRepositoryNotFoundException e) {
+            return null;
+        }
+    }
+
+    public String getName() {
+        return field.getName();
+    }
+
+    public ResourceField getField() {
+        return field;
+    }
+
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    /**
+     * @return JSON API type of the target resource, <i>null</i> if the target is not a resource
+     */
+    public String getTargetType() {
+        return targetType;
+    }
+
+    /**
+     * @return <i>true</i> for a to-many relationship
+     */
+    public boolean isCollection() {
+        return collection;
+    }
+
+    public LinkagePolicy getLinkagePolicy() {
+        return linkagePolicy;
+    }
+
+    public boolean isIncludedByDefault() {
+        return includedByDefault;
+    }
+
+    /**
+     * @return entry of the target resource
+     * @throws ResourceNotFoundInitializationException if the target is not a registered resource
+     */
+    public RegistryEntry getTargetEntry() {
+        if (targetEntry == null) {
+            throw new ResourceNotFoundInitializationException(targetClass.getCanonicalName());
+        }
+        return targetEntry;
+    }
+
+    /**
+     * @return type of the id of the target resource
+     */
+    @SuppressWarnings("unchecked")
+    public Class<? extends Serializable> getTargetIdClass() {
+        return (Class<? extends Serializable>) getTargetEntry().getResourceInformation().getIdField().getType();
+    }
+
+    /**
+     * @param id id of a source resource
+     * @return id parsed to the id type of the source resource
+     * @throws ResourceNotFoundInitializationException if the source is not a registered resource
+     */
+    public Serializable parseSourceId(String id) {
+        if (sourceIdParser == null) {
+            throw new ResourceNotFoundInitializationException(sourceClass.getCanonicalName());
+        }
+        return sourceIdParser.apply(id);
+    }
+
+    /**
+     * @param id id of a target resource
+     * @return id parsed to the id type of the target resource
+     * @throws ResourceNotFoundInitializationException if the target is not a registered resource
+     */
+    public Serializable parseTargetId(String id) {
+        if (targetIdParser == null) {
+            throw new ResourceNotFoundInitializationException(targetClass.getCanonicalName());
+        }
+        return targetIdParser.apply(id);
+    }
+
+    /**
+     * @return repository of the relationship
+     * @throws RelationshipRepositoryNotFoundException if there's no repository for the relationship
+     */
+    public RelationshipRepository getRelationshipRepository() {
+        if (relationshipRepository == null) {
+            throw new RelationshipRepositoryNotFoundException(sourceClass, targetClass);
+        }
+        return relationshipRepository;
+    }
+
+    /**
+     * @return repository of the relationship if it implements {@link RelationshipIdRepository}, <i>null</i>
+     * otherwise
+     */
+    public RelationshipIdRepository getRelationshipIdRepository() {
+        return relationshipIdRepository;
+    }
+
+    /**
+     * Reads the id of a source resource.
+     *
+     * @param resource source resource
+     * @return value of the id field
+     * @throws ResourceNotFoundInitializationException if the source is not a registered resource
+     */
+    public Serializable getSourceId(Object resource) {
+        if (sourceIdName == null) {
+            throw new ResourceNotFoundInitializationException(sourceClass.getCanonicalName());
+        }
+        if (sourceIdAccessor != null) {
+            return (Serializable) sourceIdAccessor.getValue(resource);
+        }
+        return (Serializable) PropertyUtils.getProperty(resource, sourceIdName);
+    }
+
+    /**
+     * Reads the relationship of a resource.
+     *
+     * @param resource source resource
+     * @return value of the relationship field
+     */
+    public Object getValue(Object resource) {
+        if (accessor != null) {
+            return accessor.getValue(resource);
+        }
+        return PropertyUtils.getProperty(resource, field.getName());
+    }
+}
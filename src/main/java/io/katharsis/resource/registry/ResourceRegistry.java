@@ -1,16 +1,27 @@
 package io.katharsis.resource.registry;
 
 import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.resource.exception.init.InvalidRelationshipException;
 import io.katharsis.resource.exception.init.ResourceNotFoundInitializationException;
+import io.katharsis.resource.field.ResourceField;
+import io.katharsis.resource.information.ResourceInformation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Registry of resources and their repositories. The registry is copy-on-write: each change publishes a new immutable
+ * set of entries with a compare-and-set, so entries can be added or replaced while requests are being served, neither
+ * readers nor writers lock and readers never see a partially applied change. Components which cache data derived from the entries can compare {@link #getVersion()}
+ * to detect a change.
+ */
 public class ResourceRegistry {
-    private final Map<Class, RegistryEntry> resources = new HashMap<>();
+    private final AtomicReference<Entries> entries = new AtomicReference<>(new Entries(Collections.emptyMap(), 0));
     private final String serviceUrl;
     private final Logger logger = LoggerFactory.getLogger(ResourceRegistry.class);
 
@@ -19,30 +30,146 @@ public class ResourceRegistry {
     }
 
 
+    /**
+     * Adds an entry of a resource or replaces the existing one.
+     *
+     * @param resource      resource class
+     * @param registryEntry entry of the resource
+     * @param <T>           resource type
+     */
     public <T> void addEntry(Class<T> resource, RegistryEntry<? extends T> registryEntry) {
-        resources.put(resource, registryEntry);
-        logger.debug("Added resource {} to ResourceRegistry", resource.getName());
+        addEntries(Collections.singletonMap(resource, registryEntry));
     }
 
-    public RegistryEntry getEntry(String searchType) {
-        RegistryEntry registryEntry = null;
-        for (Map.Entry<Class, RegistryEntry> entry : resources.entrySet()) {
-            String type = getResourceType(entry.getKey());
-            if (type.equals(searchType)) {
-                registryEntry = entry.getValue();
-            }
+    /**
+     * Adds or replaces entries of several resources at once. Readers see either none or all of the changes.
+     *
+     * @param registryEntries entries of the resources
+     */
+    public void addEntries(Map<? extends Class, ? extends RegistryEntry> registryEntries) {
+        Entries current;
+        Entries updated;
+        do {
+            current = entries.get();
+            Map<Class, RegistryEntry> resources = new HashMap<>(current.resources);
+            resources.putAll(registryEntries);
+            updated = new Entries(resources, current.version + 1);
+        } while (!entries.compareAndSet(current, updated));
+        for (Class resource : registryEntries.keySet()) {
+            logger.debug("Added resource {} to ResourceRegistry", resource.getName());
         }
+        logRelationshipFailures(current, updated);
+    }
+
+    /**
+     * Removes an entry of a resource.
+     *
+     * @param resource resource class
+     * @return removed entry or <i>null</i> if the class is not a registered resource
+     */
+    public RegistryEntry removeEntry(Class resource) {
+        Entries current;
+        Entries updated;
+        RegistryEntry registryEntry;
+        do {
+            current = entries.get();
+            if (!current.resources.containsKey(resource)) {
+                return null;
+            }
+            Map<Class, RegistryEntry> resources = new HashMap<>(current.resources);
+            registryEntry = resources.remove(resource);
+            updated = new Entries(resources, current.version + 1);
+        } while (!entries.compareAndSet(current, updated));
+        logger.debug("Removed resource {} from ResourceRegistry", resource.getName());
+        logRelationshipFailures(current, updated);
         return registryEntry;
     }
 
+    /**
+     * Logs relationships which can't be resolved in the published entries, but could be in the replaced ones.
+     */
+    private void logRelationshipFailures(Entries replaced, Entries published) {
+        for (Map.Entry<Class, Map<String, RuntimeException>> resourceFailures
+            : published.relationshipFailures.entrySet()) {
+            Map<String, RuntimeException> replacedFailures = replaced.relationshipFailures
+                .getOrDefault(resourceFailures.getKey(), Collections.emptyMap());
+            for (Map.Entry<String, RuntimeException> failure : resourceFailures.getValue().entrySet()) {
+                if (!replacedFailures.containsKey(failure.getKey())) {
+                    logger.warn("Invalid relationship {}.{}: {}", resourceFailures.getKey().getName(),
+                        failure.getKey(), failure.getValue().getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of changes made to the registry, changes whenever entries are added, replaced or removed
+     */
+    public long getVersion() {
+        return entries.get().version;
+    }
+
+    public RegistryEntry getEntry(String searchType) {
+        return entries.get().resourcesByType.get(searchType);
+    }
+
     public RegistryEntry getEntry(Class clazz) {
-        RegistryEntry registryEntry = resources.get(clazz);
+        RegistryEntry registryEntry = entries.get().resources.get(clazz);
         if (registryEntry != null) {
             return registryEntry;
         }
         throw new ResourceNotFoundInitializationException(clazz.getCanonicalName());
     }
 
+    /**
+     * Searches the registry for an entry of a class without failing for unregistered classes.
+     *
+     * @param clazz resource class
+     * @return registry entry or <i>null</i> if the class is not a registered resource
+     */
+    public RegistryEntry findEntry(Class clazz) {
+        return entries.get().resources.get(clazz);
+    }
+
+    /**
+     * Searches for a relationship of a registered resource.
+     *
+     * @param clazz resource class
+     * @param name  name of the relationship field
+     * @return relationship or <i>null</i> if the class is not a registered resource or it has no such relationship
+     * @throws InvalidRelationshipException if the relationship couldn't be resolved when the resource was registered
+     */
+    public RelationshipDescriptor findRelationship(Class clazz, String name) {
+        Entries currentEntries = entries.get();
+        Map<String, RelationshipDescriptor> relationships = currentEntries.relationships.get(clazz);
+        RelationshipDescriptor relationship = relationships != null ? relationships.get(name) : null;
+        if (relationship == null) {
+            Map<String, RuntimeException> failures = currentEntries.relationshipFailures.get(clazz);
+            RuntimeException failure = failures != null ? failures.get(name) : null;
+            if (failure != null) {
+                throw new InvalidRelationshipException(clazz, name, failure);
+            }
+        }
+        return relationship;
+    }
+
+    /**
+     * Returns a relationship of a resource, the relationship is resolved if it is not found in the registry e.g.
+     * because the resource is an instance of a subclass of a registered resource.
+     *
+     * @param clazz resource class
+     * @param field relationship field of the resource
+     * @return relationship
+     * @throws InvalidRelationshipException if the relationship couldn't be resolved when the resource was registered
+     */
+    public RelationshipDescriptor getRelationship(Class clazz, ResourceField field) {
+        RelationshipDescriptor relationship = findRelationship(clazz, field.getName());
+        if (relationship == null || !relationship.getField().equals(field)) {
+            relationship = new RelationshipDescriptor(clazz, field, entries.get().resources::get);
+        }
+        return relationship;
+    }
+
     public String getResourceType(Class clazz) {
         Annotation[] annotations = clazz.getAnnotations();
         for (Annotation annotation : annotations) {
@@ -62,4 +189,53 @@ public class ResourceRegistry {
     public String getServiceUrl() {
         return serviceUrl;
     }
+
+    /**
+     * Immutable state of the registry.
+     */
+    private static final class Entries {
+        private final Map<Class, RegistryEntry> resources;
+        private final Map<String, RegistryEntry> resourcesByType;
+        private final Map<Class, Map<String, RelationshipDescriptor>> relationships = new HashMap<>();
+        private final Map<Class, Map<String, RuntimeException>> relationshipFailures = new HashMap<>();
+        private final long version;
+
+        private Entries(Map<Class, RegistryEntry> resources, long version) {
+            this.resources = Collections.unmodifiableMap(resources);
+            Map<String, RegistryEntry> resourcesByType = new HashMap<>(resources.size() * 2);
+            for (Map.Entry<Class, RegistryEntry> entry : resources.entrySet()) {
+                JsonApiResource apiResource = (JsonApiResource) entry.getKey().getAnnotation(JsonApiResource.class);
+                if (apiResource != null) {
+                    resourcesByType.put(apiResource.type(), entry.getValue());
+                }
+            }
+            this.resourcesByType = resourcesByType;
+            resolveRelationships(resources);
+            this.version = version;
+        }
+
+        /**
+         * Resolves relationships of all resources. An invalid relationship doesn't prevent the other resources from
+         * being registered, its failure is kept and reported when the relationship is used.
+         */
+        private void resolveRelationships(Map<Class, RegistryEntry> resources) {
+            for (Map.Entry<Class, RegistryEntry> entry : resources.entrySet()) {
+                ResourceInformation resourceInformation = entry.getValue().getResourceInformation();
+                if (resourceInformation == null) {
+                    continue;
+                }
+                Map<String, RelationshipDescriptor> resourceRelationships = new HashMap<>();
+                for (ResourceField field : resourceInformation.getIndexedRelationshipFields()) {
+                    try {
+                        resourceRelationships.put(field.getName(),
+                            new RelationshipDescriptor(entry.getKey(), field, resources::get));
+                    } catch (RuntimeException e) {
+                        relationshipFailures.computeIfAbsent(entry.getKey(), key -> new HashMap<>())
+                            .put(field.getName(), e);
+                    }
+                }
+                relationships.put(entry.getKey(), resourceRelationships);
+            }
+        }
+    }
 }
@@ -6,6 +6,7 @@ import io.katharsis.repository.RelationshipRepository;
 import io.katharsis.repository.ResourceRepository;
 import io.katharsis.repository.exception.RepositoryInstanceNotFoundException;
 import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.resource.index.ResourceIndex;
 import io.katharsis.resource.information.ResourceInformation;
 import io.katharsis.resource.information.ResourceInformationBuilder;
 import net.jodah.typetools.TypeResolver;
@@ -13,9 +14,19 @@ import org.reflections.Reflections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -33,51 +44,148 @@ public class ResourceRegistryBuilder {
     }
 
     /**
-     * Scans all classes in provided package and finds all resources and repositories associated with found resource.
+     * Finds all resources and repositories associated with found resource in provided package. The classes are
+     * taken from {@link ResourceIndex} generated at compile time if the index covers the package, otherwise the
+     * package is scanned.
      *
      * @param packageName Package containing resources (models) and repositories.
      * @param serviceUrl  URL to the service
      * @return an instance of ResourceRegistry
      */
     public ResourceRegistry build(String packageName, @SuppressWarnings("SameParameterValue") String serviceUrl) {
-        Reflections reflections;
-        if (packageName != null) {
-            String[] packageNames = packageName.split(",");
-            reflections = new Reflections(packageNames);
-        } else {
-            reflections = new Reflections(packageName);
+        return build(packageName, serviceUrl, (Path) null);
+    }
+
+    /**
+     * Builds a registry from a {@link RegistrySnapshot} stored in a file if the snapshot is up to date, otherwise
+     * finds the resources and repositories as {@link #build(String, String)} does and stores a snapshot of them in
+     * the file. Snapshots are used only for packages covered by {@link ResourceIndex}, because the index is the only
+     * way a snapshot can notice resources added to the packages.
+     *
+     * @param packageName  Package containing resources (models) and repositories.
+     * @param serviceUrl   URL to the service
+     * @param snapshotFile file with a registry snapshot, can be <i>null</i> not to use a snapshot
+     * @return an instance of ResourceRegistry
+     */
+    @SuppressWarnings("unchecked")
+    public ResourceRegistry build(String packageName, String serviceUrl, Path snapshotFile) {
+        ClassLoader classLoader = getClassLoader();
+        ResourceIndex resourceIndex = ResourceIndex.load(classLoader);
+        boolean indexed = resourceIndex != null && resourceIndex.covers(packageName);
+        boolean snapshotUsed = snapshotFile != null && indexed;
+        if (snapshotFile != null && !indexed) {
+            logger.debug("Registry snapshot {} not used, {} is not covered by the resource index", snapshotFile,
+                packageName);
+        }
+        RegistrySnapshot snapshot = snapshotUsed ? readSnapshot(snapshotFile) : null;
+        if (snapshot != null && snapshot.isValid(packageName, classLoader)) {
+            logger.debug("Using registry snapshot {}", snapshotFile);
+            return build(serviceUrl, snapshot.restoreResourceInformations(classLoader),
+                snapshot.restoreResourceRepositoryClasses(classLoader),
+                snapshot.restoreRelationshipRepositoryClasses(classLoader));
         }
 
+        Set<Class<?>> jsonApiResources;
+        Set<Class<? extends ResourceRepository>> entityRepositoryClasses;
+        Set<Class<? extends RelationshipRepository>> relationshipRepositoryClasses;
 
-        Set<Class<?>> jsonApiResources = reflections.getTypesAnnotatedWith(JsonApiResource.class);
-        Set<Class<? extends ResourceRepository>> entityRepositoryClasses = reflections.getSubTypesOf(ResourceRepository.class);
-        Set<Class<? extends RelationshipRepository>> relationshipRepositoryClasses = reflections
-            .getSubTypesOf(RelationshipRepository.class);
+        if (indexed) {
+            logger.debug("Using resource index for {}", packageName);
+            jsonApiResources = resourceIndex.getResources(packageName);
+            entityRepositoryClasses = (Set) resourceIndex.getResourceRepositories(packageName);
+            relationshipRepositoryClasses = (Set) resourceIndex.getRelationshipRepositories(packageName);
+        } else {
+            Reflections reflections;
+            if (packageName != null) {
+                String[] packageNames = packageName.split(",");
+                reflections = new Reflections(packageNames);
+            } else {
+                reflections = new Reflections(packageName);
+            }
 
-        ResourceRegistry resourceRegistry = new ResourceRegistry(serviceUrl);
-        for (Class resourceClass : jsonApiResources) {
+            jsonApiResources = reflections.getTypesAnnotatedWith(JsonApiResource.class);
+            entityRepositoryClasses = reflections.getSubTypesOf(ResourceRepository.class);
+            relationshipRepositoryClasses = reflections.getSubTypesOf(RelationshipRepository.class);
+        }
+
+        Map<Class<?>, ResourceInformation> resourceInformations = resourceInformationBuilder.buildAll(jsonApiResources);
+        Map<Class<?>, Class<? extends ResourceRepository>> foundEntityRepositoryClasses = new HashMap<>();
+        Map<Class<?>, Set<Class<? extends RelationshipRepository>>> foundRelationshipRepositoryClasses = new HashMap<>();
+        for (Class<?> resourceClass : resourceInformations.keySet()) {
             Class<? extends ResourceRepository> foundEntityRepositoryClass = findEntityRepository(resourceClass,
                 entityRepositoryClasses);
+            if (foundEntityRepositoryClass != null) {
+                foundEntityRepositoryClasses.put(resourceClass, foundEntityRepositoryClass);
+            }
+            foundRelationshipRepositoryClasses.put(resourceClass,
+                findRelationshipRepositories(resourceClass, relationshipRepositoryClasses));
+        }
+
+        ResourceRegistry resourceRegistry = build(serviceUrl, resourceInformations, foundEntityRepositoryClasses,
+            foundRelationshipRepositoryClasses);
+        if (snapshotUsed) {
+            writeSnapshot(snapshotFile, RegistrySnapshot.capture(packageName, resourceInformations,
+                foundEntityRepositoryClasses, foundRelationshipRepositoryClasses,
+                resourceInformationBuilder.getResourceFieldNameTransformer(), classLoader));
+        }
+        return resourceRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResourceRegistry build(String serviceUrl, Map<Class<?>, ResourceInformation> resourceInformations,
+                                   Map<Class<?>, Class<? extends ResourceRepository>> entityRepositoryClasses,
+                                   Map<Class<?>, Set<Class<? extends RelationshipRepository>>> relationshipRepositoryClasses) {
+        Map<Class, RegistryEntry> registryEntries = new HashMap<>();
+        for (Map.Entry<Class<?>, ResourceInformation> resourceInformation : resourceInformations.entrySet()) {
+            Class resourceClass = resourceInformation.getKey();
+            Class<? extends ResourceRepository> foundEntityRepositoryClass = entityRepositoryClasses.get(resourceClass);
             Set<Class<? extends RelationshipRepository>> foundRelationshipRepositoriesClasses =
-                findRelationshipRepositories(resourceClass, relationshipRepositoryClasses);
+                relationshipRepositoryClasses.getOrDefault(resourceClass, Collections.emptySet());
 
             RegistryEntry registryEntry;
             if (foundEntityRepositoryClass == null) {
-                registryEntry = createNotFoundEntry(resourceClass, foundRelationshipRepositoriesClasses);
+                registryEntry = createNotFoundEntry(resourceClass, resourceInformation.getValue(),
+                    foundRelationshipRepositoriesClasses);
             } else {
-                registryEntry = createEntry(resourceClass, foundEntityRepositoryClass,
+                registryEntry = createEntry(resourceClass, resourceInformation.getValue(), foundEntityRepositoryClass,
                     foundRelationshipRepositoriesClasses);
             }
 
-            resourceRegistry.addEntry(resourceClass, registryEntry);
+            registryEntries.put(resourceClass, registryEntry);
         }
 
+        ResourceRegistry resourceRegistry = new ResourceRegistry(serviceUrl);
+        resourceRegistry.addEntries(registryEntries);
         return resourceRegistry;
     }
 
-    private RegistryEntry createNotFoundEntry(Class resourceClass,
+    private ClassLoader getClassLoader() {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : ResourceRegistryBuilder.class.getClassLoader();
+    }
+
+    private RegistrySnapshot readSnapshot(Path snapshotFile) {
+        if (!Files.isRegularFile(snapshotFile)) {
+            return null;
+        }
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(snapshotFile))) {
+            return RegistrySnapshot.readFrom(inputStream);
+        } catch (IOException e) {
+            logger.warn("Cannot read registry snapshot {}: {}", snapshotFile, e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeSnapshot(Path snapshotFile, RegistrySnapshot snapshot) {
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(snapshotFile))) {
+            snapshot.writeTo(outputStream);
+        } catch (IOException e) {
+            logger.warn("Cannot write registry snapshot {}: {}", snapshotFile, e.getMessage());
+        }
+    }
+
+    private RegistryEntry createNotFoundEntry(Class resourceClass, ResourceInformation resourceInformation,
                                               Set<Class<? extends RelationshipRepository>> foundRelationshipRepositoriesClasses) {
-        ResourceInformation resourceInformation = resourceInformationBuilder.build(resourceClass);
         ResourceRepository resourceRepository = new NotFoundRepository(resourceClass);
         List<RelationshipRepository> relationshipRepositories = initializeRelationshipRepositories(
             foundRelationshipRepositoriesClasses, resourceClass);
@@ -109,10 +217,9 @@ public class ResourceRegistryBuilder {
         return foundRelationshipRepositories;
     }
 
-    private RegistryEntry createEntry(Class resourceClass, Class<? extends ResourceRepository> foundEntityRepositoryClass,
+    private RegistryEntry createEntry(Class resourceClass, ResourceInformation resourceInformation,
+                                      Class<? extends ResourceRepository> foundEntityRepositoryClass,
                                       Set<Class<? extends RelationshipRepository>> foundRelationshipRepositoriesClasses) {
-        ResourceInformation resourceInformation = resourceInformationBuilder.build(resourceClass);
-
         ResourceRepository resourceRepository = context.getInstance(foundEntityRepositoryClass);
         if (resourceRepository == null) {
             throw new RepositoryInstanceNotFoundException(foundEntityRepositoryClass.getCanonicalName());
@@ -59,7 +59,7 @@ public class CollectionResponse implements BaseResponse<Iterable> {
 
     @Override
     public MetaInformation getMetaInformation() {
-        return metaInformation;
+        return LazyMetaInformation.resolve(metaInformation);
     }
 
     public void setData(Iterable data) {
@@ -4,6 +4,7 @@ import io.katharsis.jackson.serializer.ContainerSerializer;
 import io.katharsis.queryParams.RequestParams;
 
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * A class responsible for representing a single data filed within top-level JSON object returned by Katharsis. The
@@ -12,13 +13,25 @@ import java.util.Objects;
 public class Container {
     private Object data;
     private RequestParams requestParams;
+    private Set<String> includedRelationNames;
 
     public Container() {
     }
 
     public Container(Object data, RequestParams requestParams) {
+        this(data, requestParams, null);
+    }
+
+    /**
+     * @param data                  resource
+     * @param requestParams         parameters of the request
+     * @param includedRelationNames names of the included relationships of the resource at its position in the
+     *                              response, <i>null</i> to use {@link RequestParams#isRelationIncluded(String)}
+     */
+    public Container(Object data, RequestParams requestParams, Set<String> includedRelationNames) {
         this.data = data;
         this.requestParams = requestParams;
+        this.includedRelationNames = includedRelationNames;
     }
 
     public RequestParams getRequestParams() {
@@ -29,6 +42,28 @@ public class Container {
         this.requestParams = requestParams;
     }
 
+    /**
+     * @return names of the included relationships of the resource or <i>null</i> if they're not known
+     */
+    public Set<String> getIncludedRelationNames() {
+        return includedRelationNames;
+    }
+
+    public void setIncludedRelationNames(Set<String> includedRelationNames) {
+        this.includedRelationNames = includedRelationNames;
+    }
+
+    /**
+     * @param relationshipName name of a relationship of the resource
+     * @return <i>true</i> if the relationship is included in the response
+     */
+    public boolean isRelationIncluded(String relationshipName) {
+        if (includedRelationNames != null) {
+            return includedRelationNames.contains(relationshipName);
+        }
+        return requestParams != null && requestParams.isRelationIncluded(relationshipName);
+    }
+
     public Object getData() {
         return data;
     }
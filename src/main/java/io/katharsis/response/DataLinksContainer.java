@@ -1,6 +1,7 @@
 package io.katharsis.response;
 
 import io.katharsis.jackson.serializer.DataLinksContainerSerializer;
+import io.katharsis.queryParams.RequestParams;
 import io.katharsis.resource.field.ResourceField;
 
 import java.util.Objects;
@@ -23,10 +24,30 @@ import java.util.Set;
 public class DataLinksContainer {
     private final Object data;
     private final Set<ResourceField> relationshipFields;
+    private final RequestParams requestParams;
+    private final Set<String> includedRelationNames;
 
     public DataLinksContainer(Object data, Set<ResourceField> relationshipFields) {
+        this(data, relationshipFields, null);
+    }
+
+    public DataLinksContainer(Object data, Set<ResourceField> relationshipFields, RequestParams requestParams) {
+        this(data, relationshipFields, requestParams, null);
+    }
+
+    /**
+     * @param data                  resource
+     * @param relationshipFields    relationships to be written
+     * @param requestParams         parameters of the request
+     * @param includedRelationNames names of the included relationships of the resource, see
+     *                              {@link Container#getIncludedRelationNames()}
+     */
+    public DataLinksContainer(Object data, Set<ResourceField> relationshipFields, RequestParams requestParams,
+                              Set<String> includedRelationNames) {
         this.data = data;
         this.relationshipFields = relationshipFields;
+        this.requestParams = requestParams;
+        this.includedRelationNames = includedRelationNames;
     }
 
     public Object getData() {
@@ -37,6 +58,24 @@ public class DataLinksContainer {
         return relationshipFields;
     }
 
+    /**
+     * @return parameters of the request or <i>null</i> if not available
+     */
+    public RequestParams getRequestParams() {
+        return requestParams;
+    }
+
+    /**
+     * @param relationshipName name of a relationship of the resource
+     * @return <i>true</i> if the relationship is included in the response
+     */
+    public boolean isRelationIncluded(String relationshipName) {
+        if (includedRelationNames != null) {
+            return includedRelationNames.contains(relationshipName);
+        }
+        return requestParams != null && requestParams.isRelationIncluded(relationshipName);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
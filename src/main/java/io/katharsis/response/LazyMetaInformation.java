@@ -0,0 +1,47 @@
+package io.katharsis.response;
+
+import java.util.function.Supplier;
+
+/**
+ * Meta information computed when it's read for the first time. Responses return the computed meta information from
+ * {@link BaseResponse#getMetaInformation()}, so the computation runs only if the meta information is written.
+ */
+public final class LazyMetaInformation implements MetaInformation {
+
+    private final Supplier<MetaInformation> supplier;
+    private volatile boolean computed;
+    private MetaInformation metaInformation;
+
+    public LazyMetaInformation(Supplier<MetaInformation> supplier) {
+        if (supplier == null) {
+            throw new IllegalArgumentException("supplier cannot be null");
+        }
+        this.supplier = supplier;
+    }
+
+    /**
+     * @return meta information returned by the supplier, the supplier is called only once
+     */
+    public MetaInformation get() {
+        if (!computed) {
+            synchronized (this) {
+                if (!computed) {
+                    metaInformation = supplier.get();
+                    computed = true;
+                }
+            }
+        }
+        return metaInformation;
+    }
+
+    /**
+     * @param metaInformation meta information, can be <i>null</i>
+     * @return computed meta information if the argument is lazy, the argument otherwise
+     */
+    public static MetaInformation resolve(MetaInformation metaInformation) {
+        if (metaInformation instanceof LazyMetaInformation) {
+            return ((LazyMetaInformation) metaInformation).get();
+        }
+        return metaInformation;
+    }
+}
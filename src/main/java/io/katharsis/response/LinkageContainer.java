@@ -16,6 +16,8 @@ import java.util.Objects;
  * }
  * }
  * </pre>
+ * A container can hold either the target object or only the identifier of the target, see
+ * {@link #forId(Object, Class, RegistryEntry)}.
  *
  * @see LinkageContainerSerializer
  */
@@ -24,11 +26,33 @@ public class LinkageContainer {
     private final Object objectItem;
     private final Class relationshipClass;
     private final RegistryEntry relationshipEntry;
+    private final Object targetId;
 
     public LinkageContainer(Object objectItem, Class relationshipClass, RegistryEntry relationshipEntry) {
+        this(objectItem, relationshipClass, relationshipEntry, null);
+    }
+
+    private LinkageContainer(Object objectItem, Class relationshipClass, RegistryEntry relationshipEntry,
+                             Object targetId) {
         this.objectItem = objectItem;
         this.relationshipClass = relationshipClass;
         this.relationshipEntry = relationshipEntry;
+        this.targetId = targetId;
+    }
+
+    /**
+     * Creates a linkage container of a target known only by its identifier.
+     *
+     * @param targetId identifier of the target
+     * @param relationshipClass class of the target
+     * @param relationshipEntry registry entry of the target
+     * @return linkage container without the target object
+     */
+    public static LinkageContainer forId(Object targetId, Class relationshipClass, RegistryEntry relationshipEntry) {
+        if (targetId == null) {
+            throw new IllegalArgumentException("targetId cannot be null");
+        }
+        return new LinkageContainer(null, relationshipClass, relationshipEntry, targetId);
     }
 
     public Object getObjectItem() {
@@ -43,6 +67,13 @@ public class LinkageContainer {
         return relationshipEntry;
     }
 
+    /**
+     * @return identifier of the target if the container was created using {@link #forId(Object, Class, RegistryEntry)}
+     */
+    public Object getTargetId() {
+        return targetId;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -50,11 +81,12 @@ public class LinkageContainer {
         LinkageContainer that = (LinkageContainer) o;
         return Objects.equals(objectItem, that.objectItem) &&
                 Objects.equals(relationshipClass, that.relationshipClass) &&
-                Objects.equals(relationshipEntry, that.relationshipEntry);
+                Objects.equals(relationshipEntry, that.relationshipEntry) &&
+                Objects.equals(targetId, that.targetId);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(objectItem, relationshipClass, relationshipEntry);
+        return Objects.hash(objectItem, relationshipClass, relationshipEntry, targetId);
     }
 }
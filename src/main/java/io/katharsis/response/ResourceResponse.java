@@ -62,7 +62,7 @@ public class ResourceResponse implements BaseResponse {
 
     @Override
     public MetaInformation getMetaInformation() {
-        return metaInformation;
+        return LazyMetaInformation.resolve(metaInformation);
     }
 
     @Override
@@ -0,0 +1,41 @@
+package io.katharsis.utils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Read access to a single bean property resolved by {@link PropertyUtils#findPropertyAccessor(Class, String)}. An
+ * instance can be reused for every bean of the class it has been resolved for.
+ */
+public final class PropertyAccessor {
+
+    private final Method getter;
+    private final Field field;
+
+    PropertyAccessor(Method getter) {
+        this.getter = getter;
+        this.field = null;
+    }
+
+    PropertyAccessor(Field field) {
+        this.getter = null;
+        this.field = field;
+    }
+
+    public Object getValue(Object bean) {
+        try {
+            if (getter != null) {
+                return getter.invoke(bean);
+            } else {
+                return field.get(bean);
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public Class<?> getType() {
+        return getter != null ? getter.getReturnType() : field.getType();
+    }
+}
@@ -7,6 +7,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * <p>
@@ -18,6 +21,14 @@ public class PropertyUtils {
 
     private static final PropertyUtils INSTANCE = new PropertyUtils();
 
+    private static final ClassValue<ConcurrentMap<String, Optional<PropertyAccessor>>> ACCESSORS =
+        new ClassValue<ConcurrentMap<String, Optional<PropertyAccessor>>>() {
+            @Override
+            protected ConcurrentMap<String, Optional<PropertyAccessor>> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
     private PropertyUtils() {
     }
 
@@ -43,11 +54,32 @@ public class PropertyUtils {
     public static Object getProperty(Object bean, String field) {
         INSTANCE.checkParameters(bean, field);
 
-        try {
-            return INSTANCE.getPropertyValue(bean, field);
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
+        PropertyAccessor accessor = findPropertyAccessor(bean.getClass(), field);
+        if (accessor == null) {
+            throw new RuntimeException(
+                String.format("Cannot find an getter for %s.%s", bean.getClass().getCanonicalName(), field));
         }
+        return accessor.getValue(bean);
+    }
+
+    /**
+     * Find a reusable accessor of a class property. The lookup follows the same rules as
+     * {@link #getProperty(Object, String)}, but is made only once for each class and property name.
+     *
+     * @param beanClass class of the accessed beans
+     * @param field     bean's fieldName
+     * @return property accessor or <i>null</i> if the class doesn't expose the property
+     */
+    public static PropertyAccessor findPropertyAccessor(Class<?> beanClass, String field) {
+        if (beanClass == null) {
+            throw new IllegalArgumentException("No bean class specified");
+        }
+        if (field == null) {
+            throw new IllegalArgumentException(String.format("No field specified for bean: %s", beanClass));
+        }
+        return ACCESSORS.get(beanClass)
+            .computeIfAbsent(field, fieldName -> Optional.ofNullable(INSTANCE.resolveAccessor(beanClass, fieldName)))
+            .orElse(null);
     }
 
     private void checkParameters(Object bean, String field) {
@@ -59,29 +91,26 @@ public class PropertyUtils {
         }
     }
 
-    private Object getPropertyValue(Object bean, String fieldName)
-        throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
-
-        Field foundField = findField(bean, fieldName);
+    private PropertyAccessor resolveAccessor(Class<?> beanClass, String fieldName) {
+        Field foundField = findField(beanClass, fieldName);
         if (foundField != null) {
             if (!Modifier.isPublic(foundField.getModifiers())) {
-                Method getter = getGetter(bean, foundField.getName());
-                return getter.invoke(bean);
+                try {
+                    return new PropertyAccessor(getGetter(beanClass, foundField.getName()));
+                } catch (NoSuchMethodException e) {
+                    return null;
+                }
             } else {
-                return foundField.get(bean);
+                return new PropertyAccessor(foundField);
             }
         } else {
-            Method getter = findGetter(bean, fieldName);
-            if (getter == null) {
-                throw new RuntimeException(
-                    String.format("Cannot find an getter for %s.%s", bean.getClass().getCanonicalName(), fieldName));
-            }
-            return getter.invoke(bean);
+            Method getter = findGetter(beanClass, fieldName);
+            return getter != null ? new PropertyAccessor(getter) : null;
         }
     }
 
-    private Method findGetter(Object bean, String fieldName) {
-        List<Method> classGetters = ClassUtils.getClassGetters(bean.getClass());
+    private Method findGetter(Class<?> beanClass, String fieldName) {
+        List<Method> classGetters = ClassUtils.getClassGetters(beanClass);
 
         for (Method getter : classGetters) { // The first loop tries to get name from annotation
             if (getter.isAnnotationPresent(JsonProperty.class)
@@ -110,8 +139,8 @@ public class PropertyUtils {
         return boolean.class.equals(returnType) || Boolean.class.equals(returnType);
     }
 
-    private Field findField(Object bean, String fieldName) {
-        List<Field> classFields = ClassUtils.getClassFields(bean.getClass());
+    private Field findField(Class<?> beanClass, String fieldName) {
+        List<Field> classFields = ClassUtils.getClassFields(beanClass);
         for (Field field : classFields) { // The first loop tries to get name from annotation
             if (field.isAnnotationPresent(JsonProperty.class)
                 && fieldName.equals(field.getAnnotation(JsonProperty.class).value())) {
@@ -126,9 +155,7 @@ public class PropertyUtils {
         return null;
     }
 
-    private Method getGetter(Object bean, String fieldName) throws NoSuchMethodException {
-        Class<?> beanClass = bean.getClass();
-
+    private Method getGetter(Class<?> beanClass, String fieldName) throws NoSuchMethodException {
         String upperCaseName = fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
 
         try {
@@ -173,7 +200,7 @@ public class PropertyUtils {
 
     private void setPropertyValue(Object bean, String fieldName, Object value)
         throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
-        Field foundField = findField(bean, fieldName);
+        Field foundField = findField(bean.getClass(), fieldName);
 
         if (foundField != null) {
             if ( !Modifier.isPublic(foundField.getModifiers())) {
@@ -183,7 +210,7 @@ public class PropertyUtils {
                 foundField.set(bean, value);
             }
         } else {
-            Method getter = findGetter(bean, fieldName);
+            Method getter = findGetter(bean.getClass(), fieldName);
             if (getter == null) {
                 throw new RuntimeException(
                     String.format("Cannot find an getter for %s.%s", bean.getClass().getCanonicalName(), fieldName));
@@ -8,6 +8,6 @@ import io.katharsis.errorhandling.exception.KatharsisMatchingException;
 class ParserException extends KatharsisMatchingException {
 
     public ParserException(String message) {
-        super(message);
+        super(message, isRoutineStackTraceCaptured());
     }
 }
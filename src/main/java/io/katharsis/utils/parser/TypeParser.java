@@ -1,12 +1,19 @@
 package io.katharsis.utils.parser;
 
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * Parses {@link String} into an instance of provided {@link Class}. It support the following classes:
@@ -24,10 +31,23 @@ import java.util.List;
  *     <li>{@link Boolean} and {@link boolean}</li>
  *     <li>An {@link Enum}</li>
  *     <li>A class with a {@link String} only constructor</li>
+ *     <li>A class with a static <i>valueOf</i>, <i>parse</i> or <i>fromString</i> factory method accepting a
+ *     {@link String} or {@link CharSequence}, e.g. {@link java.util.UUID} and {@link java.time} types</li>
  * </ol>
+ * A parser is resolved once for each class and reused for all of the following inputs.
  */
 public class TypeParser {
 
+    private static final String[] FACTORY_METHOD_NAMES = {"valueOf", "parse", "fromString"};
+    private static final MethodType PARSER_TYPE = MethodType.methodType(Object.class, String.class);
+
+    private final ClassValue<StandardTypeParser<?>> parsers = new ClassValue<StandardTypeParser<?>>() {
+        @Override
+        protected StandardTypeParser<?> computeValue(Class<?> type) {
+            return resolveParser(type);
+        }
+    };
+
     /**
      * Parses an {@link Iterable} of String instances to {@link Iterable} of parsed values.
      * @param inputs list of Strings
@@ -36,9 +56,11 @@ public class TypeParser {
      * @return {@link Iterable} of parsed values
      */
     public <T extends Serializable> Iterable<T> parse(Iterable<String> inputs, Class<T> clazz) {
-        List<T> parsedValues = new LinkedList<>();
+        StandardTypeParser<?> parser = parsers.get(clazz);
+        List<T> parsedValues = inputs instanceof Collection ?
+            new ArrayList<>(((Collection<String>) inputs).size()) : new ArrayList<>();
         for (String input : inputs) {
-            parsedValues.add(parse(input, clazz));
+            parsedValues.add(parse(input, parser));
         }
 
         return parsedValues;
@@ -52,46 +74,101 @@ public class TypeParser {
      * @return instance of parsed value
      */
     public <T extends Serializable> T parse(String input, Class<T> clazz) {
+        return parse(input, parsers.get(clazz));
+    }
+
+    /**
+     * Returns a parser of a class, so the parser of the class is looked up once for all of the inputs.
+     *
+     * @param clazz type to be parsed to
+     * @param <T> type of class
+     * @return function parsing a {@link String} to an instance of the class
+     */
+    public <T extends Serializable> Function<String, T> getParser(Class<T> clazz) {
+        StandardTypeParser<?> parser = parsers.get(clazz);
+        return input -> parse(input, parser);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Serializable> T parse(String input, StandardTypeParser<?> parser) {
         try {
-            return parseInput(input, clazz);
-        } catch (InvocationTargetException | InstantiationException | IllegalAccessException | NoSuchMethodException |
-                NumberFormatException | ParserException
-                e) {
+            return (T) parser.parse(input);
+        } catch (NumberFormatException | ParserException e) {
             throw new ParserException(e.getMessage());
         }
     }
 
     @SuppressWarnings("unchecked")
-    private <T extends Serializable> T parseInput(String input, Class<T> clazz)
-            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
-        T parsedValue;
+    private StandardTypeParser<?> resolveParser(Class<?> clazz) {
         if (String.class.equals(clazz)) {
-            parsedValue = (T) input;
+            return input -> input;
         } else if (StandardTypeParsers.parsers.containsKey(clazz)) {
-            StandardTypeParser standardTypeParser = StandardTypeParsers.parsers.get(clazz);
-
-            parsedValue = (T) standardTypeParser.parse(input);
+            return StandardTypeParsers.parsers.get(clazz);
         } else if (isEnum(clazz)) {
-            parsedValue = (T) Enum.valueOf((Class<Enum>)clazz.asSubclass(Enum.class), input.trim());
-        } else if (containsStringConstructor(clazz)) {
-            parsedValue = clazz.getDeclaredConstructor(String.class).newInstance(input);
-        } else {
-            throw new ParserException(String.format("Cannot parse to %s : %s", clazz.getName(), input));
+            Class<Enum> enumClass = (Class<Enum>) clazz.asSubclass(Enum.class);
+            return input -> Enum.valueOf(enumClass, input.trim());
+        }
+
+        MethodHandle handle = findStringConstructor(clazz);
+        if (handle == null) {
+            handle = findFactoryMethod(clazz);
+        }
+        if (handle == null) {
+            return input -> {
+                throw new ParserException(String.format("Cannot parse to %s : %s", clazz.getName(), input));
+            };
         }
-        return parsedValue;
+        MethodHandle parserHandle = handle.asType(PARSER_TYPE);
+        return input -> {
+            try {
+                return parserHandle.invokeExact(input);
+            } catch (Exception e) {
+                throw new ParserException(e.getMessage());
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        };
     }
 
-    private <T extends Serializable> boolean isEnum(Class<T> clazz) {
+    private boolean isEnum(Class<?> clazz) {
         return clazz.isEnum();
     }
 
-    private boolean containsStringConstructor(Class<?> clazz) throws NoSuchMethodException {
-        boolean result = false;
+    private MethodHandle findStringConstructor(Class<?> clazz) {
         for (Constructor constructor : clazz.getDeclaredConstructors()) {
             if (constructor.getParameterCount() == 1 && constructor.getParameterTypes()[0] == String.class) {
-                result = true;
+                try {
+                    constructor.setAccessible(true);
+                    return MethodHandles.lookup().unreflectConstructor(constructor);
+                } catch (IllegalAccessException | SecurityException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private MethodHandle findFactoryMethod(Class<?> clazz) {
+        for (String methodName : FACTORY_METHOD_NAMES) {
+            for (Class<?> parameterType : new Class<?>[]{String.class, CharSequence.class}) {
+                Method method;
+                try {
+                    method = clazz.getMethod(methodName, parameterType);
+                } catch (NoSuchMethodException e) {
+                    continue;
+                }
+                if (Modifier.isStatic(method.getModifiers()) && clazz.isAssignableFrom(method.getReturnType())) {
+                    try {
+                        method.setAccessible(true);
+                        return MethodHandles.lookup().unreflect(method);
+                    } catch (IllegalAccessException | SecurityException e) {
+                        return null;
+                    }
+                }
             }
         }
-        return result;
+        return null;
     }
 }
@@ -1,28 +1,48 @@
 package io.katharsis.dispatcher;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.katharsis.dispatcher.controller.BaseController;
 import io.katharsis.dispatcher.controller.collection.CollectionGet;
 import io.katharsis.dispatcher.registry.ControllerRegistry;
+import io.katharsis.dispatcher.registry.ControllerRegistryBuilder;
 import io.katharsis.errorhandling.ErrorResponse;
+import io.katharsis.errorhandling.exception.KatharsisMatchingException;
 import io.katharsis.errorhandling.mapper.ExceptionMapperRegistryTest;
+import io.katharsis.jackson.FragmentCache;
+import io.katharsis.jackson.JsonApiFormat;
+import io.katharsis.jackson.JsonApiModuleBuilder;
 import io.katharsis.locator.SampleJsonServiceLocator;
 import io.katharsis.queryParams.RequestParams;
 import io.katharsis.request.path.JsonPath;
 import io.katharsis.request.path.PathBuilder;
 import io.katharsis.resource.field.ResourceFieldNameTransformer;
 import io.katharsis.resource.information.ResourceInformationBuilder;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.mock.repository.TaskRepository;
 import io.katharsis.resource.registry.ResourceRegistry;
 import io.katharsis.resource.registry.ResourceRegistryBuilder;
 import io.katharsis.resource.registry.ResourceRegistryBuilderTest;
 import io.katharsis.resource.registry.ResourceRegistryTest;
 import io.katharsis.response.BaseResponse;
 import io.katharsis.response.HttpStatus;
+import io.katharsis.utils.parser.TypeParser;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.Mockito.*;
 
 public class RequestDispatcherTest {
@@ -32,6 +52,9 @@ public class RequestDispatcherTest {
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Before
     public void prepare() {
         ResourceInformationBuilder resourceInformationBuilder = new ResourceInformationBuilder(
@@ -63,12 +86,43 @@ public class RequestDispatcherTest {
         verify(collectionGet, times(1)).handle(any(JsonPath.class), any(RequestParams.class), any());
     }
 
+    @Test
+    public void onNotAcceptedRequestShouldReturnNotAcceptedResponse() throws Exception {
+        // GIVEN
+        JsonPath jsonPath = new PathBuilder(resourceRegistry).buildPath("/tasks/1");
+        RequestDispatcher sut = new RequestDispatcher(new ControllerRegistry(null),
+            ExceptionMapperRegistryTest.exceptionMapperRegistry);
+        ErrorResponse notAcceptedResponse = ErrorResponse.builder().setStatus(HttpStatus.NOT_FOUND_404).build();
+
+        // WHEN
+        BaseResponse<?> response = sut.dispatchRequest(jsonPath, "GET", new RequestParams(new ObjectMapper()), null,
+            notAcceptedResponse);
+
+        // THEN
+        assertThat(response).isSameAs(notAcceptedResponse);
+    }
+
+    @Test
+    public void onNotAcceptedRequestShouldThrowMatchingException() throws Exception {
+        // GIVEN
+        JsonPath jsonPath = new PathBuilder(resourceRegistry).buildPath("/tasks/1");
+        RequestDispatcher sut = new RequestDispatcher(new ControllerRegistry(null),
+            ExceptionMapperRegistryTest.exceptionMapperRegistry);
+
+        // WHEN
+        Throwable result = catchThrowable(() ->
+            sut.dispatchRequest(jsonPath, "GET", new RequestParams(new ObjectMapper()), null));
+
+        // THEN
+        assertThat(result).isInstanceOf(KatharsisMatchingException.class);
+    }
+
     @Test
     public void shouldMapExceptionToErrorResponseIfMapperIsAvailable() throws Exception {
 
         ControllerRegistry controllerRegistry = mock(ControllerRegistry.class);
         //noinspection unchecked
-        when(controllerRegistry.getController(any(JsonPath.class), anyString())).thenThrow(IllegalStateException.class);
+        when(controllerRegistry.findController(any(JsonPath.class), anyString())).thenThrow(IllegalStateException.class);
 
         RequestDispatcher requestDispatcher = new RequestDispatcher(controllerRegistry,
             ExceptionMapperRegistryTest.exceptionMapperRegistry);
@@ -87,7 +141,7 @@ public class RequestDispatcherTest {
     public void shouldThrowExceptionAsIsIfMapperIsNotAvailable() throws Exception {
         ControllerRegistry controllerRegistry = mock(ControllerRegistry.class);
         //noinspection unchecked
-        when(controllerRegistry.getController(any(JsonPath.class), anyString())).thenThrow(ArithmeticException.class);
+        when(controllerRegistry.findController(any(JsonPath.class), anyString())).thenThrow(ArithmeticException.class);
 
         RequestDispatcher requestDispatcher = new RequestDispatcher(controllerRegistry,
             ExceptionMapperRegistryTest.exceptionMapperRegistry);
@@ -96,4 +150,85 @@ public class RequestDispatcherTest {
 
         BaseResponse<?> response = requestDispatcher.dispatchRequest(null, null, null, null);
     }
+
+    @Test
+    public void onDispatchAndWriteShouldWriteResponseToOpenStream() throws Exception {
+        // GIVEN
+        ControllerRegistry controllerRegistry = mock(ControllerRegistry.class);
+        //noinspection unchecked
+        when(controllerRegistry.findController(any(JsonPath.class), anyString())).thenThrow(IllegalStateException.class);
+        ObjectMapper objectMapper = new JsonApiModuleBuilder().buildObjectMapper(resourceRegistry, JsonApiFormat.JSON);
+        RequestDispatcher sut = new RequestDispatcher(controllerRegistry,
+            ExceptionMapperRegistryTest.exceptionMapperRegistry, objectMapper);
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+
+        // WHEN
+        BaseResponse<?> response = sut.dispatchAndWrite(null, null, null, null, outputStream);
+
+        // THEN
+        assertThat(response).isExactlyInstanceOf(ErrorResponse.class);
+        assertThat(closed.get()).isFalse();
+        assertThat(outputStream.toString("UTF-8")).isEqualTo(objectMapper.writeValueAsString(response));
+    }
+
+    @Test
+    public void onDispatchAndWriteInFormatShouldWriteResponseToFile() throws Exception {
+        // GIVEN
+        Task task = new Task();
+        task.setName("written to a file");
+        new TaskRepository().save(task);
+        JsonPath jsonPath = new PathBuilder(resourceRegistry).buildPath("/tasks");
+        ObjectMapper objectMapper = new ObjectMapper();
+        ControllerRegistry controllerRegistry =
+            new ControllerRegistryBuilder(resourceRegistry, new TypeParser(), objectMapper).build();
+        RequestDispatcher sut = new RequestDispatcher(controllerRegistry,
+            ExceptionMapperRegistryTest.exceptionMapperRegistry, resourceRegistry, new JsonApiModuleBuilder(), null);
+        Path jsonFile = temporaryFolder.newFile().toPath();
+        Path ndjsonFile = temporaryFolder.newFile().toPath();
+
+        // WHEN
+        try (OutputStream outputStream = Files.newOutputStream(jsonFile)) {
+            sut.dispatchAndWrite(jsonPath, "GET", new RequestParams(objectMapper), null, JsonApiFormat.JSON,
+                outputStream);
+        }
+        try (OutputStream outputStream = Files.newOutputStream(ndjsonFile)) {
+            sut.dispatchAndWrite(jsonPath, "GET", new RequestParams(objectMapper), null, JsonApiFormat.NDJSON,
+                outputStream);
+        }
+
+        // THEN
+        JsonNode document = objectMapper.readTree(jsonFile.toFile());
+        List<String> lines = Files.readAllLines(ndjsonFile);
+        assertThat(lines).hasSize(document.get("data").size());
+        for (int i = 0; i < lines.size(); i++) {
+            assertThat(objectMapper.readTree(lines.get(i))).isEqualTo(document.get("data").get(i));
+        }
+        assertThat(lines.stream().anyMatch(line -> line.contains("written to a file"))).isTrue();
+    }
+
+    @Test
+    public void onWriteRequestShouldInvalidateFragmentsOfChangedResource() throws Exception {
+        // GIVEN
+        JsonPath jsonPath = new PathBuilder(resourceRegistry).buildPath("/tasks/1/relationships/project");
+        ControllerRegistry controllerRegistry = mock(ControllerRegistry.class);
+        when(controllerRegistry.findController(jsonPath, "PATCH")).thenReturn(Optional.of(mock(BaseController.class)));
+        FragmentCache fragmentCache = new FragmentCache(1024 * 1024);
+        fragmentCache.put("tasks", "1", 1L, "variant", "{}");
+        fragmentCache.put("tasks", "2", 1L, "variant", "{}");
+        RequestDispatcher sut = new RequestDispatcher(controllerRegistry,
+            ExceptionMapperRegistryTest.exceptionMapperRegistry, null, fragmentCache);
+
+        // WHEN
+        sut.dispatchRequest(jsonPath, "PATCH", new RequestParams(new ObjectMapper()), null);
+
+        // THEN
+        assertThat(fragmentCache.get("tasks", "1", 1L, "variant")).isNull();
+        assertThat(fragmentCache.get("tasks", "2", 1L, "variant")).isEqualTo("{}");
+    }
 }
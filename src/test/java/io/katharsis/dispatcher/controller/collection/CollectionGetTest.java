@@ -4,10 +4,16 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.katharsis.dispatcher.controller.BaseControllerTest;
 import io.katharsis.request.path.JsonPath;
 import io.katharsis.queryParams.RequestParams;
+import io.katharsis.queryParams.RequestParamsBuilder;
+import io.katharsis.repository.MetaRepository;
 import io.katharsis.response.BaseResponse;
+import io.katharsis.response.LazyMetaInformation;
+import io.katharsis.response.MetaInformation;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.*;
+
 public class CollectionGetTest extends BaseControllerTest {
 
     private static final String REQUEST_TYPE = "GET";
@@ -65,4 +71,53 @@ public class CollectionGetTest extends BaseControllerTest {
         // THEN
         Assert.assertNotNull(response);
     }
+
+    @Test
+    public void onMetaRepositoryShouldComputeRequestedExpensiveKeysWhenMetaIsRead() {
+        // GIVEN
+        CollectionGet sut = new CollectionGet(resourceRegistry, typeParser);
+        List<Set<String>> computedKeys = new ArrayList<>();
+        MetaRepository<Object> repository = new MetaRepository<Object>() {
+            @Override
+            public MetaInformation getMetaInformation(Iterable<Object> resources) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Set<String> getExpensiveMetaKeys() {
+                return new HashSet<>(Arrays.asList("total", "histogram"));
+            }
+
+            @Override
+            public MetaInformation getMetaInformation(Iterable<Object> resources, Set<String> expensiveKeys) {
+                computedKeys.add(expensiveKeys);
+                return new MetaInformation() {};
+            }
+        };
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+            .buildRequestParams(Collections.singletonMap(RequestParamsBuilder.INCLUDE_META_KEY, "[\"total\"]"));
+
+        // WHEN
+        MetaInformation result = sut.getMetaInformation(repository, Collections.emptyList(), requestParams);
+
+        // THEN
+        Assert.assertTrue(computedKeys.isEmpty());
+        Assert.assertNotNull(LazyMetaInformation.resolve(result));
+        Assert.assertEquals(Collections.singletonList(Collections.singleton("total")), computedKeys);
+    }
+
+    @Test
+    public void onOmittedMetaShouldNotReturnMetaInformation() {
+        // GIVEN
+        CollectionGet sut = new CollectionGet(resourceRegistry, typeParser);
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+            .buildRequestParams(Collections.singletonMap(RequestParamsBuilder.OMIT_META_KEY, "true"));
+
+        // WHEN
+        MetaInformation result = sut.getMetaInformation((MetaRepository) resources -> new MetaInformation() {},
+            Collections.emptyList(), requestParams);
+
+        // THEN
+        Assert.assertNull(result);
+    }
 }
@@ -5,11 +5,29 @@ import io.katharsis.dispatcher.controller.BaseControllerTest;
 import io.katharsis.queryParams.RequestParams;
 import io.katharsis.request.path.JsonPath;
 import io.katharsis.request.path.ResourcePath;
+import io.katharsis.repository.MetaRepository;
+import io.katharsis.repository.RelationshipIdRepository;
+import io.katharsis.repository.RelationshipRepository;
+import io.katharsis.request.path.PathBuilder;
+import io.katharsis.resource.annotations.JsonApiId;
+import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.resource.annotations.JsonApiToMany;
+import io.katharsis.resource.field.ResourceFieldNameTransformer;
+import io.katharsis.resource.information.ResourceInformationBuilder;
+import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.registry.ProgrammaticResourceRegistryBuilder;
 import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistryTest;
 import io.katharsis.response.BaseResponse;
+import io.katharsis.response.LazyMetaInformation;
+import io.katharsis.response.LinkageContainer;
+import io.katharsis.response.MetaInformation;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Collections;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 
@@ -72,4 +90,139 @@ public class RelationshipsResourceGetTest extends BaseControllerTest {
         // THEN
         Assert.assertNotNull(response);
     }
+
+    @Test
+    public void onRelationshipIdRepositoryShouldReturnLinkageOfTargetIds() throws Exception {
+        // GIVEN
+        TeamToProjectRepository teamToProjectRepository = new TeamToProjectRepository();
+        ResourceRegistry resourceRegistry = buildTeamRegistry(teamToProjectRepository);
+        JsonPath jsonPath = new PathBuilder(resourceRegistry).buildPath("/teams/1/relationships/projects");
+        RelationshipsResourceGet sut = new RelationshipsResourceGet(resourceRegistry, typeParser);
+
+        // WHEN
+        BaseResponse<?> response = sut.handle(jsonPath, new RequestParams(new ObjectMapper()), null);
+
+        // THEN
+        @SuppressWarnings("unchecked")
+        List<LinkageContainer> data = (List<LinkageContainer>) response.getData();
+        assertThat(data).hasSize(1);
+        assertThat(data.get(0).getTargetId()).isEqualTo(42L);
+        assertThat(data.get(0).getObjectItem()).isNull();
+        assertThat(teamToProjectRepository.fetchedTargets).isEqualTo(0);
+    }
+
+    @Test
+    public void onRelationshipIdRepositoryShouldReturnMetaInformationOfTargets() throws Exception {
+        // GIVEN
+        TeamToProjectRepository teamToProjectRepository = new TeamToProjectRepository();
+        ResourceRegistry resourceRegistry = buildTeamRegistry(teamToProjectRepository);
+        JsonPath jsonPath = new PathBuilder(resourceRegistry).buildPath("/teams/1/relationships/projects");
+        RelationshipsResourceGet sut = new RelationshipsResourceGet(resourceRegistry, typeParser);
+
+        // WHEN
+        BaseResponse<?> response = sut.handle(jsonPath, new RequestParams(new ObjectMapper()), null);
+
+        // THEN
+        MetaInformation metaInformation = LazyMetaInformation.resolve(response.getMetaInformation());
+        assertThat(metaInformation).isInstanceOf(TargetCount.class);
+        assertThat(((TargetCount) metaInformation).count).isEqualTo(1);
+        assertThat(teamToProjectRepository.fetchedTargets).isEqualTo(1);
+    }
+
+    private static ResourceRegistry buildTeamRegistry(TeamToProjectRepository teamToProjectRepository) {
+        return new ProgrammaticResourceRegistryBuilder(new ResourceInformationBuilder(new ResourceFieldNameTransformer()))
+            .register(Team.class)
+                .relationship(teamToProjectRepository)
+            .register(Project.class)
+            .build(ResourceRegistryTest.TEST_MODELS_URL);
+    }
+
+    @JsonApiResource(type = "teams")
+    public static class Team {
+
+        @JsonApiId
+        private Long id;
+
+        @JsonApiToMany
+        private List<Project> projects;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public List<Project> getProjects() {
+            return projects;
+        }
+
+        public void setProjects(List<Project> projects) {
+            this.projects = projects;
+        }
+    }
+
+    public static class TargetCount implements MetaInformation {
+
+        private final int count;
+
+        public TargetCount(int count) {
+            this.count = count;
+        }
+    }
+
+    public static class TeamToProjectRepository implements RelationshipRepository<Team, Long, Project, Long>,
+        RelationshipIdRepository<Long, Long>, MetaRepository<Project> {
+
+        private int fetchedTargets;
+
+        @Override
+        public void setRelation(Team source, Long targetId, String fieldName) {
+        }
+
+        @Override
+        public void setRelations(Team source, Iterable<Long> targetIds, String fieldName) {
+        }
+
+        @Override
+        public void addRelations(Team source, Iterable<Long> targetIds, String fieldName) {
+        }
+
+        @Override
+        public void removeRelations(Team source, Iterable<Long> targetIds, String fieldName) {
+        }
+
+        @Override
+        public Project findOneTarget(Long sourceId, String fieldName, RequestParams requestParams) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Iterable<Project> findManyTargets(Long sourceId, String fieldName, RequestParams requestParams) {
+            fetchedTargets++;
+            Project project = new Project();
+            project.setId(42L);
+            return Collections.singletonList(project);
+        }
+
+        @Override
+        public Long findOneTargetId(Long sourceId, String fieldName, RequestParams requestParams) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Iterable<Long> findManyTargetIds(Long sourceId, String fieldName, RequestParams requestParams) {
+            return Collections.singletonList(42L);
+        }
+
+        @Override
+        public MetaInformation getMetaInformation(Iterable<Project> resources) {
+            int count = 0;
+            for (Project ignored : resources) {
+                count++;
+            }
+            return new TargetCount(count);
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package io.katharsis.dispatcher.registry;
 
+import io.katharsis.dispatcher.controller.BaseController;
+import io.katharsis.dispatcher.controller.collection.CollectionGet;
 import io.katharsis.locator.SampleJsonServiceLocator;
 import io.katharsis.request.path.JsonPath;
 import io.katharsis.request.path.PathBuilder;
@@ -14,6 +16,16 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class ControllerRegistryTest {
 
     private ResourceRegistry resourceRegistry;
@@ -45,4 +57,50 @@ public class ControllerRegistryTest {
         // WHEN
         sut.getController(jsonPath, requestType);
     }
+
+    @Test
+    public void onUnsupportedRequestFindControllerShouldReturnEmpty() {
+        // GIVEN
+        PathBuilder pathBuilder = new PathBuilder(resourceRegistry);
+        JsonPath jsonPath = pathBuilder.buildPath("/tasks/");
+        ControllerRegistry sut = new ControllerRegistry(null);
+
+        // WHEN
+        Optional<BaseController> controller = sut.findController(jsonPath, "PATCH");
+
+        // THEN
+        assertThat(controller.isPresent()).isFalse();
+    }
+
+    @Test
+    public void onControllersAddedConcurrentlyShouldKeepAllControllers() throws Exception {
+        // GIVEN
+        PathBuilder pathBuilder = new PathBuilder(resourceRegistry);
+        JsonPath jsonPath = pathBuilder.buildPath("/tasks/");
+        ControllerRegistry sut = new ControllerRegistry(null);
+        int threads = 4;
+        int controllersPerThread = 500;
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // WHEN
+        try {
+            for (int i = 0; i < threads; i++) {
+                futures.add(executorService.submit(() -> {
+                    for (int j = 0; j < controllersPerThread; j++) {
+                        sut.addController(new CollectionGet(resourceRegistry, null));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // THEN
+        assertThat(sut.getController(jsonPath, "GET")).isInstanceOf(CollectionGet.class);
+        assertThat(sut.getControllers()).hasSize(threads * controllersPerThread);
+    }
 }
@@ -3,6 +3,8 @@ package io.katharsis.errorhandling.exception;
 import io.katharsis.errorhandling.ErrorData;
 import io.katharsis.errorhandling.ErrorResponse;
 import io.katharsis.errorhandling.mapper.KatharsisExceptionMapper;
+import io.katharsis.jackson.exception.ParametersDeserializationException;
+import io.katharsis.resource.exception.ResourceNotFoundException;
 import io.katharsis.response.HttpStatus;
 import org.junit.Test;
 
@@ -26,14 +28,40 @@ public class KatharsisExceptionMapperTest {
                 .containsExactly(tuple(TITLE1, DETAIL1));
     }
 
+    @Test
+    public void shouldSkipStackTraceWhenNotWritable() throws Exception {
+        SampleKatharsisException exception = new SampleKatharsisException(false);
+
+        assertThat(exception.getStackTrace()).isEmpty();
+        assertThat(exception.getErrorData().getTitle()).isEqualTo(TITLE1);
+        assertThat(new SampleKatharsisException().getStackTrace()).isNotEmpty();
+        assertThat(new ResourceNotFoundException("/tasks/1").getStackTrace()).isEmpty();
+        assertThat(new ParametersDeserializationException("invalid").getStackTrace()).isEmpty();
+    }
+
+    @Test
+    public void shouldCaptureStackTraceOfRoutineExceptionsWhenEnabled() throws Exception {
+        KatharsisException.setRoutineStackTraceCaptured(true);
+        try {
+            assertThat(new ResourceNotFoundException("/tasks/1").getStackTrace()).isNotEmpty();
+        } finally {
+            KatharsisException.setRoutineStackTraceCaptured(false);
+        }
+        assertThat(new ResourceNotFoundException("/tasks/1").getStackTrace()).isEmpty();
+    }
+
     private static class SampleKatharsisException extends KatharsisMappableException {
 
         SampleKatharsisException() {
+            this(true);
+        }
+
+        SampleKatharsisException(boolean writableStackTrace) {
             super(HttpStatus.INTERNAL_SERVER_ERROR_500, ErrorData.builder()
                     .setTitle(TITLE1)
                     .setDetail(DETAIL1)
                     .setStatus(String.valueOf(HttpStatus.INTERNAL_SERVER_ERROR_500))
-                    .build());
+                    .build(), writableStackTrace);
         }
     }
 }
\ No newline at end of file
@@ -54,6 +54,16 @@ public class ExceptionMapperRegistryTest {
         assertThat(mapper.get()).isExactlyInstanceOf(IllegalStateExceptionMapper.class);
     }
 
+    @Test
+    public void shouldReturnSameResultForRepeatedLookups() throws Exception {
+        Optional<JsonApiExceptionMapper> mapper = exceptionMapperRegistry.findMapperFor(ClosedFileSystemException.class);
+        Optional<JsonApiExceptionMapper> missingMapper = exceptionMapperRegistry.findMapperFor(SomeException.class);
+
+        assertThat(exceptionMapperRegistry.findMapperFor(ClosedFileSystemException.class)).isSameAs(mapper);
+        assertThat(exceptionMapperRegistry.findMapperFor(SomeException.class)).isSameAs(missingMapper);
+        assertThat(missingMapper.isPresent()).isFalse();
+    }
+
     private static class SomeException extends Exception {
     }
 
@@ -1,22 +1,44 @@
 package io.katharsis.jackson;
 
 import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.katharsis.jackson.exception.IncludeLimitExceededException;
 import io.katharsis.queryParams.RequestParams;
+import io.katharsis.queryParams.RequestParamsBuilder;
+import io.katharsis.queryParams.include.IncludeLimits;
+import io.katharsis.repository.MetaRepository;
 import io.katharsis.request.path.JsonPath;
 import io.katharsis.request.path.ResourcePath;
+import io.katharsis.resource.RestrictedQueryParamsMembers;
+import io.katharsis.resource.annotations.JsonApiId;
+import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.resource.annotations.JsonApiToMany;
+import io.katharsis.resource.annotations.JsonApiToOne;
+import io.katharsis.resource.field.ResourceFieldNameTransformer;
+import io.katharsis.resource.information.ResourceInformationBuilder;
 import io.katharsis.resource.mock.models.Project;
 import io.katharsis.resource.mock.models.Task;
 import io.katharsis.resource.mock.models.User;
+import io.katharsis.resource.registry.ProgrammaticResourceRegistryBuilder;
+import io.katharsis.resource.registry.ResourceRegistryTest;
 import io.katharsis.response.BaseResponse;
 import io.katharsis.response.CollectionResponse;
+import io.katharsis.response.LazyMetaInformation;
 import io.katharsis.response.MetaInformation;
 import io.katharsis.response.ResourceResponse;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
 
 public class BaseResponseSerializerTest extends BaseSerializerTest {
@@ -73,6 +95,112 @@ public class BaseResponseSerializerTest extends BaseSerializerTest {
         assertThatJson(result).node("included").isArray().ofLength(2);
     }
 
+    @Test
+    public void onIncludeLimitReachedShouldTruncateIncludedResources() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = createObjectMapper(new IncludeLimits().setMaxIncluded(1));
+        User user = createUserWithProjects();
+
+        // WHEN
+        String result = objectMapper.writeValueAsString(
+            new ResourceResponse(user, new ResourcePath("users"), REQUEST_PARAMS, new MetaData("Humpty Dumpty")));
+
+        // THEN
+        assertThatJson(result).node("included").isArray().ofLength(1);
+        assertThatJson(result).node("meta.author").isEqualTo("Humpty Dumpty");
+        assertThatJson(result).node("meta." + IncludeLimits.TRUNCATED_META_FIELD_NAME).isEqualTo(true);
+    }
+
+    @Test
+    public void onIncludeLimitReachedWithFailActionShouldThrowException() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = createObjectMapper(new IncludeLimits()
+            .setMaxPerRelationship(1)
+            .setExceedAction(IncludeLimits.ExceedAction.FAIL));
+        User user = createUserWithProjects();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        Throwable result = null;
+        try {
+            objectMapper.writeValue(outputStream,
+                new ResourceResponse(user, new ResourcePath("users"), REQUEST_PARAMS, null));
+        } catch (JsonMappingException e) {
+            result = e.getCause();
+        }
+
+        // THEN
+        assertThat(result).isExactlyInstanceOf(IncludeLimitExceededException.class);
+        assertThat(outputStream.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void onCompactResponseShouldOmitEmptyAndUnrequestedMembers() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JsonApiModuleBuilder()
+            .setCompact(true)
+            .build(resourceRegistry));
+        Task task = new Task();
+        task.setId(1L);
+
+        // WHEN
+        String result = objectMapper
+            .writeValueAsString(new ResourceResponse(task, new ResourcePath("tasks"), REQUEST_PARAMS, null));
+
+        // THEN
+        assertThatJson(result).node("included").isAbsent();
+        assertThatJson(result).node("data.id").isEqualTo("\"1\"");
+        assertThatJson(result).node("data.attributes").isAbsent();
+        assertThatJson(result).node("data.relationships.project.data").isEqualTo(null);
+        assertThatJson(result).node("data.relationships.projects").isAbsent();
+        assertThatJson(result).node("data.links").isAbsent();
+    }
+
+    @Test
+    public void onCompactProfileShouldWriteNotNullAttributesAndIncludedRelationships() throws Exception {
+        // GIVEN
+        Project project = new Project();
+        project.setId(2L);
+        Task task = new Task();
+        task.setId(1L);
+        task.setName("Sample task");
+        task.setProjects(Arrays.asList(project));
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper()).buildRequestParams(
+            Collections.singletonMap(RestrictedQueryParamsMembers.include.name(), "[\"projects\"]"),
+            "application/vnd.api+json; profile=\"" + RequestParamsBuilder.COMPACT_PROFILE + "\"");
+
+        // WHEN
+        String result = sut
+            .writeValueAsString(new ResourceResponse(task, new ResourcePath("tasks"), requestParams, null));
+
+        // THEN
+        assertThatJson(result).node("data.attributes.name").isEqualTo("Sample task");
+        assertThatJson(result).node("data.relationships.projects.data[0].id").isEqualTo("\"2\"");
+        assertThatJson(result).node("data.relationships.projects.links").isAbsent();
+        assertThatJson(result).node("included[0].id").isEqualTo("\"2\"");
+        assertThatJson(result).node("included[0].attributes").isAbsent();
+    }
+
+    private ObjectMapper createObjectMapper(IncludeLimits includeLimits) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JsonApiModuleBuilder()
+            .setIncludeLimits(includeLimits)
+            .build(resourceRegistry));
+        return objectMapper;
+    }
+
+    private static User createUserWithProjects() {
+        Project project1 = new Project();
+        project1.setId(1L);
+        Project project2 = new Project();
+        project2.setId(2L);
+        User user = new User();
+        user.setId(1L);
+        user.setAssignedProjects(Arrays.asList(project1, project2));
+        return user;
+    }
+
     @Test
     public void onSingleResponseWithManyResourcesShouldReturnArrayOfResources() throws Exception {
         // GIVEN
@@ -91,6 +219,43 @@ public class BaseResponseSerializerTest extends BaseSerializerTest {
         assertThatJson(result).node("data").isArray().ofLength(2);
     }
 
+    @Test
+    public void onParallelSerializationShouldWriteSameDocumentAsSequentialSerialization() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JsonApiModuleBuilder()
+            .setParallelSerialization(new ParallelSerialization()
+                .setEnabled(true)
+                .setMinResources(10)
+                .setChunkSize(7))
+            .build(resourceRegistry));
+        List<Project> projects = new ArrayList<>();
+        for (long i = 0; i < 5; i++) {
+            Project project = new Project();
+            project.setId(i);
+            project.setName("Project " + i);
+            projects.add(project);
+        }
+        List<Task> tasks = new ArrayList<>();
+        for (long i = 0; i < 50; i++) {
+            Task task = new Task();
+            task.setId(i);
+            task.setName("Task \"" + i + "\"");
+            task.setProject(projects.get((int) i % 5));
+            tasks.add(task);
+        }
+        CollectionResponse response = new CollectionResponse(tasks, new ResourcePath("tasks"), REQUEST_PARAMS, null);
+
+        // WHEN
+        String result = objectMapper.writeValueAsString(response);
+
+        // THEN
+        assertThat(result).isEqualTo(sut.writeValueAsString(response));
+        assertThatJson(result).node("data").isArray().ofLength(50);
+        assertThatJson(result).node("data[49].id").isEqualTo("\"49\"");
+        assertThatJson(result).node("included").isArray().ofLength(5);
+    }
+
     @Test
     public void onSingleResponseWithNoResourcesShouldReturnEmptyArray() throws Exception {
         // WHEN
@@ -101,6 +266,46 @@ public class BaseResponseSerializerTest extends BaseSerializerTest {
         assertThatJson(result).node("data").isArray().ofLength(0);
     }
 
+    @Test
+    public void onResourceIncludedByTwoPathsShouldIncludeRelationshipsOfBothPaths() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JsonApiModuleBuilder()
+            .setLoadStateProbe((resource, relationshipField) -> false)
+            .build(new ProgrammaticResourceRegistryBuilder(
+                new ResourceInformationBuilder(new ResourceFieldNameTransformer()))
+                .register(Board.class)
+                .register(Task.class)
+                .register(Project.class)
+                .build(ResourceRegistryTest.TEST_MODELS_URL)));
+        Project project = new Project();
+        project.setId(3L);
+        Task task = new Task();
+        task.setId(2L);
+        task.setProjects(Collections.singletonList(project));
+        Board board = new Board();
+        board.setId(1L);
+        board.setTask(task);
+        board.setTasks(Collections.singletonList(task));
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+            .buildRequestParams(Collections.singletonMap(RestrictedQueryParamsMembers.include.name(),
+                "[\"task\",\"tasks.projects\"]"));
+
+        // WHEN
+        String result = objectMapper.writeValueAsString(
+            new ResourceResponse(board, new ResourcePath("boards"), requestParams, null));
+
+        // THEN
+        assertThatJson(result).node("included").isArray().ofLength(2);
+        JsonNode includedTask = null;
+        for (JsonNode included : objectMapper.readTree(result).get("included")) {
+            if ("tasks".equals(included.get("type").asText())) {
+                includedTask = included;
+            }
+        }
+        assertThatJson(includedTask).node("relationships.projects.data[0].id").isEqualTo("\"3\"");
+    }
+
     @Test
     public void onSingleResponseWithNoResourceShouldReturnNull() throws Exception {
         // WHEN
@@ -131,6 +336,68 @@ public class BaseResponseSerializerTest extends BaseSerializerTest {
         assertThatJson(result).node("meta").isAbsent();
     }
 
+    @Test
+    public void onLazyMetaInformationShouldComputeItOnceWhenWritten() throws Exception {
+        // GIVEN
+        AtomicInteger computations = new AtomicInteger();
+        ResourceResponse response = new ResourceResponse(null, new ResourcePath("projects"), REQUEST_PARAMS,
+            new LazyMetaInformation(() -> {
+                computations.incrementAndGet();
+                return new MetaData("Humpty Dumpty");
+            }));
+
+        // WHEN
+        String result = sut.writeValueAsString(response);
+
+        // THEN
+        assertThatJson(result).node("meta.author").isEqualTo("Humpty Dumpty");
+        assertThat(computations.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void onFailingMetaRepositoryShouldThrowExceptionBeforeWriting() throws Exception {
+        // GIVEN
+        MetaRepository<Project> metaRepository = resources -> {
+            throw new IllegalStateException("Meta information not available");
+        };
+        List<Project> projects = Collections.singletonList(new Project());
+        CollectionResponse response = new CollectionResponse(projects, new ResourcePath("projects"), REQUEST_PARAMS,
+            new LazyMetaInformation(() -> metaRepository.getMetaInformation(projects)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        Throwable result = null;
+        try {
+            sut.writeValue(outputStream, response);
+        } catch (JsonMappingException e) {
+            result = e.getCause();
+        }
+
+        // THEN
+        assertThat(result).isExactlyInstanceOf(IllegalStateException.class);
+        assertThat(outputStream.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void onOmittedMetaShouldNotComputeMetaInformation() throws Exception {
+        // GIVEN
+        AtomicInteger computations = new AtomicInteger();
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+            .buildRequestParams(Collections.singletonMap(RequestParamsBuilder.OMIT_META_KEY, "true"));
+        ResourceResponse response = new ResourceResponse(null, new ResourcePath("projects"), requestParams,
+            new LazyMetaInformation(() -> {
+                computations.incrementAndGet();
+                return new MetaData("Humpty Dumpty");
+            }));
+
+        // WHEN
+        String result = sut.writeValueAsString(response);
+
+        // THEN
+        assertThatJson(result).node("meta").isAbsent();
+        assertThat(computations.get()).isEqualTo(0);
+    }
+
     @Test
     public void onCustomResponseShouldThrowException() throws Exception {
         // THEN
@@ -176,4 +443,41 @@ public class BaseResponseSerializerTest extends BaseSerializerTest {
             return author;
         }
     }
+
+    @JsonApiResource(type = "boards")
+    public static class Board {
+
+        @JsonApiId
+        private Long id;
+
+        @JsonApiToOne
+        private Task task;
+
+        @JsonApiToMany
+        private List<Task> tasks;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Task getTask() {
+            return task;
+        }
+
+        public void setTask(Task task) {
+            this.task = task;
+        }
+
+        public List<Task> getTasks() {
+            return tasks;
+        }
+
+        public void setTasks(List<Task> tasks) {
+            this.tasks = tasks;
+        }
+    }
 }
@@ -1,15 +1,35 @@
 package io.katharsis.jackson;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
 import io.katharsis.queryParams.RequestParams;
 import io.katharsis.queryParams.RequestParamsBuilder;
 import io.katharsis.resource.RestrictedQueryParamsMembers;
+import io.katharsis.resource.annotations.JsonApiId;
+import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.resource.annotations.JsonApiVersion;
+import io.katharsis.resource.field.ResourceFieldNameTransformer;
+import io.katharsis.resource.information.ResourceInformationBuilder;
 import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.registry.ProgrammaticResourceRegistryBuilder;
+import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistryTest;
 import io.katharsis.response.Container;
 import org.junit.Test;
 
+import java.io.IOException;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
 
 public class ContainerSerializerTest extends BaseSerializerTest {
@@ -70,4 +90,216 @@ public class ContainerSerializerTest extends BaseSerializerTest {
         assertThatJson(result).node("attributes.name").isEqualTo("name");
         assertThatJson(result).node("attributes.description").isAbsent();
     }
+
+    @Test
+    public void onTypedIncludedFieldsInParamsShouldContainOnlyFieldsOfThisType() throws Exception {
+        // GIVEN
+        Project project = new Project();
+        project.setName("name");
+        project.setDescription("description");
+
+        RequestParamsBuilder requestParamsBuilder = new RequestParamsBuilder(new ObjectMapper());
+        Map<String, String> queryParams = new HashMap<>();
+        queryParams.put(RestrictedQueryParamsMembers.fields.name() + "[projects]", "description");
+        queryParams.put(RestrictedQueryParamsMembers.fields.name() + "[tasks]", "name");
+        RequestParams requestParams = requestParamsBuilder.buildRequestParams(queryParams);
+
+        // WHEN
+        String result = sut.writeValueAsString(new Container(project, requestParams));
+
+        // THEN
+        assertThatJson(result).node("attributes.name").isAbsent();
+        assertThatJson(result).node("attributes.description").isEqualTo("description");
+    }
+
+    @Test
+    public void onAnnotatedAttributesShouldHonorInclusionAndCustomSerializers() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = createDocumentsObjectMapper();
+        Document document = new Document();
+        document.setId(1L);
+        document.setSize(5L);
+
+        // WHEN
+        String result = objectMapper.writeValueAsString(new Container(document, new RequestParams(null)));
+
+        // THEN
+        assertThatJson(result).node("attributes.title").isAbsent();
+        assertThatJson(result).node("attributes.size").isEqualTo("\"5\"");
+        assertThatJson(result).node("attributes.content").isEqualTo(null);
+    }
+
+    @Test
+    public void onAttributesOfDifferentTypesShouldSerializeRuntimeTypes() throws Exception {
+        // GIVEN
+        Document first = new Document();
+        first.setContent("text");
+        Document second = new Document();
+        second.setContent(Collections.singletonList(1));
+        ObjectMapper objectMapper = createDocumentsObjectMapper();
+
+        // WHEN
+        String firstResult = objectMapper.writeValueAsString(new Container(first, new RequestParams(null)));
+        String secondResult = objectMapper.writeValueAsString(new Container(second, new RequestParams(null)));
+
+        // THEN
+        assertThatJson(firstResult).node("attributes.content").isEqualTo("text");
+        assertThatJson(secondResult).node("attributes.content").isEqualTo("[1]");
+    }
+
+    @Test
+    public void onModuleSharedByMappersShouldUseSerializersOfEachMapper() throws Exception {
+        // GIVEN
+        Module jsonApiModule = new JsonApiModuleBuilder().build(createDocumentsRegistry());
+        ObjectMapper plainObjectMapper = new ObjectMapper();
+        plainObjectMapper.registerModule(jsonApiModule);
+        ObjectMapper customObjectMapper = createUpperCaseObjectMapper(jsonApiModule);
+        Document document = new Document();
+        document.setContent("text");
+
+        // WHEN
+        String plainResult = plainObjectMapper.writeValueAsString(new Container(document, new RequestParams(null)));
+        String customResult = customObjectMapper.writeValueAsString(new Container(document, new RequestParams(null)));
+
+        // THEN
+        assertThatJson(plainResult).node("attributes.content").isEqualTo("text");
+        assertThatJson(customResult).node("attributes.content").isEqualTo("TEXT");
+    }
+
+    @Test
+    public void onModuleSharedByMappersShouldNotShareCachedFragments() throws Exception {
+        // GIVEN
+        Module jsonApiModule = new JsonApiModuleBuilder()
+            .setFragmentCache(new FragmentCache(1024 * 1024))
+            .build(createDocumentsRegistry());
+        ObjectMapper plainObjectMapper = new ObjectMapper();
+        plainObjectMapper.registerModule(jsonApiModule);
+        ObjectMapper customObjectMapper = createUpperCaseObjectMapper(jsonApiModule);
+        Document document = new Document();
+        document.setId(1L);
+        document.setVersion(1L);
+        document.setTitle("title");
+
+        // WHEN
+        String plainResult = plainObjectMapper.writeValueAsString(new Container(document, new RequestParams(null)));
+        String customResult = customObjectMapper.writeValueAsString(new Container(document, new RequestParams(null)));
+
+        // THEN
+        assertThatJson(plainResult).node("attributes.title").isEqualTo("title");
+        assertThatJson(customResult).node("attributes.title").isEqualTo("TITLE");
+    }
+
+    @Test
+    public void onCachedVersionShouldWriteCachedFragment() throws Exception {
+        // GIVEN
+        FragmentCache fragmentCache = new FragmentCache(1024 * 1024);
+        ObjectMapper objectMapper = createDocumentsObjectMapper(fragmentCache);
+        Document document = new Document();
+        document.setId(1L);
+        document.setVersion(1L);
+        document.setTitle("First");
+        String first = objectMapper.writeValueAsString(new Container(document, new RequestParams(null)));
+        document.setTitle("Changed without a new version");
+
+        // WHEN
+        String cached = objectMapper.writeValueAsString(new Container(document, new RequestParams(null)));
+        document.setVersion(2L);
+        String changed = objectMapper.writeValueAsString(new Container(document, new RequestParams(null)));
+
+        // THEN
+        assertThat(cached).isEqualTo(first);
+        assertThatJson(first).node("attributes.title").isEqualTo("First");
+        assertThatJson(changed).node("attributes.title").isEqualTo("Changed without a new version");
+        assertThatJson(changed).node("attributes.version").isEqualTo(2);
+    }
+
+    private static ObjectMapper createDocumentsObjectMapper() {
+        return createDocumentsObjectMapper(null);
+    }
+
+    private static ObjectMapper createDocumentsObjectMapper(FragmentCache fragmentCache) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JsonApiModuleBuilder().setFragmentCache(fragmentCache)
+            .build(createDocumentsRegistry()));
+        return objectMapper;
+    }
+
+    private static ObjectMapper createUpperCaseObjectMapper(Module jsonApiModule) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(jsonApiModule);
+        objectMapper.registerModule(new SimpleModule()
+            .addSerializer(String.class, new StdSerializer<String>(String.class) {
+                @Override
+                public void serialize(String value, JsonGenerator gen, SerializerProvider provider)
+                    throws IOException {
+                    gen.writeString(value.toUpperCase());
+                }
+            }));
+        return objectMapper;
+    }
+
+    private static ResourceRegistry createDocumentsRegistry() {
+        return new ProgrammaticResourceRegistryBuilder(new ResourceInformationBuilder(new ResourceFieldNameTransformer()))
+            .register(Document.class)
+            .build(ResourceRegistryTest.TEST_MODELS_URL);
+    }
+
+    @JsonApiResource(type = "documents")
+    public static class Document {
+
+        @JsonApiId
+        private Long id;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String title;
+
+        @JsonSerialize(using = ToStringSerializer.class)
+        private Long size;
+
+        private Object content;
+
+        @JsonApiVersion
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Long version;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public Long getSize() {
+            return size;
+        }
+
+        public void setSize(Long size) {
+            this.size = size;
+        }
+
+        public Object getContent() {
+            return content;
+        }
+
+        public void setContent(Object content) {
+            this.content = content;
+        }
+
+        public Long getVersion() {
+            return version;
+        }
+
+        public void setVersion(Long version) {
+            this.version = version;
+        }
+    }
 }
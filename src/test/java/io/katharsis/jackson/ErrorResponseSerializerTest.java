@@ -96,4 +96,21 @@ public class ErrorResponseSerializerTest extends BaseSerializerTest {
                 .node("errors[0]").isPresent()
                 .node("errors[1]").isPresent();
     }
+
+    @Test
+    public void shouldSerializeDifferentDetailsOfErrorsWithSameTitle() throws Exception {
+        ErrorResponse response = ErrorResponse.builder()
+                .setStatus(HttpStatus.INTERNAL_SERVER_ERROR_500)
+                .setErrorData(Lists.newArrayList(
+                        ErrorDataMother.fullyPopulatedErrorDataBuilder().setDetail("first").build(),
+                        ErrorDataMother.fullyPopulatedErrorDataBuilder().setDetail("second \"quoted\"").build()))
+                .build();
+        sut.writeValueAsString(response);
+        String result = sut.writeValueAsString(response);
+
+        assertThatJson(result).node("errors[0].title").isStringEqualTo(ErrorDataMother.TITLE);
+        assertThatJson(result).node("errors[0].detail").isStringEqualTo("first");
+        assertThatJson(result).node("errors[1].title").isStringEqualTo(ErrorDataMother.TITLE);
+        assertThatJson(result).node("errors[1].detail").isStringEqualTo("second \"quoted\"");
+    }
 }
@@ -0,0 +1,93 @@
+package io.katharsis.jackson;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FragmentCacheTest {
+
+    @Test
+    public void onNewVersionShouldDropFragmentsOfOldVersion() {
+        // GIVEN
+        FragmentCache sut = new FragmentCache(1024 * 1024);
+        sut.put("tasks", "1", 1L, "all", "{\"id\":\"1\"}");
+        sut.put("tasks", "1", 1L, "compact", "{\"id\":\"1\"}");
+
+        // WHEN
+        sut.put("tasks", "1", 2L, "all", "{\"id\":\"1\",\"version\":2}");
+
+        // THEN
+        assertThat(sut.get("tasks", "1", 1L, "all")).isNull();
+        assertThat(sut.get("tasks", "1", 2L, "compact")).isNull();
+        assertThat(sut.get("tasks", "1", 2L, "all")).isEqualTo("{\"id\":\"1\",\"version\":2}");
+    }
+
+    @Test
+    public void onMaxSizeExceededShouldEvictLeastRecentlyUsedResources() {
+        // GIVEN
+        FragmentCache sut = new FragmentCache(1200);
+        String fragment = new String(new char[200]);
+        sut.put("tasks", "1", 1L, "all", fragment);
+        sut.put("tasks", "2", 1L, "all", fragment);
+        sut.get("tasks", "1", 1L, "all");
+
+        // WHEN
+        sut.put("tasks", "3", 1L, "all", fragment);
+
+        // THEN
+        assertThat(sut.get("tasks", "1", 1L, "all")).isEqualTo(fragment);
+        assertThat(sut.get("tasks", "2", 1L, "all")).isNull();
+        assertThat(sut.get("tasks", "3", 1L, "all")).isEqualTo(fragment);
+        assertThat(sut.getSize()).isLessThanOrEqualTo(sut.getMaxSize());
+    }
+
+    @Test
+    public void onInvalidateShouldDropAllFragmentsOfResource() {
+        // GIVEN
+        FragmentCache sut = new FragmentCache(1024 * 1024);
+        sut.put("tasks", "1", 1L, "all", "{}");
+        sut.put("tasks", "1", 1L, "compact", "{}");
+
+        // WHEN
+        sut.invalidate("tasks", "1");
+
+        // THEN
+        assertThat(sut.get("tasks", "1", 1L, "all")).isNull();
+        assertThat(sut.getSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void onConcurrentWritesShouldKeepSizeOfCachedFragments() throws Exception {
+        // GIVEN
+        FragmentCache sut = new FragmentCache(64 * 1024);
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        // WHEN
+        for (int thread = 0; thread < 4; thread++) {
+            tasks.add(executorService.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    String id = String.valueOf(i % 300);
+                    sut.put("tasks", id, (long) i % 3, "all", "{\"id\":\"" + id + "\"}");
+                    sut.get("tasks", id, (long) i % 3, "all");
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        executorService.shutdown();
+        long cachedSize = sut.getSize();
+        sut.clear();
+
+        // THEN
+        assertThat(cachedSize).isPositive();
+        assertThat(sut.getSize()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,76 @@
+package io.katharsis.jackson;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.katharsis.queryParams.RequestParams;
+import io.katharsis.request.path.ResourcePath;
+import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.response.ResourceResponse;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonApiFormatTest extends BaseSerializerTest {
+
+    @Test
+    public void onNoAcceptedFormatShouldNegotiateJson() {
+        // WHEN
+        JsonApiFormat result = JsonApiFormat.negotiate("text/html, */*");
+
+        // THEN
+        assertThat(result).isEqualTo(JsonApiFormat.JSON);
+        assertThat(JsonApiFormat.negotiate(null)).isEqualTo(JsonApiFormat.JSON);
+    }
+
+    @Test
+    public void onAcceptedBinaryFormatShouldNegotiateItIfAvailable() {
+        // WHEN
+        JsonApiFormat result = JsonApiFormat.negotiate("application/vnd.api+json; q=0.5, application/x-jackson-smile");
+
+        // THEN
+        assertThat(result).isEqualTo(JsonApiFormat.SMILE.isAvailable() ? JsonApiFormat.SMILE : JsonApiFormat.JSON);
+    }
+
+    @Test
+    public void onAcceptedNdjsonShouldNegotiateLineDelimitedFormat() {
+        // WHEN
+        JsonApiFormat result = JsonApiFormat.negotiate("application/x-ndjson, application/vnd.api+json; q=0.9");
+
+        // THEN
+        assertThat(result).isEqualTo(JsonApiFormat.NDJSON);
+        assertThat(result.isLineDelimited()).isTrue();
+        assertThat(JsonApiFormat.forContentType("application/x-ndjson")).isEqualTo(JsonApiFormat.JSON);
+    }
+
+    @Test
+    public void onContentTypeShouldReturnFormatOfBody() {
+        // WHEN
+        JsonApiFormat result = JsonApiFormat.forContentType("application/vnd.api+json; charset=UTF-8");
+
+        // THEN
+        assertThat(result).isEqualTo(JsonApiFormat.JSON);
+    }
+
+    @Test
+    public void onNonTextGeneratorShouldWriteSameDocument() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = new JsonApiModuleBuilder().buildObjectMapper(resourceRegistry, JsonApiFormat.JSON);
+        Project project = new Project();
+        project.setId(2L);
+        Task task = new Task();
+        task.setId(1L);
+        task.setName("Sample task");
+        task.setProject(project);
+        ResourceResponse response = new ResourceResponse(task, new ResourcePath("tasks"), new RequestParams(null), null);
+
+        // WHEN
+        TokenBuffer buffer = new TokenBuffer(objectMapper, false);
+        objectMapper.writeValue(buffer, response);
+        JsonNode result = objectMapper.readTree(buffer.asParser());
+
+        // THEN
+        assertThat(result).isEqualTo(objectMapper.readTree(objectMapper.writeValueAsString(response)));
+    }
+}
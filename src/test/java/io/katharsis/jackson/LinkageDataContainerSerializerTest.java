@@ -4,6 +4,7 @@ import io.katharsis.queryParams.RequestParams;
 import io.katharsis.resource.mock.models.Project;
 import io.katharsis.resource.mock.models.Task;
 import io.katharsis.response.Container;
+import io.katharsis.response.LinkageContainer;
 import org.junit.Test;
 
 import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
@@ -26,4 +27,18 @@ public class LinkageDataContainerSerializerTest extends BaseSerializerTest {
         assertThatJson(result).node("relationships.project.data.type").isEqualTo("projects");
         assertThatJson(result).node("relationships.project.data.id").isEqualTo("\"2\"");
     }
+
+    @Test
+    public void onTargetIdShouldIncludeLinkageWithTargetId() throws Exception {
+        // GIVEN
+        LinkageContainer linkageContainer = LinkageContainer.forId(2L, Project.class,
+            resourceRegistry.getEntry(Project.class));
+
+        // WHEN
+        String result = sut.writeValueAsString(linkageContainer);
+
+        // THEN
+        assertThatJson(result).node("type").isEqualTo("projects");
+        assertThatJson(result).node("id").isEqualTo("\"2\"");
+    }
 }
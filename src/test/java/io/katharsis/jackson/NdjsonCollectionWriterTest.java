@@ -0,0 +1,99 @@
+package io.katharsis.jackson;
+
+import io.katharsis.jackson.serializer.NdjsonCollectionWriter;
+import io.katharsis.queryParams.RequestParams;
+import io.katharsis.request.path.ResourcePath;
+import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.response.CollectionResponse;
+import io.katharsis.response.Container;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static net.javacrumbs.jsonunit.fluent.JsonFluentAssert.assertThatJson;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NdjsonCollectionWriterTest extends BaseSerializerTest {
+
+    private static final RequestParams REQUEST_PARAMS = new RequestParams(null);
+
+    @Test
+    public void onCollectionShouldWriteResourcePerLineAndIncludedResourcesLast() throws Exception {
+        // GIVEN
+        NdjsonCollectionWriter sut = new JsonApiModuleBuilder().buildNdjsonCollectionWriter(resourceRegistry,
+            this.sut);
+        Project project = new Project();
+        project.setId(3L);
+        Task task1 = new Task();
+        task1.setId(1L);
+        task1.setProject(project);
+        Task task2 = new Task();
+        task2.setId(2L);
+        task2.setProject(project);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        sut.write(new CollectionResponse(Arrays.asList(task1, task2), new ResourcePath("tasks"), REQUEST_PARAMS,
+            null), outputStream);
+
+        // THEN
+        String[] lines = outputStream.toString("UTF-8").split("\n", -1);
+        assertThat(lines).hasSize(4);
+        assertThat(lines[0]).isEqualTo(this.sut.writeValueAsString(new Container(task1, REQUEST_PARAMS)));
+        assertThat(lines[1]).isEqualTo(this.sut.writeValueAsString(new Container(task2, REQUEST_PARAMS)));
+        assertThatJson(lines[2]).node("included").isArray().ofLength(1);
+        assertThatJson(lines[2]).node("included[0].id").isEqualTo("\"3\"");
+        assertThat(lines[3]).isEmpty();
+    }
+
+    @Test
+    public void onNothingIncludedShouldWriteOnlyResources() throws Exception {
+        // GIVEN
+        NdjsonCollectionWriter sut = new JsonApiModuleBuilder().buildNdjsonCollectionWriter(resourceRegistry,
+            this.sut);
+        Project project = new Project();
+        project.setId(1L);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // WHEN
+        sut.write(new CollectionResponse(Collections.singletonList(project), new ResourcePath("projects"),
+            REQUEST_PARAMS, null), outputStream);
+
+        // THEN
+        assertThat(outputStream.toString("UTF-8"))
+            .isEqualTo(this.sut.writeValueAsString(new Container(project, REQUEST_PARAMS)) + "\n");
+    }
+
+    @Test
+    public void onEachResourceShouldFlushCompleteLine() throws Exception {
+        // GIVEN
+        NdjsonCollectionWriter sut = new JsonApiModuleBuilder().buildNdjsonCollectionWriter(resourceRegistry,
+            this.sut);
+        Project project1 = new Project();
+        project1.setId(1L);
+        Project project2 = new Project();
+        project2.setId(2L);
+        List<String> flushedContents = new ArrayList<>();
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream() {
+            @Override
+            public void flush() throws IOException {
+                flushedContents.add(toString("UTF-8"));
+            }
+        };
+
+        // WHEN
+        sut.write(new CollectionResponse(Arrays.asList(project1, project2), new ResourcePath("projects"),
+            REQUEST_PARAMS, null), outputStream);
+
+        // THEN
+        String firstLine = this.sut.writeValueAsString(new Container(project1, REQUEST_PARAMS)) + "\n";
+        String secondLine = this.sut.writeValueAsString(new Container(project2, REQUEST_PARAMS)) + "\n";
+        assertThat(flushedContents).contains(firstLine, firstLine + secondLine);
+    }
+}
@@ -1,9 +1,18 @@
 package io.katharsis.jackson;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.katharsis.dispatcher.controller.resource.RelationshipsResourceGetTest.Team;
+import io.katharsis.dispatcher.controller.resource.RelationshipsResourceGetTest.TeamToProjectRepository;
 import io.katharsis.queryParams.RequestParams;
+import io.katharsis.queryParams.RequestParamsBuilder;
+import io.katharsis.resource.RestrictedQueryParamsMembers;
+import io.katharsis.resource.field.ResourceFieldNameTransformer;
+import io.katharsis.resource.information.ResourceInformationBuilder;
 import io.katharsis.resource.mock.models.Project;
 import io.katharsis.resource.mock.models.Task;
 import io.katharsis.resource.mock.models.User;
+import io.katharsis.resource.registry.ProgrammaticResourceRegistryBuilder;
+import io.katharsis.resource.registry.ResourceRegistryTest;
 import io.katharsis.response.Container;
 import org.junit.Test;
 
@@ -115,4 +124,124 @@ public class RelationshipContainerSerializerTest extends BaseSerializerTest {
         // THEN
         assertThatJson(result).node("relationships.assignedProjects.data").isArray().ofLength(0);
     }
+
+    @Test
+    public void onNotLoadedRelationshipShouldNotIncludeLinkage() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = createObjectMapperWithNotLoadedRelationships();
+        Task task = new Task();
+        task.setId(1L);
+
+        // WHEN
+        String result = objectMapper.writeValueAsString(new Container(task, new RequestParams(null)));
+
+        // THEN
+        assertThatJson(result).node("relationships.projects.links.self").isPresent();
+        assertThatJson(result).node("relationships.projects.data").isAbsent();
+    }
+
+    @Test
+    public void onIncludedNotLoadedRelationshipShouldIncludeLinkage() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = createObjectMapperWithNotLoadedRelationships();
+        Task task = new Task();
+        task.setId(1L);
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+            .buildRequestParams(Collections.singletonMap(RestrictedQueryParamsMembers.include.name(), "[\"projects\"]"));
+
+        // WHEN
+        String result = objectMapper.writeValueAsString(new Container(task, requestParams));
+
+        // THEN
+        assertThatJson(result).node("relationships.projects.data").isArray().ofLength(0);
+    }
+
+    @Test
+    public void onRelationshipIncludedOnlyInNestedPathShouldNotIncludeLinkage() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = createObjectMapperWithNotLoadedRelationships();
+        Task task = new Task();
+        task.setId(1L);
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+            .buildRequestParams(Collections.singletonMap(RestrictedQueryParamsMembers.include.name(),
+                "[\"project.projects\"]"));
+
+        // WHEN
+        String result = objectMapper.writeValueAsString(new Container(task, requestParams));
+
+        // THEN
+        assertThatJson(result).node("relationships.projects.data").isAbsent();
+    }
+
+    @Test
+    public void onOmittedLinksShouldWriteOnlyLinkage() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JsonApiModuleBuilder()
+            .setLinksOmitted(true)
+            .build(resourceRegistry));
+        Project project = new Project();
+        project.setId(2L);
+        Task task = new Task();
+        task.setId(1L);
+        task.setProject(project);
+
+        // WHEN
+        String result = objectMapper.writeValueAsString(new Container(task, new RequestParams(null)));
+
+        // THEN
+        assertThatJson(result).node("links").isAbsent();
+        assertThatJson(result).node("relationships.project.links").isAbsent();
+        assertThatJson(result).node("relationships.project.data.id").isEqualTo("\"2\"");
+    }
+
+    @Test
+    public void onLinksOmittedByClientShouldSkipRelationshipsWithoutLinkage() throws Exception {
+        // GIVEN
+        ObjectMapper objectMapper = createObjectMapperWithNotLoadedRelationships();
+        Task task = new Task();
+        task.setId(1L);
+        RequestParams requestParams = new RequestParamsBuilder(new ObjectMapper())
+            .buildRequestParams(Collections.singletonMap(RequestParamsBuilder.OMIT_LINKS_KEY, "true"));
+
+        // WHEN
+        String result = objectMapper.writeValueAsString(new Container(task, requestParams));
+
+        // THEN
+        assertThatJson(result).node("links").isAbsent();
+        assertThatJson(result).node("relationships.project.links").isAbsent();
+        assertThatJson(result).node("relationships.projects").isAbsent();
+    }
+
+    @Test
+    public void onNotLoadedRelationshipWithRelationshipIdRepositoryShouldIncludeLinkageOfTargetIds() throws Exception {
+        // GIVEN
+        TeamToProjectRepository teamToProjectRepository = new TeamToProjectRepository();
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JsonApiModuleBuilder()
+            .setLoadStateProbe((resource, relationshipField) -> false)
+            .build(new ProgrammaticResourceRegistryBuilder(
+                new ResourceInformationBuilder(new ResourceFieldNameTransformer()))
+                .register(Team.class)
+                    .relationship(teamToProjectRepository)
+                .register(Project.class)
+                .build(ResourceRegistryTest.TEST_MODELS_URL)));
+        Team team = new Team();
+        team.setId(1L);
+
+        // WHEN
+        String result = objectMapper.writeValueAsString(new Container(team, new RequestParams(null)));
+
+        // THEN
+        assertThatJson(result).node("relationships.projects.data").isArray().ofLength(1);
+        assertThatJson(result).node("relationships.projects.data[0].id").isEqualTo("\"42\"");
+    }
+
+    private ObjectMapper createObjectMapperWithNotLoadedRelationships() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JsonApiModuleBuilder()
+            .setLoadStateProbe((resource, relationshipField) -> false)
+            .build(resourceRegistry));
+        return objectMapper;
+    }
 }
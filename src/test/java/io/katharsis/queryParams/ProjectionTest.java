@@ -0,0 +1,61 @@
+package io.katharsis.queryParams;
+
+import io.katharsis.resource.field.ResourceFieldNameTransformer;
+import io.katharsis.resource.information.ResourceInformation;
+import io.katharsis.resource.information.ResourceInformationBuilder;
+import io.katharsis.resource.mock.models.Task;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProjectionTest {
+
+    private ResourceInformation resourceInformation;
+
+    @Before
+    public void setUp() {
+        resourceInformation = new ResourceInformationBuilder(new ResourceFieldNameTransformer()).build(Task.class);
+    }
+
+    @Test
+    public void onNoFieldsShouldIncludeAllFields() {
+        // WHEN
+        Projection result = Projection.of(resourceInformation, Collections.emptyList());
+
+        // THEN
+        assertThat(result.isAll()).isTrue();
+        assertThat(result.getAttributeNames()).containsOnly("name");
+        assertThat(result.getRelationshipNames()).containsOnly("project", "projects");
+    }
+
+    @Test
+    public void onGivenFieldsShouldIncludeOnlyExistingGivenFields() {
+        // WHEN
+        Projection result = Projection.of(resourceInformation, Arrays.asList("project", "nonExistingField"));
+
+        // THEN
+        assertThat(result.isAll()).isFalse();
+        assertThat(result.getAttributeNames()).isEmpty();
+        assertThat(result.getRelationshipNames()).containsOnly("project");
+        assertThat(result.isFieldIncluded("project")).isTrue();
+        assertThat(result.isFieldIncluded("name")).isFalse();
+        assertThat(result.isAttributeIncluded(resourceInformation.getAttributeIndex("name"))).isFalse();
+    }
+
+    @Test
+    public void onResolvedProjectionShouldBeAvailableForRepositories() {
+        // GIVEN
+        RequestParams requestParams = new RequestParams(null);
+
+        // WHEN
+        Projection result = requestParams.resolveProjection("tasks", resourceInformation);
+
+        // THEN
+        assertThat(requestParams.getProjection("tasks")).isSameAs(result);
+        assertThat(requestParams.getProjection("projects")).isNull();
+    }
+}
@@ -86,6 +86,23 @@ public class RequestParamsBuilderTest {
         assertThat(result.getIncludedFields().contains("name")).isTrue();
     }
 
+    @Test
+    public void onGivenTypedIncludedFieldsBuilderShouldReturnRequestParamsWithTypedIncludedFields() throws
+            ParametersDeserializationException {
+        // GIVEN
+        queryParams.put(RestrictedQueryParamsMembers.fields.name(), "{\"projects\": [\"name\"]}");
+        queryParams.put(RestrictedQueryParamsMembers.fields.name() + "[tasks]", "name,project");
+
+        // WHEN
+        RequestParams result = sut.buildRequestParams(queryParams);
+
+        // THEN
+        assertThat(result.getIncludedFields()).isNull();
+        assertThat(result.getIncludedFields("projects")).containsOnly("name");
+        assertThat(result.getIncludedFields("tasks")).containsExactly("name", "project");
+        assertThat(result.getIncludedFields("users")).isNull();
+    }
+
     @Test
     public void onGivenIncludedRelationsBuilderShouldReturnRequestParamsWithIncludedRelations() throws
             ParametersDeserializationException {
@@ -98,4 +115,18 @@ public class RequestParamsBuilderTest {
         // THEN
         assertThat(result.getIncludedRelations().contains(new Inclusion("friends"))).isTrue();
     }
+
+    @Test
+    public void onCompactProfileInAcceptHeaderBuilderShouldReturnCompactRequestParams() {
+        // GIVEN
+        String accept = "text/html, application/vnd.api+json; profile=\"http://example.com/other "
+            + RequestParamsBuilder.COMPACT_PROFILE + "\"";
+
+        // WHEN
+        RequestParams result = sut.buildRequestParams(queryParams, accept);
+
+        // THEN
+        assertThat(result.isCompact()).isTrue();
+        assertThat(sut.buildRequestParams(queryParams, "application/vnd.api+json").isCompact()).isFalse();
+    }
 }
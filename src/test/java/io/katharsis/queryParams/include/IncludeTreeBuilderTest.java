@@ -0,0 +1,65 @@
+package io.katharsis.queryParams.include;
+
+import io.katharsis.locator.SampleJsonServiceLocator;
+import io.katharsis.resource.field.ResourceFieldNameTransformer;
+import io.katharsis.resource.information.ResourceInformationBuilder;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.registry.ResourceRegistry;
+import io.katharsis.resource.registry.ResourceRegistryBuilder;
+import io.katharsis.resource.registry.ResourceRegistryBuilderTest;
+import io.katharsis.resource.registry.ResourceRegistryTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IncludeTreeBuilderTest {
+
+    private IncludeTreeBuilder sut;
+
+    @Before
+    public void setUp() throws Exception {
+        ResourceRegistryBuilder registryBuilder = new ResourceRegistryBuilder(new SampleJsonServiceLocator(),
+            new ResourceInformationBuilder(new ResourceFieldNameTransformer()));
+        ResourceRegistry resourceRegistry = registryBuilder
+            .build(ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE, ResourceRegistryTest.TEST_MODELS_URL);
+        sut = new IncludeTreeBuilder(resourceRegistry);
+    }
+
+    @Test
+    public void onSharedPrefixShouldMergeNodes() throws Exception {
+        // WHEN
+        IncludeTree result = sut.build(Task.class,
+            Arrays.asList(new Inclusion("project"), new Inclusion("projects"), new Inclusion("project.tasks")), false);
+
+        // THEN
+        assertThat(result.getRoots()).extracting("name").containsExactly("project", "projects");
+        IncludeNode project = result.getRoots().get(0);
+        assertThat(project.isIncluded()).isTrue();
+        assertThat(project.getResourceField().getName()).isEqualTo("project");
+    }
+
+    @Test
+    public void onNonRelationshipInclusionShouldSkipIt() throws Exception {
+        // WHEN
+        IncludeTree result = sut.build(Task.class,
+            Arrays.asList(new Inclusion("name"), new Inclusion("nonExisting.project")), false);
+
+        // THEN
+        assertThat(result.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void onSameInclusionsShouldReturnCachedTree() throws Exception {
+        // WHEN
+        IncludeTree first = sut.build(Task.class, Collections.singletonList(new Inclusion("task.project")), true);
+        IncludeTree second = sut.build(Task.class, Collections.singletonList(new Inclusion("task.project")), true);
+
+        // THEN
+        assertThat(first).isSameAs(second);
+        assertThat(first.getRoots()).extracting("name").containsExactly("project");
+    }
+}
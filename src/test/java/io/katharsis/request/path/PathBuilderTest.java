@@ -18,6 +18,7 @@ import org.junit.rules.ExpectedException;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -196,6 +197,42 @@ public class PathBuilderTest {
         pathBuilder.buildPath(path);
     }
 
+    @Test
+    public void onNonExistingResourceShouldFindNoPath() {
+        // GIVEN
+        String path = "/nonExistingResource";
+
+        // WHEN
+        Optional<JsonPath> jsonPath = pathBuilder.findPath(path);
+
+        // THEN
+        assertThat(jsonPath.isPresent()).isFalse();
+    }
+
+    @Test
+    public void onNonExistingFieldShouldFindNoPath() {
+        // GIVEN
+        String path = "/tasks/1/nonExistingField/";
+
+        // WHEN
+        Optional<JsonPath> jsonPath = pathBuilder.findPath(path);
+
+        // THEN
+        assertThat(jsonPath.isPresent()).isFalse();
+    }
+
+    @Test
+    public void onNestedResourceRelationshipPathShouldFindPath() {
+        // GIVEN
+        String path = "/tasks/1/relationships/project/";
+
+        // WHEN
+        Optional<JsonPath> jsonPath = pathBuilder.findPath(path);
+
+        // THEN
+        assertThat(jsonPath.get()).isEqualTo(pathBuilder.buildPath(path));
+    }
+
     @Test
     public void onResourceStaringWithRelationshipsShouldThrowException() {
         // GIVEN
@@ -8,13 +8,18 @@ import io.katharsis.resource.exception.init.ResourceIdNotFoundException;
 import io.katharsis.resource.field.ResourceFieldNameTransformer;
 import io.katharsis.resource.information.ResourceInformation;
 import io.katharsis.resource.information.ResourceInformationBuilder;
+import io.katharsis.resource.mock.models.Project;
 import io.katharsis.resource.mock.models.Task;
 import io.katharsis.resource.mock.models.UnAnnotatedTask;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 
 public class ResourceInformationBuilderTest {
 
@@ -134,6 +139,27 @@ public class ResourceInformationBuilderTest {
             .isNotNull();
     }
 
+    @Test
+    public void shouldBuildAllResourcesInOrderOfClassNames() throws Exception {
+        Map<Class<?>, ResourceInformation> resourceInformations = resourceInformationBuilder
+            .buildAll(Arrays.asList(Task.class, Project.class));
+
+        assertThat(resourceInformations.keySet()).containsExactly(Project.class, Task.class);
+        assertThat(resourceInformations.get(Task.class)).isEqualTo(resourceInformationBuilder.build(Task.class));
+    }
+
+    @Test
+    public void shouldReportFirstInvalidResourceInOrderOfClassNames() throws Exception {
+        try {
+            resourceInformationBuilder.buildAll(Arrays.asList(UnAnnotatedTask.class, Task.class,
+                DuplicatedIdResource.class));
+            fail("Exception expected");
+        } catch (ResourceDuplicateIdException e) {
+            assertThat(e.getSuppressed()).hasSize(1);
+            assertThat(e.getSuppressed()[0]).isInstanceOf(ResourceIdNotFoundException.class);
+        }
+    }
+
     @JsonApiResource(type = "duplicatedIdAnnotationResources")
     private static class DuplicatedIdResource {
         @JsonApiId
@@ -0,0 +1,88 @@
+package io.katharsis.resource.index;
+
+import io.katharsis.errorhandling.ErrorResponse;
+import io.katharsis.errorhandling.mapper.ExceptionMapperProvider;
+import io.katharsis.errorhandling.mapper.JsonApiExceptionMapper;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.mock.repository.TaskRepository;
+import io.katharsis.resource.mock.repository.TaskToProjectRepository;
+import io.katharsis.resource.registry.ResourceRegistryBuilderTest;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourceIndexTest {
+
+    private ResourceIndex sut;
+
+    @Before
+    public void setUp() throws Exception {
+        sut = ResourceIndex.load(getClass().getClassLoader());
+    }
+
+    @Test
+    public void onCompiledTestSourcesShouldLoadIndex() throws Exception {
+        // THEN
+        assertThat(sut).isNotNull();
+    }
+
+    @Test
+    public void onIndexedPackageShouldCoverIt() throws Exception {
+        // THEN
+        assertThat(sut.covers(ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE)).isTrue();
+        assertThat(sut.covers("com.example")).isFalse();
+        assertThat(sut.covers(null)).isFalse();
+    }
+
+    @Test
+    public void onPackageAboveIndexRootShouldNotCoverIt() throws Exception {
+        // THEN
+        assertThat(sut.covers(ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE + ".models")).isTrue();
+        assertThat(sut.covers("io.katharsis.resource")).isFalse();
+        assertThat(sut.covers("io.katharsis.resource.index")).isFalse();
+    }
+
+    @Test
+    public void onSubclassOfAnnotatedExceptionMapperShouldIndexIt() throws Exception {
+        // THEN
+        assertThat(sut.getExceptionMappers("io.katharsis.resource.index"))
+            .contains(AnnotatedExceptionMapper.class, InheritedExceptionMapper.class);
+    }
+
+    @Test
+    public void onPackageNamesShouldMatchWholeSegmentsOfTrimmedNames() throws Exception {
+        // WHEN
+        String packageNames = "com.example, " + ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE;
+
+        // THEN
+        assertThat(sut.covers(" " + ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE)).isTrue();
+        assertThat(sut.covers("io.katharsis.resource.moc")).isFalse();
+        assertThat(sut.getResources(packageNames)).contains(Task.class);
+        assertThat(sut.getResources("io.katharsis.resource.moc")).isEmpty();
+    }
+
+    @Test
+    public void onIndexedPackageShouldReturnResourcesAndRepositories() throws Exception {
+        // WHEN
+        String packageName = ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE;
+
+        // THEN
+        assertThat(sut.getResources(packageName)).contains(Task.class);
+        assertThat(sut.getResourceRepositories(packageName)).contains(TaskRepository.class);
+        assertThat(sut.getRelationshipRepositories(packageName)).contains(TaskToProjectRepository.class);
+        assertThat(sut.getResources("io.katharsis.resource.mock.repository")).isEmpty();
+    }
+
+    @ExceptionMapperProvider
+    public static class AnnotatedExceptionMapper implements JsonApiExceptionMapper<IllegalStateException> {
+
+        @Override
+        public ErrorResponse toErrorResponse(IllegalStateException exception) {
+            return ErrorResponse.builder().setStatus(500).build();
+        }
+    }
+
+    public static class InheritedExceptionMapper extends AnnotatedExceptionMapper {
+    }
+}
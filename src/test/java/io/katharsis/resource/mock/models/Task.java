@@ -16,7 +16,7 @@ public class Task {
     @JsonApiIncludeByDefault
     private Project project;
 
-    @JsonApiToMany
+    @JsonApiToMany(linkage = LinkagePolicy.WHEN_LOADED)
     private List<Project> projects;
 
     public Long getId() {
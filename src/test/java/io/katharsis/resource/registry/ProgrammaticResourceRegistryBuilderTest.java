@@ -0,0 +1,90 @@
+package io.katharsis.resource.registry;
+
+import io.katharsis.locator.SampleJsonServiceLocator;
+import io.katharsis.repository.NotFoundRepository;
+import io.katharsis.resource.exception.init.InvalidResourceException;
+import io.katharsis.resource.field.ResourceFieldNameTransformer;
+import io.katharsis.resource.information.ResourceInformationBuilder;
+import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.mock.models.UnAnnotatedTask;
+import io.katharsis.resource.mock.repository.ProjectRepository;
+import io.katharsis.resource.mock.repository.TaskRepository;
+import io.katharsis.resource.mock.repository.TaskToProjectRepository;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static io.katharsis.resource.registry.ResourceRegistryTest.TEST_MODELS_URL;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProgrammaticResourceRegistryBuilderTest {
+
+    private ResourceInformationBuilder resourceInformationBuilder;
+    private ProgrammaticResourceRegistryBuilder sut;
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    @Before
+    public void setUp() throws Exception {
+        resourceInformationBuilder = new ResourceInformationBuilder(new ResourceFieldNameTransformer());
+        sut = new ProgrammaticResourceRegistryBuilder(resourceInformationBuilder);
+    }
+
+    @Test
+    public void onRegisteredResourcesShouldBuildSameEntriesAsScanning() throws Exception {
+        // GIVEN
+        TaskRepository taskRepository = new TaskRepository();
+        TaskToProjectRepository taskToProjectRepository = new TaskToProjectRepository();
+
+        // WHEN
+        ResourceRegistry result = sut
+            .register(Task.class, taskRepository)
+                .relationship(taskToProjectRepository)
+            .register(Project.class, new ProjectRepository())
+            .build(TEST_MODELS_URL);
+
+        // THEN
+        ResourceRegistry scannedRegistry = new ResourceRegistryBuilder(new SampleJsonServiceLocator(),
+            resourceInformationBuilder).build(ResourceRegistryBuilderTest.TEST_MODELS_PACKAGE, TEST_MODELS_URL);
+        RegistryEntry tasksEntry = result.getEntry("tasks");
+        assertThat(tasksEntry.getResourceInformation())
+            .isEqualTo(scannedRegistry.getEntry(Task.class).getResourceInformation());
+        assertThat(tasksEntry.getResourceRepository()).isSameAs(taskRepository);
+        assertThat(tasksEntry.getRelationshipRepositories()).containsExactly(taskToProjectRepository);
+        assertThat(result.getEntry(Project.class).getRelationshipRepositories()).isEmpty();
+        assertThat(result.getResourceUrl(Task.class)).isEqualTo(TEST_MODELS_URL + "/tasks");
+    }
+
+    @Test
+    public void onResourceWithoutRepositoryShouldUseNotFoundRepository() throws Exception {
+        // WHEN
+        ResourceRegistry result = sut.register(Project.class).build(TEST_MODELS_URL);
+
+        // THEN
+        assertThat(result.getEntry(Project.class).getResourceRepository()).isInstanceOf(NotFoundRepository.class);
+    }
+
+    @Test
+    public void onDuplicatedResourceShouldThrowException() throws Exception {
+        // GIVEN
+        sut.register(Project.class);
+
+        // THEN
+        expectedException.expect(InvalidResourceException.class);
+
+        // WHEN
+        sut.register(Project.class);
+    }
+
+    @Test
+    public void onUnAnnotatedResourceShouldThrowException() throws Exception {
+        // THEN
+        expectedException.expect(InvalidResourceException.class);
+
+        // WHEN
+        sut.register(UnAnnotatedTask.class);
+    }
+}
@@ -4,6 +4,7 @@ import io.katharsis.locator.SampleJsonServiceLocator;
 import io.katharsis.repository.NotFoundRepository;
 import io.katharsis.repository.exception.RepositoryInstanceNotFoundException;
 import io.katharsis.resource.field.ResourceFieldNameTransformer;
+import io.katharsis.resource.index.ResourceIndex;
 import io.katharsis.resource.information.ResourceInformationBuilder;
 import io.katharsis.resource.mock.models.Project;
 import io.katharsis.resource.mock.models.ResourceWithoutRepository;
@@ -16,7 +17,21 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
 
 import static io.katharsis.resource.registry.ResourceRegistryTest.TEST_MODELS_URL;
@@ -30,6 +45,9 @@ public class ResourceRegistryBuilderTest {
     @Rule
     public ExpectedException expectedException = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Before
     public void setUp() throws Exception {
         resourceInformationBuilder = new ResourceInformationBuilder(new ResourceFieldNameTransformer());
@@ -134,4 +152,155 @@ public class ResourceRegistryBuilderTest {
         assertThat(entry.getRelationshipRepositoryForClass(Project.class))
             .isExactlyInstanceOf(ResourceWithoutRepositoryToProjectRepository.class);
     }
+
+    @Test
+    public void onValidPackageShouldResolveRelationships() {
+        // GIVEN
+        ResourceRegistryBuilder sut =
+            new ResourceRegistryBuilder(new SampleJsonServiceLocator(), resourceInformationBuilder);
+
+        // WHEN
+        ResourceRegistry result = sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL);
+
+        // THEN
+        RelationshipDescriptor project = result.findRelationship(Task.class, "project");
+        assertThat(project.getTargetClass()).isEqualTo(Project.class);
+        assertThat(project.isCollection()).isFalse();
+        assertThat(project.getTargetEntry()).isSameAs(result.getEntry(Project.class));
+        assertThat(project.getTargetIdClass()).isEqualTo(Long.class);
+        assertThat(project.getRelationshipRepository()).isExactlyInstanceOf(TaskToProjectRepository.class);
+        assertThat(project.getTargetType()).isEqualTo("projects");
+        assertThat(project.parseSourceId("1")).isEqualTo(1L);
+        assertThat(project.parseTargetId("2")).isEqualTo(2L);
+
+        RelationshipDescriptor projects = result.findRelationship(Task.class, "projects");
+        assertThat(projects.getTargetClass()).isEqualTo(Project.class);
+        assertThat(projects.isCollection()).isTrue();
+
+        assertThat(result.findRelationship(Task.class, "name")).isNull();
+    }
+
+    @Test
+    public void onPackageNotCoveredByIndexShouldScanIt() throws Exception {
+        // GIVEN
+        Path indexFile = temporaryFolder.newFile().toPath();
+        Files.write(indexFile,
+            Arrays.asList("root:" + TEST_MODELS_PACKAGE + "s", "package:" + TEST_MODELS_PACKAGE + ".models"));
+        ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+        ClassLoader classLoader = createClassLoaderWithIndex(indexFile);
+        ResourceRegistryBuilder sut =
+            new ResourceRegistryBuilder(new SampleJsonServiceLocator(), resourceInformationBuilder);
+
+        // WHEN
+        ResourceRegistry result;
+        Thread.currentThread().setContextClassLoader(classLoader);
+        try {
+            result = sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL);
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+        }
+
+        // THEN
+        assertThat(result.getEntry(Task.class)).isNotNull();
+    }
+
+    @Test
+    public void onSnapshotFileShouldRestoreSameRegistry() throws Exception {
+        // GIVEN
+        ResourceRegistryBuilder sut =
+            new ResourceRegistryBuilder(new SampleJsonServiceLocator(), resourceInformationBuilder);
+        Path snapshotFile = temporaryFolder.getRoot().toPath().resolve("registry.snapshot");
+        ResourceRegistry builtRegistry = sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL, snapshotFile);
+
+        // WHEN
+        ResourceRegistry restoredRegistry = sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL, snapshotFile);
+
+        // THEN
+        RegistrySnapshot snapshot;
+        try (InputStream inputStream = Files.newInputStream(snapshotFile)) {
+            snapshot = RegistrySnapshot.readFrom(inputStream);
+        }
+        assertThat(snapshot.isValid(TEST_MODELS_PACKAGE, getClass().getClassLoader())).isTrue();
+        assertThat(snapshot.restoreResourceInformations(getClass().getClassLoader()).get(Task.class))
+            .isEqualTo(builtRegistry.getEntry(Task.class).getResourceInformation());
+
+        RegistryEntry tasksEntry = restoredRegistry.getEntry(Task.class);
+        assertThat(tasksEntry.getResourceInformation())
+            .isEqualTo(builtRegistry.getEntry(Task.class).getResourceInformation());
+        assertThat(tasksEntry.getResourceRepository()).isExactlyInstanceOf(TaskRepository.class);
+        assertThat(tasksEntry.getRelationshipRepositories()).hasSize(1);
+        assertThat(restoredRegistry.getEntry(ResourceWithoutRepository.class).getResourceRepository())
+            .isExactlyInstanceOf(NotFoundRepository.class);
+    }
+
+    @Test
+    public void onSnapshotWithOtherClassesShouldRejectIt() throws Exception {
+        // GIVEN
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(outputStream)) {
+            objectOutputStream.writeObject(new HashMap<>(Collections.singletonMap("key", "value")));
+        }
+
+        // THEN
+        expectedException.expect(InvalidClassException.class);
+
+        // WHEN
+        RegistrySnapshot.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+    }
+
+    @Test
+    public void onSnapshotOfOtherPackageShouldNotUseSnapshot() throws Exception {
+        // GIVEN
+        ResourceRegistryBuilder sut =
+            new ResourceRegistryBuilder(new SampleJsonServiceLocator(), resourceInformationBuilder);
+        Path snapshotFile = temporaryFolder.getRoot().toPath().resolve("registry.snapshot");
+        sut.build("io.katharsis.resource.mock.models", TEST_MODELS_URL, snapshotFile);
+
+        // WHEN
+        ResourceRegistry resourceRegistry = sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL, snapshotFile);
+
+        // THEN
+        assertThat(resourceRegistry.getEntry(Task.class).getResourceRepository())
+            .isExactlyInstanceOf(TaskRepository.class);
+        try (InputStream inputStream = Files.newInputStream(snapshotFile)) {
+            assertThat(RegistrySnapshot.readFrom(inputStream).isValid(TEST_MODELS_PACKAGE,
+                getClass().getClassLoader())).isTrue();
+        }
+    }
+
+    @Test
+    public void onPackageNotCoveredByIndexShouldNotWriteSnapshot() throws Exception {
+        // GIVEN
+        Path indexFile = temporaryFolder.newFile().toPath();
+        Files.write(indexFile, Collections.singletonList("package:" + TEST_MODELS_PACKAGE + ".models"));
+        Path snapshotFile = temporaryFolder.getRoot().toPath().resolve("registry.snapshot");
+        ClassLoader originalClassLoader = Thread.currentThread().getContextClassLoader();
+        ResourceRegistryBuilder sut =
+            new ResourceRegistryBuilder(new SampleJsonServiceLocator(), resourceInformationBuilder);
+
+        // WHEN
+        ResourceRegistry result;
+        Thread.currentThread().setContextClassLoader(createClassLoaderWithIndex(indexFile));
+        try {
+            result = sut.build(TEST_MODELS_PACKAGE, TEST_MODELS_URL, snapshotFile);
+        } finally {
+            Thread.currentThread().setContextClassLoader(originalClassLoader);
+        }
+
+        // THEN
+        assertThat(result.getEntry(Task.class)).isNotNull();
+        assertThat(snapshotFile).doesNotExist();
+    }
+
+    private ClassLoader createClassLoaderWithIndex(Path indexFile) {
+        return new ClassLoader(getClass().getClassLoader()) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                if (ResourceIndex.INDEX_LOCATION.equals(name)) {
+                    return Collections.enumeration(Collections.singletonList(indexFile.toUri().toURL()));
+                }
+                return super.getResources(name);
+            }
+        };
+    }
 }
@@ -0,0 +1,96 @@
+package io.katharsis.resource.registry;
+
+import io.katharsis.resource.mock.models.Project;
+import io.katharsis.resource.mock.models.ResourceWithoutRepository;
+import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.mock.models.User;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ResourceRegistryConcurrencyTest {
+
+    private static final Class<?>[] RESOURCE_CLASSES =
+        {Task.class, Project.class, User.class, ResourceWithoutRepository.class};
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int WRITES_PER_WRITER = 2000;
+
+    @Test
+    public void onConcurrentWritesShouldNotLoseUpdatesAndReadersShouldSeeCompleteStates() throws Exception {
+        // GIVEN
+        ResourceRegistry sut = new ResourceRegistry(ResourceRegistryTest.TEST_MODELS_URL);
+        sut.addEntries(createEntries());
+        long initialVersion = sut.getVersion();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+
+        // WHEN
+        try {
+            for (int i = 0; i < WRITERS; i++) {
+                writers.add(executorService.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < WRITES_PER_WRITER; j++) {
+                        if (j % 2 == 0) {
+                            sut.addEntries(createEntries());
+                        } else {
+                            sut.addEntry(Task.class, new RegistryEntry<>(null, null));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < READERS; i++) {
+                readers.add(executorService.submit(() -> {
+                    start.await();
+                    long lastVersion = initialVersion;
+                    while (writing.get()) {
+                        long version = sut.getVersion();
+                        assertThat(version).isGreaterThanOrEqualTo(lastVersion);
+                        lastVersion = version;
+                        for (Class<?> resourceClass : RESOURCE_CLASSES) {
+                            assertThat(sut.getEntry(resourceClass)).isNotNull();
+                            assertThat(sut.getEntry(sut.getResourceType(resourceClass))).isNotNull();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // THEN
+        assertThat(sut.getVersion()).isEqualTo(initialVersion + WRITERS * WRITES_PER_WRITER);
+        for (Class<?> resourceClass : RESOURCE_CLASSES) {
+            assertThat(sut.findEntry(resourceClass)).isNotNull();
+        }
+    }
+
+    private static Map<Class, RegistryEntry> createEntries() {
+        Map<Class, RegistryEntry> entries = new HashMap<>();
+        for (Class<?> resourceClass : RESOURCE_CLASSES) {
+            entries.put(resourceClass, new RegistryEntry<>(null, null));
+        }
+        return entries;
+    }
+}
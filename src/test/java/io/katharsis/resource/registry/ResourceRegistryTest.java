@@ -1,12 +1,22 @@
 package io.katharsis.resource.registry;
 
+import io.katharsis.resource.annotations.JsonApiId;
+import io.katharsis.resource.annotations.JsonApiResource;
+import io.katharsis.resource.annotations.JsonApiToMany;
+import io.katharsis.resource.exception.init.InvalidRelationshipException;
 import io.katharsis.resource.exception.init.ResourceNotFoundInitializationException;
+import io.katharsis.resource.field.ResourceFieldNameTransformer;
+import io.katharsis.resource.information.ResourceInformation;
+import io.katharsis.resource.information.ResourceInformationBuilder;
 import io.katharsis.resource.mock.models.Task;
+import io.katharsis.resource.mock.repository.TaskRepository;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.*;
 
 public class ResourceRegistryTest {
@@ -53,4 +63,64 @@ public class ResourceRegistryTest {
         expectedException.expect(ResourceNotFoundInitializationException.class);
         resourceRegisty.getEntry(Long.class);
     }
+
+    @Test
+    public void onReplacedEntryShouldReturnNewEntryAndChangeVersion() {
+        RegistryEntry<Task> oldEntry = new RegistryEntry<>(null, null);
+        RegistryEntry<Task> newEntry = new RegistryEntry<>(null, new TaskRepository());
+        resourceRegisty.addEntry(Task.class, oldEntry);
+        long version = resourceRegisty.getVersion();
+
+        resourceRegisty.addEntry(Task.class, newEntry);
+
+        assertThat(resourceRegisty.getEntry("tasks")).isSameAs(newEntry);
+        assertThat(resourceRegisty.getEntry(Task.class)).isSameAs(newEntry);
+        assertThat(resourceRegisty.getVersion()).isGreaterThan(version);
+    }
+
+    @Test
+    public void onRemovedEntryShouldNotReturnEntry() {
+        resourceRegisty.addEntry(Task.class, new RegistryEntry<>(null, null));
+
+        resourceRegisty.removeEntry(Task.class);
+
+        assertThat(resourceRegisty.findEntry(Task.class)).isNull();
+        assertThat(resourceRegisty.getEntry("tasks")).isNull();
+    }
+
+    @Test
+    public void onUnresolvableRelationshipShouldReportFailureOnEachUse() {
+        // GIVEN
+        ResourceInformation resourceInformation = new ResourceInformationBuilder(new ResourceFieldNameTransformer())
+            .build(Board.class);
+        resourceRegisty.addEntry(Board.class, new RegistryEntry<>(resourceInformation, null));
+
+        // WHEN
+        Throwable first = catchThrowable(() -> resourceRegisty.findRelationship(Board.class, "items"));
+        Throwable second = catchThrowable(() -> resourceRegisty.findRelationship(Board.class, "items"));
+
+        // THEN
+        assertThat(first).isInstanceOf(InvalidRelationshipException.class);
+        assertThat(first.getCause()).isNotNull();
+        assertThat(second).isInstanceOf(InvalidRelationshipException.class).isNotSameAs(first);
+        assertThat(second.getCause()).isSameAs(first.getCause());
+    }
+
+    @JsonApiResource(type = "boards")
+    public static class Board {
+
+        @JsonApiId
+        private Long id;
+
+        @JsonApiToMany
+        private List<?> items;
+
+        public Long getId() {
+            return id;
+        }
+
+        public List<?> getItems() {
+            return items;
+        }
+    }
 }
@@ -24,6 +24,7 @@ public class ResponseContractTest {
     public void DataLinksContainerEqualsContract() throws NoSuchFieldException {
         EqualsVerifier.forClass(DataLinksContainer.class)
                 .withPrefabValues(Field.class, String.class.getDeclaredField("value"), String.class.getDeclaredField("hash"))
+                .withPrefabValues(RequestParams.class, new RequestParams(null), new RequestParams(null))
                 .usingGetClass()
                 .suppress(Warning.NONFINAL_FIELDS)
                 .verify();
@@ -50,6 +51,7 @@ public class ResponseContractTest {
     public void RelationshipContainerContainerEqualsContract() throws NoSuchFieldException {
         EqualsVerifier.forClass(RelationshipContainer.class)
                 .withPrefabValues(Field.class, String.class.getDeclaredField("value"), String.class.getDeclaredField("hash"))
+                .withPrefabValues(RequestParams.class, new RequestParams(null), new RequestParams(null))
                 .usingGetClass()
                 .suppress(Warning.NONFINAL_FIELDS)
                 .verify();
@@ -7,8 +7,11 @@ import org.junit.rules.ExpectedException;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Objects;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -221,6 +224,51 @@ public class TypeParserTest {
         assertThat(result.iterator().next()).isEqualTo(1L);
     }
 
+    @Test
+    public void onUuidShouldReturnUuid() throws Exception {
+        UUID uuid = UUID.randomUUID();
+        UUID result = sut.parse(uuid.toString(), UUID.class);
+        assertThat(result).isEqualTo(uuid);
+    }
+
+    @Test
+    public void onLocalDateShouldReturnLocalDate() throws Exception {
+        LocalDate result = sut.parse("2016-02-29", LocalDate.class);
+        assertThat(result).isEqualTo(LocalDate.of(2016, 2, 29));
+    }
+
+    @Test
+    public void onBadLocalDateShouldThrowException() throws Exception {
+        // THEN
+        expectedException.expect(ParserException.class);
+
+        // WHEN
+        sut.parse("2016-02-30", LocalDate.class);
+    }
+
+    @Test
+    public void onClassWithValueOfMethodShouldReturnClassInstance() throws Exception {
+        SampleValueOfClass result = sut.parse("input", SampleValueOfClass.class);
+        assertThat(result.value).isEqualTo("input");
+    }
+
+    @Test
+    public void onErrorInValueOfMethodShouldPropagateError() throws Exception {
+        // THEN
+        expectedException.expect(AssertionError.class);
+
+        // WHEN
+        sut.parse("input", FailingValueOfClass.class);
+    }
+
+    @Test
+    public void onListOfUuidsShouldReturnValuesInOrder() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        Iterable<UUID> result = sut.parse(Arrays.asList(first.toString(), second.toString()), UUID.class);
+        assertThat(result).containsExactly(first, second);
+    }
+
     private enum SampleEnum {
         SAMPLE_VALUE
     }
@@ -248,4 +296,23 @@ public class TypeParserTest {
 
     private static class UnknownClass implements Serializable {
     }
-}
\ No newline at end of file
+
+    public static class SampleValueOfClass implements Serializable {
+        private final String value;
+
+        private SampleValueOfClass(String value, boolean validated) {
+            this.value = value;
+        }
+
+        public static SampleValueOfClass valueOf(String value) {
+            return new SampleValueOfClass(value, true);
+        }
+    }
+
+    public static class FailingValueOfClass implements Serializable {
+
+        public static FailingValueOfClass valueOf(String value) {
+            throw new AssertionError(value);
+        }
+    }
+}